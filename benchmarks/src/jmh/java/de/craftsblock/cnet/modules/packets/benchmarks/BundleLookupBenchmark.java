@@ -0,0 +1,116 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PacketBundleRegistry#getBundle(String) bundle lookups} with
+ * many registered bundles, through the registry as well as through the
+ * snapshot used by the codecs.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BundleLookupBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int bundles;
+
+    private WebSocketPackets webSocketPackets;
+    private PacketBundleRegistry registry;
+    private String identifier;
+    private String unknownIdentifier;
+
+    /**
+     * Registers the benchmark bundle followed by the configured amount of empty bundles.
+     */
+    @Setup
+    public void setup() {
+        this.webSocketPackets = BenchmarkBundles.load();
+        this.registry = webSocketPackets.getPacketBundleRegistry();
+
+        for (int i = 0; i < bundles; i++)
+            registry.create("bundle-" + i, 1).build();
+
+        this.identifier = "bundle-" + (bundles - 1);
+        this.unknownIdentifier = "unknown";
+    }
+
+    /**
+     * Disables the instance loaded for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        this.webSocketPackets.onDisable();
+    }
+
+    /**
+     * Looks up a bundle by its identifier through the registry.
+     *
+     * @return The bundle.
+     */
+    @Benchmark
+    public PacketBundle registryByIdentifier() {
+        return registry.getBundle(identifier);
+    }
+
+    /**
+     * Looks up a bundle by one of its packet classes through the registry.
+     *
+     * @return The bundle.
+     */
+    @Benchmark
+    public PacketBundle registryByClass() {
+        return registry.getBundle(BlobPacket.class);
+    }
+
+    /**
+     * Looks up a bundle by its identifier through the current snapshot, as done while decoding.
+     *
+     * @return The bundle.
+     */
+    @Benchmark
+    public FrozenPacketBundle snapshotByIdentifier() {
+        return registry.getSnapshot().getBundle(identifier);
+    }
+
+    /**
+     * Looks up a bundle by one of its packet classes through the current snapshot, as done while encoding.
+     *
+     * @return The bundle.
+     */
+    @Benchmark
+    public FrozenPacketBundle snapshotByClass() {
+        return registry.getSnapshot().getBundle(BlobPacket.class);
+    }
+
+    /**
+     * Looks up an unknown identifier, as done for every relayed or wrapped packet.
+     *
+     * @return {@code null}.
+     */
+    @Benchmark
+    public FrozenPacketBundle snapshotUnknown() {
+        return registry.getSnapshot().getBundle(unknownIdentifier);
+    }
+
+}
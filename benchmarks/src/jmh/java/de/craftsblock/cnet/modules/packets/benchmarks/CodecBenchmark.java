@@ -0,0 +1,92 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PacketEncoder#encode(Packet)} and {@link PacketDecoder#decode(ByteBuffer)}
+ * across payload sizes, with and without recording metrics.
+ * <p>
+ * Decoding wraps the frame into a new buffer for every operation, just like
+ * the listener does for every received frame.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    public int payloadSize;
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private WebSocketPackets webSocketPackets;
+    private PacketEncoder encoder;
+    private PacketDecoder decoder;
+    private BlobPacket packet;
+    private byte[] frame;
+
+    /**
+     * Registers the benchmark bundle and encodes the frame used for decoding.
+     */
+    @Setup
+    public void setup() {
+        this.webSocketPackets = BenchmarkBundles.load();
+        this.webSocketPackets.getPacketMetrics().setEnabled(metrics);
+
+        this.encoder = webSocketPackets.getPacketEncoder();
+        this.decoder = webSocketPackets.getPacketDecoder();
+        this.packet = BlobPacket.ofSize(payloadSize);
+        this.frame = encoder.encode(packet).getSource();
+    }
+
+    /**
+     * Disables the instance loaded for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        this.webSocketPackets.onDisable();
+    }
+
+    /**
+     * Encodes a packet into a new frame.
+     *
+     * @return The encoded frame.
+     */
+    @Benchmark
+    public ByteBuffer encode() {
+        return encoder.encode(packet);
+    }
+
+    /**
+     * Decodes a received frame.
+     *
+     * @return The decoded packet.
+     */
+    @Benchmark
+    public Packet decode() {
+        return decoder.decode(new ByteBuffer(frame));
+    }
+
+}
@@ -0,0 +1,77 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.PlayerUpdatePacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.packet.EntityPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of an {@link EntityPacket}, on its own as well
+ * as as part of a complete encode.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityPacketBenchmark {
+
+    private WebSocketPackets webSocketPackets;
+    private PacketEncoder encoder;
+    private PlayerUpdatePacket packet;
+
+    /**
+     * Registers the benchmark bundle and creates the packet.
+     */
+    @Setup
+    public void setup() {
+        this.webSocketPackets = BenchmarkBundles.load();
+        this.encoder = webSocketPackets.getPacketEncoder();
+        this.packet = PlayerUpdatePacket.sample(42);
+    }
+
+    /**
+     * Disables the instance loaded for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        this.webSocketPackets.onDisable();
+    }
+
+    /**
+     * Writes the entity into a new buffer.
+     *
+     * @return The buffer.
+     */
+    @Benchmark
+    public ByteBuffer write() {
+        ByteBuffer buffer = new ByteBuffer(4, false);
+        packet.write(buffer);
+        return buffer;
+    }
+
+    /**
+     * Encodes the packet into a new frame.
+     *
+     * @return The encoded frame.
+     */
+    @Benchmark
+    public ByteBuffer encode() {
+        return encoder.encode(packet);
+    }
+
+}
@@ -0,0 +1,113 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListener;
+import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListenerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of {@link PacketListener packet listeners} in the
+ * {@link PacketListenerRegistry}, which happens for every handled packet.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerLookupBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int listeners;
+
+    private PacketListenerRegistry registry;
+
+    /**
+     * Registers the configured amount of listeners with ascending priorities.
+     */
+    @Setup
+    public void setup() {
+        this.registry = new PacketListenerRegistry();
+
+        for (int i = 0; i < listeners; i++)
+            registry.register(BlobListener.class, new SimpleBlobListener(), i);
+    }
+
+    /**
+     * Looks up the listener with the highest priority.
+     *
+     * @return The listener.
+     */
+    @Benchmark
+    public BlobListener get() {
+        return registry.get(BlobListener.class);
+    }
+
+    /**
+     * Looks up all listeners ordered by their priority.
+     *
+     * @return The listeners.
+     */
+    @Benchmark
+    public BlobListener[] getAll() {
+        return registry.getAll(BlobListener.class);
+    }
+
+    /**
+     * Looks up a listener type without registered listeners.
+     *
+     * @return An empty array.
+     */
+    @Benchmark
+    public UnusedListener[] getAllUnregistered() {
+        return registry.getAll(UnusedListener.class);
+    }
+
+    /**
+     * A listener for {@link BlobPacket blob packets}.
+     */
+    public interface BlobListener extends PacketListener {
+
+        /**
+         * Handles a blob packet.
+         *
+         * @param packet The packet.
+         */
+        void handle(BlobPacket packet);
+
+    }
+
+    /**
+     * A listener type which is never registered.
+     */
+    public interface UnusedListener extends PacketListener {
+    }
+
+    /**
+     * A {@link BlobListener} which ignores all packets.
+     */
+    public static final class SimpleBlobListener implements BlobListener {
+
+        /**
+         * Ignores the packet.
+         *
+         * @param packet The packet.
+         */
+        @Override
+        public void handle(BlobPacket packet) {
+        }
+
+    }
+
+}
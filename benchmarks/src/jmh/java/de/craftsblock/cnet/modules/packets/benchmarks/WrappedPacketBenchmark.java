@@ -0,0 +1,101 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the passthrough of packets of bundles unknown to the receiver,
+ * which are decoded into a {@link WrappedPacket} and encoded again unchanged.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrappedPacketBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    public int payloadSize;
+
+    private WebSocketPackets webSocketPackets;
+    private PacketEncoder encoder;
+    private PacketDecoder decoder;
+    private WrappedPacket packet;
+    private byte[] frame;
+
+    /**
+     * Encodes a frame of a bundle which is not registered.
+     */
+    @Setup
+    public void setup() {
+        this.webSocketPackets = new WebSocketPackets();
+        this.webSocketPackets.onLoad();
+
+        this.encoder = webSocketPackets.getPacketEncoder();
+        this.decoder = webSocketPackets.getPacketDecoder();
+
+        ByteBuffer payload = new ByteBuffer(payloadSize + 4, false);
+        BlobPacket.ofSize(payloadSize).write(payload);
+
+        this.packet = new WrappedPacket("foreign", 0, payload.getSource());
+        this.frame = encoder.encode(packet).getSource();
+    }
+
+    /**
+     * Disables the instance loaded for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        this.webSocketPackets.onDisable();
+    }
+
+    /**
+     * Decodes a frame of an unknown bundle.
+     *
+     * @return The wrapped packet.
+     */
+    @Benchmark
+    public Packet decode() {
+        return decoder.decode(new ByteBuffer(frame));
+    }
+
+    /**
+     * Encodes a wrapped packet.
+     *
+     * @return The encoded frame.
+     */
+    @Benchmark
+    public ByteBuffer encode() {
+        return encoder.encode(packet);
+    }
+
+    /**
+     * Decodes a frame of an unknown bundle and encodes it again, as done when forwarding packets.
+     *
+     * @return The encoded frame.
+     */
+    @Benchmark
+    public ByteBuffer passthrough() {
+        return encoder.encode(decoder.decode(new ByteBuffer(frame)));
+    }
+
+}
@@ -0,0 +1,57 @@
+package de.craftsblock.cnet.modules.packets.benchmarks;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.EchoPacket;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.PlayerUpdatePacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers the packets shared by the benchmarks, load tests and allocation checks.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class BenchmarkBundles {
+
+    /**
+     * The identifier of the bundle containing the benchmark packets.
+     */
+    public static final String IDENTIFIER = "benchmark";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BenchmarkBundles() {
+    }
+
+    /**
+     * Creates and loads a {@link WebSocketPackets} instance with the benchmark bundle registered.
+     *
+     * @return The loaded instance.
+     */
+    public static @NotNull WebSocketPackets load() {
+        WebSocketPackets webSocketPackets = new WebSocketPackets();
+        webSocketPackets.onLoad();
+        register(webSocketPackets);
+        return webSocketPackets;
+    }
+
+    /**
+     * Registers the benchmark bundle.
+     *
+     * @param webSocketPackets The instance to register the bundle into.
+     * @return The registered bundle.
+     */
+    public static @NotNull PacketBundle register(@NotNull WebSocketPackets webSocketPackets) {
+        return webSocketPackets.getPacketBundleRegistry().create(IDENTIFIER, 1)
+                .addPacket(BlobPacket.class, BlobPacket::new)
+                .addPacket(PlayerUpdatePacket.class, PlayerUpdatePacket::new)
+                .addPacket(EchoPacket.class, EchoPacket::new)
+                .build();
+    }
+
+}
@@ -0,0 +1,48 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.allocation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * The maximum amount of bytes an operation of the packet path may allocate per packet.
+ * <p>
+ * Budgets include the allocations an operation can not avoid, like the frame
+ * of an encoded packet or the fields of a decoded one, so they depend on the
+ * packet the operation is measured with.
+ *
+ * @param name      The name of the operation, shown in the report.
+ * @param bytes     The allowed allocation per packet in bytes.
+ * @param operation The operation, processing a single packet per invocation.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see AllocationBudgetCheck
+ * @since 1.2.0
+ */
+public record AllocationBudget(@NotNull String name, long bytes, @NotNull Supplier<?> operation) {
+
+    /**
+     * Measures the allocation of the operation per packet.
+     *
+     * @param warmup     The invocations before measuring.
+     * @param iterations The invocations measured per round.
+     * @param rounds     The amount of rounds.
+     * @return The allocated bytes per packet.
+     * @see AllocationMeter#measure(Supplier, int, int, int)
+     */
+    public double measure(int warmup, int iterations, int rounds) {
+        return AllocationMeter.measure(operation, warmup, iterations, rounds);
+    }
+
+    /**
+     * Checks whether a measured allocation exceeds this budget.
+     *
+     * @param measured The measured bytes per packet.
+     * @return {@code true} if the budget is exceeded, {@code false} otherwise.
+     */
+    public boolean isExceededBy(double measured) {
+        return measured > bytes;
+    }
+
+}
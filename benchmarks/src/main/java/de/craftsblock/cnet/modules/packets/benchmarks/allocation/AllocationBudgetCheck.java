@@ -0,0 +1,249 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.allocation;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.BenchmarkBundles;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.BlobPacket;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.EchoListener;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.EchoPacket;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.PlayerUpdatePacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.builtin.SimpleWebSocketListener;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.SimpleEnvironment;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketDispatcher;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks the allocation of the hot paths of the packet pipeline against declared budgets.
+ * <p>
+ * Covered are {@link PacketEncoder#encode(Packet, Networker)}, {@link PacketDecoder#decode(ByteBuffer, Networker)},
+ * {@link SimpleWebSocketListener#onBinary(WebSocket, java.nio.ByteBuffer, boolean)} and the dispatch
+ * of a packet to its listeners through {@link PacketDispatcher}, each with metrics disabled and enabled.
+ * Every operation is measured through the {@link AllocationMeter} and the check
+ * fails with exit code {@code 1} if any budget is exceeded, so allocations
+ * sneaking into these paths are noticed wherever the check is run. It is not
+ * part of the regular build, as the measurements depend on the JVM and the
+ * machine. Budgets should be lowered whenever a path allocates less.
+ * <p>
+ * Passing {@code --report} only prints the measurements without failing.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class AllocationBudgetCheck {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private AllocationBudgetCheck() {
+    }
+
+    /**
+     * Runs the check.
+     *
+     * @param args {@code --report} to only print the measurements.
+     */
+    public static void main(String[] args) {
+        boolean report = List.of(args).contains("--report");
+        if (!AllocationMeter.isSupported()) {
+            System.out.println("Skipping the allocation budgets, the JVM does not support measuring thread allocations.");
+            return;
+        }
+
+        int exceeded = 0;
+        for (boolean metrics : new boolean[]{false, true}) {
+            WebSocketPackets webSocketPackets = BenchmarkBundles.load();
+            webSocketPackets.getPacketMetrics().setEnabled(metrics);
+
+            try {
+                System.out.printf(Locale.ROOT, "%nMetrics %s%n", metrics ? "enabled" : "disabled");
+                for (AllocationBudget budget : budgets(webSocketPackets)) {
+                    double measured = budget.measure(WARMUP, ITERATIONS, ROUNDS);
+                    boolean failed = budget.isExceededBy(measured);
+                    if (failed) exceeded++;
+
+                    System.out.printf(Locale.ROOT, "  %-28s %,10.1f / %,7d bytes per packet  %s%n",
+                            budget.name(), measured, budget.bytes(), failed ? "EXCEEDED" : "ok");
+                }
+            } finally {
+                webSocketPackets.onDisable();
+            }
+        }
+
+        if (exceeded == 0) return;
+        System.out.printf(Locale.ROOT, "%n%s allocation budget(s) exceeded!%n", exceeded);
+        if (!report) System.exit(1);
+    }
+
+    /**
+     * Creates the budgets of the hot paths, measured against a connection opened
+     * through a {@link SimpleWebSocketListener} of the given instance.
+     *
+     * @param webSocketPackets The instance the packets are processed with.
+     * @return The budgets.
+     */
+    private static @NotNull List<AllocationBudget> budgets(@NotNull WebSocketPackets webSocketPackets) {
+        SimpleWebSocketListener listener = new SimpleWebSocketListener(new SimpleEnvironment(webSocketPackets));
+        WebSocket webSocket = new DiscardingWebSocket();
+        listener.onOpen(webSocket);
+
+        Networker networker = SimpleWebSocketListener.getNetworkerFor(webSocket);
+        PacketEncoder encoder = webSocketPackets.getPacketEncoder();
+        PacketDecoder decoder = webSocketPackets.getPacketDecoder();
+        webSocketPackets.getPacketListenerRegistry().register(EchoListener.class, (EchoListener) (source, packet) -> {
+        }, 0);
+
+        BlobPacket blob = BlobPacket.ofSize(64);
+        PlayerUpdatePacket update = PlayerUpdatePacket.sample(1);
+        EchoPacket echo = new EchoPacket(0, new byte[16]);
+
+        byte[] blobFrame = encoder.encode(blob, networker).getSource();
+        byte[] updateFrame = encoder.encode(update, networker).getSource();
+        java.nio.ByteBuffer message = java.nio.ByteBuffer.wrap(blobFrame);
+
+        List<AllocationBudget> budgets = new ArrayList<>();
+        budgets.add(new AllocationBudget("encode blob (64 bytes)", 512, () -> encoder.encode(blob, networker)));
+        budgets.add(new AllocationBudget("encode player update", 640, () -> encoder.encode(update, networker)));
+        budgets.add(new AllocationBudget("decode blob (64 bytes)", 768, () -> decoder.decode(new ByteBuffer(blobFrame), networker)));
+        budgets.add(new AllocationBudget("decode player update", 768, () -> decoder.decode(new ByteBuffer(updateFrame), networker)));
+        budgets.add(new AllocationBudget("onBinary blob (64 bytes)", 1536, () -> {
+            message.rewind();
+            return listener.onBinary(webSocket, message, true);
+        }));
+        budgets.add(new AllocationBudget("dispatch echo to listener", 96, () -> {
+            PacketDispatcher.dispatch(networker, echo);
+            return echo;
+        }));
+        return budgets;
+    }
+
+    /**
+     * A {@link WebSocket} which completes every send without transmitting anything,
+     * used to open a connection on the {@link SimpleWebSocketListener}.
+     */
+    private static final class DiscardingWebSocket implements WebSocket {
+
+        private final CompletableFuture<WebSocket> completed = CompletableFuture.completedFuture(this);
+
+        /**
+         * Discards a text message.
+         *
+         * @param data The text to send.
+         * @param last Whether this is the last part of the message.
+         * @return An already completed future.
+         */
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return completed;
+        }
+
+        /**
+         * Discards a binary message.
+         *
+         * @param data The data to send.
+         * @param last Whether this is the last part of the message.
+         * @return An already completed future.
+         */
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(java.nio.ByteBuffer data, boolean last) {
+            return completed;
+        }
+
+        /**
+         * Discards a ping.
+         *
+         * @param message The payload of the ping.
+         * @return An already completed future.
+         */
+        @Override
+        public CompletableFuture<WebSocket> sendPing(java.nio.ByteBuffer message) {
+            return completed;
+        }
+
+        /**
+         * Discards a pong.
+         *
+         * @param message The payload of the pong.
+         * @return An already completed future.
+         */
+        @Override
+        public CompletableFuture<WebSocket> sendPong(java.nio.ByteBuffer message) {
+            return completed;
+        }
+
+        /**
+         * Discards a close message.
+         *
+         * @param statusCode The close code.
+         * @param reason     The reason of the closure.
+         * @return An already completed future.
+         */
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            return completed;
+        }
+
+        /**
+         * Ignores the request, as nothing is ever received.
+         *
+         * @param n The amount of requested messages.
+         */
+        @Override
+        public void request(long n) {
+        }
+
+        /**
+         * Gets the sub protocol, which is never negotiated.
+         *
+         * @return An empty string.
+         */
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        /**
+         * Checks whether the output is closed, which it never is.
+         *
+         * @return Always {@code false}.
+         */
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        /**
+         * Checks whether the input is closed, which it never is.
+         *
+         * @return Always {@code false}.
+         */
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        /**
+         * Does nothing, as there is no connection to abort.
+         */
+        @Override
+        public void abort() {
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.allocation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bytes allocated by an operation on the current thread through
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+ * <p>
+ * The counter of the JVM is exact up to the current thread local allocation
+ * buffer, so measuring many invocations and dividing yields the allocation of
+ * a single invocation without sampling noise. Operations are warmed up first,
+ * so that allocations removed by the JIT compiler through escape analysis are
+ * not counted. The results of the operations are published to a volatile
+ * field, which keeps the compiler from removing the operation entirely.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS;
+    private static volatile Object sink;
+
+    static {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        THREADS = threads instanceof com.sun.management.ThreadMXBean extended && extended.isThreadAllocatedMemorySupported()
+                ? extended
+                : null;
+
+        if (THREADS != null) THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private AllocationMeter() {
+    }
+
+    /**
+     * Checks whether the JVM supports measuring the allocations of threads.
+     *
+     * @return {@code true} if allocations can be measured, {@code false} otherwise.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Measures the bytes an operation allocates per invocation.
+     * <p>
+     * The measurement is repeated for the given amount of rounds and the
+     * lowest result is returned, which filters out allocations made by the
+     * JVM itself while a round ran, like the compilation of the operation.
+     *
+     * @param operation  The operation to measure.
+     * @param warmup     The invocations before measuring.
+     * @param iterations The invocations measured per round.
+     * @param rounds     The amount of rounds.
+     * @return The allocated bytes per invocation.
+     * @throws IllegalStateException If the JVM does not support measuring allocations.
+     */
+    public static double measure(@NotNull Supplier<?> operation, @Range(from = 0, to = Integer.MAX_VALUE) int warmup,
+                                 @Range(from = 1, to = Integer.MAX_VALUE) int iterations,
+                                 @Range(from = 1, to = Integer.MAX_VALUE) int rounds) {
+        if (THREADS == null)
+            throw new IllegalStateException("The JVM does not support measuring thread allocations!");
+
+        for (int i = 0; i < warmup; i++)
+            sink = operation.get();
+
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++)
+                sink = operation.get();
+
+            lowest = Math.min(lowest, THREADS.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        sink = null;
+        return (double) lowest / iterations;
+    }
+
+}
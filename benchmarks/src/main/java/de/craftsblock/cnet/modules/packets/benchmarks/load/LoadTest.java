@@ -0,0 +1,288 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.load;
+
+import de.craftsblock.cnet.modules.packets.benchmarks.BenchmarkBundles;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.EchoListener;
+import de.craftsblock.cnet.modules.packets.benchmarks.packets.EchoPacket;
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.metrics.HistogramSnapshot;
+import de.craftsblock.cnet.modules.packets.common.metrics.LatencyHistogram;
+import de.craftsblock.cnet.modules.packets.common.metrics.LatencyStage;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.builtin.SimpleWebSocketListener;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.SimpleEnvironment;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test driving the complete packet path over loopback.
+ * <p>
+ * A {@link LoopbackServer} and the configured amount of {@link java.net.http}
+ * web socket clients using the {@link SimpleWebSocketListener} are started in
+ * this process. Every client keeps a fixed amount of {@link EchoPacket echo packets}
+ * of the configured mix in flight, which the server decodes, handles and sends
+ * back in fragments. Measured are the complete round trips covering send,
+ * fragmentation, reassembly, decode and handle on both sides.
+ * <p>
+ * After the warmup the throughput, the round trip percentiles, the latency
+ * of the pipeline stages, the allocation rate of all threads and the time
+ * spent in garbage collection are reported. See {@link LoadTestOptions} for
+ * the available options.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class LoadTest {
+
+    private final LoadTestOptions options;
+    private final byte[][] payloads;
+    private final LatencyHistogram roundTrips = new LatencyHistogram();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final ConcurrentHashMap<Long, Semaphore> inflight = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new {@link LoadTest}.
+     *
+     * @param options The options of the test.
+     */
+    public LoadTest(@NotNull LoadTestOptions options) {
+        this.options = options;
+        this.payloads = new byte[options.payloadSizes().length][];
+
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = new byte[options.payloadSizes()[i]];
+            for (int j = 0; j < payloads[i].length; j++)
+                payloads[i][j] = (byte) (j * 31);
+        }
+    }
+
+    /**
+     * Runs a load test with the options passed as arguments.
+     *
+     * @param args The options of the test.
+     * @throws Exception If the test fails.
+     */
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    /**
+     * Runs the test and prints the report.
+     *
+     * @throws IOException          If the server could not be started.
+     * @throws InterruptedException If the test was interrupted.
+     */
+    public void run() throws IOException, InterruptedException {
+        WebSocketPackets serverPackets = BenchmarkBundles.load();
+        WebSocketPackets clientPackets = BenchmarkBundles.load();
+        Environment serverEnvironment = new SimpleEnvironment(serverPackets);
+        Environment clientEnvironment = new SimpleEnvironment(clientPackets);
+
+        serverPackets.getPacketListenerRegistry().register(EchoListener.class, (EchoListener) Networker::send, 0);
+        clientPackets.getPacketListenerRegistry().register(EchoListener.class, (EchoListener) this::onEcho, 0);
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        List<Networker> clients = new ArrayList<>();
+        List<Thread> senders = new ArrayList<>();
+
+        try (LoopbackServer server = new LoopbackServer(serverEnvironment, options.fragmentSize())) {
+            for (int i = 0; i < options.clients(); i++) {
+                WebSocket webSocket = httpClient.newWebSocketBuilder()
+                        .buildAsync(server.getUri(), new SimpleWebSocketListener(clientEnvironment))
+                        .join();
+
+                Networker networker = SimpleWebSocketListener.getNetworkerFor(webSocket);
+                inflight.put(networker.getId(), new Semaphore(options.inflight()));
+                clients.add(networker);
+
+                Thread sender = new Thread(() -> this.drive(networker), "load-test-client-" + i);
+                sender.setDaemon(true);
+                senders.add(sender);
+            }
+
+            senders.forEach(Thread::start);
+            System.out.printf(Locale.ROOT, "Started %s clients against %s, warming up for %ss%n",
+                    options.clients(), server.getUri(), options.warmupSeconds());
+            TimeUnit.SECONDS.sleep(options.warmupSeconds());
+
+            roundTrips.reset();
+            received.reset();
+            receivedBytes.reset();
+            serverPackets.getPacketMetrics().reset();
+            clientPackets.getPacketMetrics().reset();
+
+            RuntimeSample before = RuntimeSample.take();
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep(options.seconds());
+            long elapsed = System.nanoTime() - start;
+            RuntimeSample after = RuntimeSample.take();
+            long count = received.sum(), bytes = receivedBytes.sum();
+
+            this.running = false;
+            for (Thread sender : senders)
+                sender.join(TimeUnit.SECONDS.toMillis(5));
+
+            this.report(elapsed, count, bytes, before, after, serverPackets, clientPackets);
+
+            for (Networker client : clients)
+                client.disconnect();
+        } finally {
+            serverPackets.onDisable();
+            clientPackets.onDisable();
+        }
+    }
+
+    /**
+     * Sends packets of the mix through a client until the test is stopped,
+     * keeping the configured amount of packets in flight.
+     *
+     * @param networker The networker of the client.
+     */
+    private void drive(Networker networker) {
+        Semaphore permits = inflight.get(networker.getId());
+        SplittableRandom random = new SplittableRandom(networker.getId());
+
+        try {
+            while (running) {
+                if (!permits.tryAcquire(100, TimeUnit.MILLISECONDS)) continue;
+                networker.send(new EchoPacket(System.nanoTime(), payloads[options.pick(random)]));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the round trip of an echo packet received by a client.
+     *
+     * @param networker The networker of the client.
+     * @param packet    The received packet.
+     */
+    private void onEcho(Networker networker, EchoPacket packet) {
+        roundTrips.record(System.nanoTime() - packet.sentAt());
+        received.increment();
+        receivedBytes.add(packet.payload().length);
+
+        Semaphore permits = inflight.get(networker.getId());
+        if (permits != null) permits.release();
+    }
+
+    /**
+     * Prints the report of the measured interval.
+     *
+     * @param elapsed       The duration of the interval in nanoseconds.
+     * @param count         The amount of completed round trips.
+     * @param bytes         The payload bytes of the completed round trips.
+     * @param before        The runtime sample taken at the start of the interval.
+     * @param after         The runtime sample taken at the end of the interval.
+     * @param serverPackets The instance used by the server.
+     * @param clientPackets The instance used by the clients.
+     */
+    private void report(long elapsed, long count, long bytes, RuntimeSample before, RuntimeSample after,
+                        WebSocketPackets serverPackets, WebSocketPackets clientPackets) {
+        double seconds = elapsed / 1e9;
+        long allocated = after.allocatedBytes(before);
+        HistogramSnapshot snapshot = roundTrips.snapshot();
+
+        System.out.printf(Locale.ROOT, "%nMeasured %.1fs with %s clients, %s in flight each, fragments of %s bytes%n",
+                seconds, options.clients(), options.inflight(), options.fragmentSize());
+        System.out.printf(Locale.ROOT, "Throughput:     %,.0f round trips/s, %,.2f MiB/s payload%n",
+                count / seconds, bytes / seconds / (1024 * 1024));
+        System.out.printf(Locale.ROOT, "Round trip:     %s%n", percentiles(snapshot));
+
+        for (LatencyStage stage : LatencyStage.values()) {
+            System.out.printf(Locale.ROOT, "Server %-8s %s%n", stage.name().toLowerCase(Locale.ROOT) + ":",
+                    percentiles(serverPackets.getPacketMetrics().getLatencyHistograms().getGlobal(stage).snapshot()));
+            System.out.printf(Locale.ROOT, "Client %-8s %s%n", stage.name().toLowerCase(Locale.ROOT) + ":",
+                    percentiles(clientPackets.getPacketMetrics().getLatencyHistograms().getGlobal(stage).snapshot()));
+        }
+
+        System.out.printf(Locale.ROOT, "Allocation:     %,.2f MiB/s, %,d bytes per round trip%n",
+                allocated / seconds / (1024 * 1024), count > 0 ? allocated / count : 0);
+        System.out.printf(Locale.ROOT, "GC:             %s collections, %sms (%.2f%% of the interval)%n",
+                after.gcCount() - before.gcCount(), after.gcMillis() - before.gcMillis(),
+                (after.gcMillis() - before.gcMillis()) / (seconds * 10));
+    }
+
+    /**
+     * Formats the percentiles of a latency histogram.
+     *
+     * @param snapshot The snapshot of the histogram.
+     * @return The formatted percentiles in microseconds.
+     */
+    private static String percentiles(HistogramSnapshot snapshot) {
+        return String.format(Locale.ROOT, "p50 %,.1fus  p90 %,.1fus  p99 %,.1fus  p99.9 %,.1fus  max %,.1fus  (%,d)",
+                snapshot.getValueAtPercentile(50) / 1e3, snapshot.getValueAtPercentile(90) / 1e3,
+                snapshot.getValueAtPercentile(99) / 1e3, snapshot.getValueAtPercentile(99.9) / 1e3,
+                snapshot.getMax() / 1e3, snapshot.getTotalCount());
+    }
+
+    /**
+     * The allocated bytes of every thread and the garbage collection counters at a point in time.
+     *
+     * @param allocated The allocated bytes by thread ID.
+     * @param gcCount   The total amount of collections.
+     * @param gcMillis  The total time spent collecting, in milliseconds.
+     */
+    private record RuntimeSample(Map<Long, Long> allocated, long gcCount, long gcMillis) {
+
+        /**
+         * Takes a sample of the current runtime.
+         *
+         * @return The sample.
+         */
+        static RuntimeSample take() {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+
+            Map<Long, Long> allocated = new HashMap<>();
+            for (int i = 0; i < ids.length; i++)
+                if (bytes[i] >= 0) allocated.put(ids[i], bytes[i]);
+
+            long gcCount = 0, gcMillis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+
+            return new RuntimeSample(allocated, gcCount, gcMillis);
+        }
+
+        /**
+         * Calculates the bytes allocated since an earlier sample by all threads
+         * alive at the time of this sample.
+         *
+         * @param earlier The earlier sample.
+         * @return The allocated bytes.
+         */
+        long allocatedBytes(RuntimeSample earlier) {
+            long total = 0;
+            for (Map.Entry<Long, Long> entry : allocated.entrySet())
+                total += entry.getValue() - earlier.allocated.getOrDefault(entry.getKey(), 0L);
+
+            return total;
+        }
+
+    }
+
+}
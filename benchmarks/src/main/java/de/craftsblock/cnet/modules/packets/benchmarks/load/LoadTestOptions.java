@@ -0,0 +1,109 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.load;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The options of a {@link LoadTest}.
+ * <p>
+ * Options are passed as {@code --name=value} arguments, the packet mix as a
+ * comma separated list of {@code payloadSize:weight} pairs, for example
+ * {@code --mix=64:80,4096:15,262144:5}.
+ *
+ * @param clients        The amount of concurrent clients.
+ * @param inflight       The amount of packets each client keeps in flight.
+ * @param warmupSeconds  The time to run before measuring, in seconds.
+ * @param seconds        The time to measure, in seconds.
+ * @param fragmentSize   The size of the fragments the server splits its frames into.
+ * @param payloadSizes   The payload sizes of the packet mix.
+ * @param weights        The cumulative weights of the payload sizes.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public record LoadTestOptions(int clients, int inflight, int warmupSeconds, int seconds, int fragmentSize,
+                              int[] payloadSizes, int[] weights) {
+
+    /**
+     * Parses the options from command line arguments, using defaults for all missing options.
+     *
+     * @param args The command line arguments.
+     * @return The parsed options.
+     * @throws IllegalArgumentException If an argument is unknown or malformed.
+     */
+    public static @NotNull LoadTestOptions parse(@NotNull String @NotNull [] args) {
+        int clients = 8, inflight = 16, warmupSeconds = 3, seconds = 10, fragmentSize = 16 * 1024;
+        String mix = "64:80,4096:15,262144:5";
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("Malformed option %s, expected --name=value!".formatted(arg));
+
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "clients" -> clients = positive(arg, value);
+                case "inflight" -> inflight = positive(arg, value);
+                case "warmup" -> warmupSeconds = Integer.parseInt(value);
+                case "seconds" -> seconds = positive(arg, value);
+                case "fragment" -> fragmentSize = positive(arg, value);
+                case "mix" -> mix = value;
+                default -> throw new IllegalArgumentException("Unknown option %s!".formatted(arg));
+            }
+        }
+
+        List<int[]> entries = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Malformed mix entry %s, expected payloadSize:weight!".formatted(entry));
+
+            entries.add(new int[]{Integer.parseInt(parts[0]), positive(entry, parts[1])});
+        }
+
+        int[] payloadSizes = new int[entries.size()];
+        int[] weights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            payloadSizes[i] = entries.get(i)[0];
+            weights[i] = total += entries.get(i)[1];
+        }
+
+        return new LoadTestOptions(clients, inflight, warmupSeconds, seconds, fragmentSize, payloadSizes, weights);
+    }
+
+    /**
+     * Picks the index of a payload size of the mix according to its weight.
+     *
+     * @param random The random to pick with.
+     * @return The index of the payload size.
+     */
+    public int pick(@NotNull SplittableRandom random) {
+        int value = random.nextInt(weights[weights.length - 1]);
+        for (int i = 0; i < weights.length; i++)
+            if (value < weights[i]) return i;
+
+        return weights.length - 1;
+    }
+
+    /**
+     * Parses a positive integer option.
+     *
+     * @param option The option, used in the error message.
+     * @param value  The value to parse.
+     * @return The parsed value.
+     * @throws IllegalArgumentException If the value is not a positive integer.
+     */
+    private static int positive(String option, String value) {
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed <= 0)
+            throw new IllegalArgumentException("The value of %s must be positive!".formatted(option));
+
+        return parsed;
+    }
+
+}
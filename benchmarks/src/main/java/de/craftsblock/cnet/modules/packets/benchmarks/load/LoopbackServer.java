@@ -0,0 +1,419 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.load;
+
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.craftscore.utils.id.Snowflake;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A minimal RFC 6455 web socket server bound to the loopback interface.
+ * <p>
+ * Every connection is served by its own thread which reassembles the received
+ * frames and passes them to {@link PacketTransport#receive(Networker, byte[])},
+ * and packets are sent through {@link PacketTransport#send(Networker, Packet, PacketTransport.FrameWriter)},
+ * so the server runs the same packet path as the networkers of the CraftsNet
+ * addon. Only the web socket protocol itself is implemented here, which keeps
+ * the load test self-contained and free of a CraftsNet server. Frames sent by
+ * the server are split into fragments of a configurable size, so clients have
+ * to reassemble them. Extensions and sub protocols are not supported.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class LoopbackServer implements Closeable {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private static final int OPCODE_CONTINUATION = 0x0;
+    private static final int OPCODE_BINARY = 0x2;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    private final Environment environment;
+    private final int fragmentSize;
+    private final ServerSocket serverSocket;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs and starts a new {@link LoopbackServer} on a free port.
+     *
+     * @param environment  The environment used to decode, handle and encode packets.
+     * @param fragmentSize The maximum size of the fragments sent to clients.
+     * @throws IOException If the server socket could not be bound.
+     */
+    public LoopbackServer(@NotNull Environment environment, int fragmentSize) throws IOException {
+        this.environment = environment;
+        this.fragmentSize = fragmentSize;
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+
+        Thread acceptor = new Thread(this::accept, "loopback-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the uri clients connect to.
+     *
+     * @return The uri of the server.
+     */
+    public @NotNull URI getUri() {
+        return URI.create("ws://%s:%s/".formatted(
+                serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort()
+        ));
+    }
+
+    /**
+     * Stops accepting connections and closes all open connections.
+     *
+     * @throws IOException If the server socket could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections)
+            connection.closeSocket();
+    }
+
+    /**
+     * Accepts connections until the server socket is closed.
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+
+                Thread thread = new Thread(connection::serve, "loopback-server-" + connection.getId());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed())
+                    throw new UncheckedIOException("Failed to accept a connection!", e);
+            }
+        }
+    }
+
+    /**
+     * A connection of a client, acting as the server side {@link Networker}.
+     */
+    private final class Connection implements Networker {
+
+        private final long id = Snowflake.generate();
+        private final ConnectionState connectionState = new ConnectionState();
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+
+        /**
+         * Constructs a new {@link Connection}.
+         *
+         * @param socket The socket of the client.
+         * @throws IOException If the streams of the socket could not be opened.
+         */
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+
+        /**
+         * Performs the opening handshake and reads frames until the connection is closed.
+         */
+        void serve() {
+            try {
+                this.handshake();
+                environment.getPacketMetrics().getConnections().networkerOpened();
+
+                try {
+                    this.read();
+                } finally {
+                    environment.getPacketMetrics().getConnections().networkerClosed();
+                }
+            } catch (IOException ignored) {
+                // The client disconnected without closing the connection
+            } finally {
+                connections.remove(this);
+                this.closeSocket();
+            }
+        }
+
+        /**
+         * Reads the upgrade request and responds with the accept key.
+         *
+         * @throws IOException If the request is malformed or the response could not be written.
+         */
+        private void handshake() throws IOException {
+            String key = null;
+            for (String line = this.readLine(); !line.isEmpty(); line = this.readLine()) {
+                int separator = line.indexOf(':');
+                if (separator > 0 && line.substring(0, separator).trim().equalsIgnoreCase("Sec-WebSocket-Key"))
+                    key = line.substring(separator + 1).trim();
+            }
+
+            if (key == null)
+                throw new IOException("The upgrade request does not contain a web socket key!");
+
+            String accept;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                accept = Base64.getEncoder().encodeToString(digest.digest(
+                        (key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII)
+                ));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available!", e);
+            }
+
+            synchronized (this) {
+                out.write(("HTTP/1.1 101 Switching Protocols\r\n" +
+                        "Upgrade: websocket\r\n" +
+                        "Connection: Upgrade\r\n" +
+                        "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        }
+
+        /**
+         * Reads a line of the upgrade request.
+         *
+         * @return The line without the line break.
+         * @throws IOException If the connection was closed.
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) throw new IOException("Connection closed during the handshake!");
+                if (c != '\r') line.append((char) c);
+            }
+
+            return line.toString();
+        }
+
+        /**
+         * Reads and processes frames until a close frame is received.
+         *
+         * @throws IOException If the connection was closed or a frame is malformed.
+         */
+        private void read() throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+
+            while (true) {
+                int head = in.readUnsignedByte();
+                int second = in.readUnsignedByte();
+                boolean fin = (head & 0x80) != 0;
+                int opcode = head & 0x0F;
+
+                long length = second & 0x7F;
+                if (length == 126) length = in.readUnsignedShort();
+                else if (length == 127) length = in.readLong();
+
+                if (length > PacketEncoder.MAX_PACKET_SIZE * 2L)
+                    throw new IOException("Frame of %s bytes exceeds the max size!".formatted(length));
+
+                byte[] mask = (second & 0x80) != 0 ? in.readNBytes(4) : null;
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+
+                if (mask != null)
+                    for (int i = 0; i < payload.length; i++)
+                        payload[i] ^= mask[i & 3];
+
+                switch (opcode) {
+                    case OPCODE_BINARY, OPCODE_CONTINUATION -> {
+                        if (!fin) {
+                            message.write(payload);
+                            continue;
+                        }
+
+                        if (message.size() == 0) PacketTransport.receive(this, payload);
+                        else {
+                            message.write(payload);
+                            PacketTransport.receive(this, message.toByteArray());
+                            message.reset();
+                        }
+                    }
+                    case OPCODE_PING -> this.writeFrame(OPCODE_PONG, payload);
+                    case OPCODE_CLOSE -> {
+                        this.writeFrame(OPCODE_CLOSE, payload);
+                        return;
+                    }
+                    default -> {
+                        // Text frames and pongs are not used
+                    }
+                }
+            }
+        }
+
+        /**
+         * Writes a control frame.
+         *
+         * @param opcode  The opcode of the frame.
+         * @param payload The payload of the frame.
+         * @throws IOException If the frame could not be written.
+         */
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            this.writeFragment(opcode, payload, 0, payload.length, true);
+            out.flush();
+        }
+
+        /**
+         * Writes a single fragment without flushing.
+         *
+         * @param opcode The opcode of the fragment.
+         * @param data   The data containing the payload.
+         * @param offset The offset of the payload.
+         * @param length The length of the payload.
+         * @param fin    Whether this is the last fragment.
+         * @throws IOException If the fragment could not be written.
+         */
+        private void writeFragment(int opcode, byte[] data, int offset, int length, boolean fin) throws IOException {
+            out.write((fin ? 0x80 : 0) | opcode);
+
+            if (length < 126) out.write(length);
+            else if (length <= 0xFFFF) {
+                out.write(126);
+                out.write(length >>> 8);
+                out.write(length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8)
+                    out.write((int) ((long) length >>> shift));
+            }
+
+            out.write(data, offset, length);
+        }
+
+        /**
+         * Sends a {@link Packet} to the client through the {@link PacketTransport}.
+         *
+         * @param packet The packet to send.
+         */
+        @Override
+        public void send(@NotNull Packet packet) {
+            PacketTransport.send(this, packet, this::sendRaw);
+        }
+
+        /**
+         * Sends an already encoded frame to the client, split into fragments.
+         *
+         * @param frame The encoded frame.
+         */
+        @Override
+        public synchronized void sendRaw(byte @NotNull [] frame) {
+            try {
+                int offset = 0;
+                do {
+                    int length = Math.min(fragmentSize, frame.length - offset);
+                    boolean fin = offset + length == frame.length;
+                    this.writeFragment(offset == 0 ? OPCODE_BINARY : OPCODE_CONTINUATION, frame, offset, length, fin);
+                    offset += length;
+                } while (offset < frame.length);
+
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to send a frame to %s!".formatted(id), e);
+            }
+        }
+
+        /**
+         * Closes the connection using close code {@code 1000}.
+         */
+        @Override
+        public void disconnect() {
+            this.disconnect(1000, "");
+        }
+
+        /**
+         * Sends a close frame with the given close code and reason.
+         *
+         * @param code   The close code.
+         * @param reason The reason of the closure.
+         */
+        @Override
+        public void disconnect(@Range(from = 1000, to = 4999) int code, @NotNull String reason) {
+            byte[] message = reason.getBytes(StandardCharsets.UTF_8);
+            byte[] payload = new byte[message.length + 2];
+            payload[0] = (byte) (code >>> 8);
+            payload[1] = (byte) code;
+            System.arraycopy(message, 0, payload, 2, message.length);
+
+            try {
+                this.writeFrame(OPCODE_CLOSE, payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close %s!".formatted(id), e);
+            }
+        }
+
+        /**
+         * Closes the socket without a closing handshake.
+         */
+        void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+
+        /**
+         * Gets the ID of this connection.
+         *
+         * @return The ID.
+         */
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Gets the environment of the server.
+         *
+         * @return The environment.
+         */
+        @Override
+        public Environment getEnvironment() {
+            return environment;
+        }
+
+        /**
+         * Gets the state of this connection.
+         *
+         * @return The connection state.
+         */
+        @Override
+        public @NotNull ConnectionState getConnectionState() {
+            return connectionState;
+        }
+
+    }
+
+}
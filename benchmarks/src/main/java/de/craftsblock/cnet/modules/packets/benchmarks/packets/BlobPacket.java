@@ -0,0 +1,62 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.packets;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A packet carrying an opaque payload of a configurable size.
+ *
+ * @param data The payload.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public record BlobPacket(byte[] data) implements Packet {
+
+    /**
+     * Reads a {@link BlobPacket} from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public BlobPacket(@NotNull ByteBuffer buffer) {
+        this(buffer.readNBytes(buffer.readVarInt()));
+    }
+
+    /**
+     * Creates a {@link BlobPacket} with a payload of the given size.
+     *
+     * @param size The size of the payload.
+     * @return The created packet.
+     */
+    public static @NotNull BlobPacket ofSize(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++)
+            data[i] = (byte) (i * 31);
+
+        return new BlobPacket(data);
+    }
+
+    /**
+     * Writes the length prefixed payload into the provided buffer.
+     *
+     * @param buffer The buffer to write the payload into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.writeVarInt(data.length);
+        buffer.write(data);
+    }
+
+    /**
+     * Does nothing, the benchmarks only measure the packet pipeline.
+     *
+     * @param networker The networker the packet was received from.
+     */
+    @Override
+    public void handle(Networker networker) {
+    }
+
+}
@@ -0,0 +1,26 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.packets;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listener for received {@link EchoPacket echo packets}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface EchoListener extends PacketListener {
+
+    /**
+     * Handles a received echo packet.
+     *
+     * @param networker The networker the packet was received from.
+     * @param packet    The received packet.
+     */
+    void onEcho(@NotNull Networker networker, @NotNull EchoPacket packet);
+
+}
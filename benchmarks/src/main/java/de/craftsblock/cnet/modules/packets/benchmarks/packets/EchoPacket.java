@@ -0,0 +1,54 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.packets;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A packet which is sent back by the receiving side, carrying the time it
+ * was created at to measure round trips.
+ *
+ * @param sentAt  The {@link System#nanoTime()} the packet was created at.
+ * @param payload The payload.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see EchoListener
+ * @since 1.2.0
+ */
+public record EchoPacket(long sentAt, byte[] payload) implements Packet {
+
+    /**
+     * Reads an {@link EchoPacket} from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public EchoPacket(@NotNull ByteBuffer buffer) {
+        this(buffer.readLong(), buffer.readNBytes(buffer.readVarInt()));
+    }
+
+    /**
+     * Writes the creation time and the length prefixed payload into the provided buffer.
+     *
+     * @param buffer The buffer to write the packet into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.writeLong(sentAt);
+        buffer.writeVarInt(payload.length);
+        buffer.write(payload);
+    }
+
+    /**
+     * Passes the packet to all registered {@link EchoListener echo listeners}.
+     *
+     * @param networker The networker the packet was received from.
+     */
+    @Override
+    public void handle(Networker networker) {
+        for (EchoListener listener : getPacketListeners(networker, EchoListener.class))
+            listener.onEcho(networker, this);
+    }
+
+}
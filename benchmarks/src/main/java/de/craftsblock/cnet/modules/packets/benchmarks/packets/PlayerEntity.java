@@ -0,0 +1,93 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.packets;
+
+import de.craftsblock.cnet.modules.packets.common.packet.EntityPacket;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A typical game entity with a mix of numeric and textual state.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class PlayerEntity implements EntityPacket.Entity {
+
+    private final long id;
+    private final String name;
+    private final double x, y, z;
+    private final float yaw, pitch;
+    private final int health;
+    private final boolean sneaking;
+
+    /**
+     * Constructs a new {@link PlayerEntity}.
+     *
+     * @param id       The ID of the entity.
+     * @param name     The name of the player.
+     * @param x        The x coordinate.
+     * @param y        The y coordinate.
+     * @param z        The z coordinate.
+     * @param yaw      The yaw rotation.
+     * @param pitch    The pitch rotation.
+     * @param health   The health points.
+     * @param sneaking Whether the player is sneaking.
+     */
+    public PlayerEntity(long id, @NotNull String name, double x, double y, double z,
+                        float yaw, float pitch, int health, boolean sneaking) {
+        this.id = id;
+        this.name = name;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.health = health;
+        this.sneaking = sneaking;
+    }
+
+    /**
+     * Reads a {@link PlayerEntity} from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read entity.
+     */
+    public static @NotNull PlayerEntity read(@NotNull ByteBuffer buffer) {
+        return new PlayerEntity(
+                buffer.readVarLong(), buffer.readUTF(),
+                buffer.readDouble(), buffer.readDouble(), buffer.readDouble(),
+                buffer.readFloat(), buffer.readFloat(),
+                buffer.readVarInt(), buffer.readBoolean()
+        );
+    }
+
+    /**
+     * Returns the unique identifier of this entity.
+     *
+     * @return The entity ID.
+     */
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Writes the state of this entity into the provided buffer.
+     *
+     * @param buffer The buffer to write the state into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.writeVarLong(id);
+        buffer.writeUTF(name);
+        buffer.writeDouble(x);
+        buffer.writeDouble(y);
+        buffer.writeDouble(z);
+        buffer.writeFloat(yaw);
+        buffer.writeFloat(pitch);
+        buffer.writeVarInt(health);
+        buffer.writeBoolean(sneaking);
+    }
+
+}
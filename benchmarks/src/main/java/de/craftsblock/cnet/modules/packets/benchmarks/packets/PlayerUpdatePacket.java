@@ -0,0 +1,59 @@
+package de.craftsblock.cnet.modules.packets.benchmarks.packets;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.EntityPacket;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link EntityPacket} transferring the state of a {@link PlayerEntity}.
+ *
+ * @param entity The transferred entity.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public record PlayerUpdatePacket(PlayerEntity entity) implements EntityPacket<PlayerEntity> {
+
+    /**
+     * Reads a {@link PlayerUpdatePacket} from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public PlayerUpdatePacket(@NotNull ByteBuffer buffer) {
+        this(PlayerEntity.read(buffer));
+    }
+
+    /**
+     * Creates a {@link PlayerUpdatePacket} with representative values.
+     *
+     * @param id The ID of the entity.
+     * @return The created packet.
+     */
+    public static @NotNull PlayerUpdatePacket sample(long id) {
+        return new PlayerUpdatePacket(new PlayerEntity(
+                id, "Player" + id, 128.5 + id, 64, -1024.25, 90f, -12.5f, 20, (id & 1) == 0
+        ));
+    }
+
+    /**
+     * Retrieves the transferred entity.
+     *
+     * @return The entity instance.
+     */
+    @Override
+    public PlayerEntity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Does nothing, the benchmarks only measure the packet pipeline.
+     *
+     * @param networker The networker the packet was received from.
+     */
+    @Override
+    public void handle(Networker networker) {
+    }
+
+}
@@ -1,15 +1,33 @@
 package de.craftsblock.cnet.modules.packets.common;
 
+import de.craftsblock.cnet.modules.packets.common.capture.PacketCapture;
+import de.craftsblock.cnet.modules.packets.common.event.EventForwarder;
+import de.craftsblock.cnet.modules.packets.common.event.NetworkEventBus;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketStatistics;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketInterceptorPipeline;
 import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListenerRegistry;
 import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.HandshakePacket;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.HandshakeSettings;
+import de.craftsblock.cnet.modules.packets.common.protocol.relay.RelayRouter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
 
 /**
  * Central manager for the WebSocket packet system.
  * <p>
- * This class follows a singleton pattern and is responsible for initializing
- * and providing access to packet listeners and packet bundle registries.
- * It ensures that only one instance exists per class loader.
+ * This class is responsible for initializing and providing access to packet
+ * listeners, packet bundle registries and the codecs bound to them. Several
+ * instances may be loaded side by side, each forming an independent protocol
+ * stack with its own registries. The first loaded instance becomes the
+ * default instance returned by {@link #getInstance()}, which is used by
+ * components that are not bound to a specific instance.
  * </p>
  * <p>
  * Usage typically involves calling {@link #onLoad()} to initialize the system,
@@ -27,39 +45,67 @@ public class WebSocketPackets {
 
     private static WebSocketPackets instance;
 
+    private final PacketMetrics packetMetrics = new PacketMetrics(this);
+
     private PacketListenerRegistry packetListenerRegistry;
     private PacketBundleRegistry packetBundleRegistry;
+    private PacketEncoder packetEncoder;
+    private PacketDecoder packetDecoder;
+    private PacketInterceptorPipeline packetInterceptorPipeline;
+    private NetworkEventBus networkEventBus;
+    private EventForwarder eventForwarder;
+
+    private volatile @Nullable HandshakeSettings handshakeSettings;
+    private volatile @Nullable RelayRouter relayRouter;
+    private volatile @Nullable PacketCapture packetCapture;
+    private boolean loaded;
 
     /**
      * Initializes the {@link WebSocketPackets} system.
      * <p>
-     * This method sets up the singleton instance and initializes the
-     * {@link PacketListenerRegistry} and {@link PacketBundleRegistry}.
-     * Calling this method more than once will throw an exception.
+     * This method initializes the {@link PacketListenerRegistry}, the
+     * {@link PacketBundleRegistry} with the built-in handshake bundle and the
+     * codecs, the interceptor pipeline and the network event bus and forwarder
+     * bound to them. If no default
+     * instance is present yet, this instance becomes the default instance.
+     * Calling this method more than once on the same instance will throw an exception.
      * </p>
      *
-     * @throws IllegalStateException if the system is loaded more than once.
+     * @throws IllegalStateException if this instance is loaded more than once.
      */
-    public void onLoad() {
-        if (instance != null)
-            throw new IllegalStateException("%s can not be loaded twice by the same class loader!".formatted(
+    public synchronized void onLoad() {
+        if (loaded)
+            throw new IllegalStateException("%s can not be loaded twice!".formatted(
                     this.getClass().getSimpleName()
             ));
 
-        instance = this;
-
         this.packetListenerRegistry = new PacketListenerRegistry();
         this.packetBundleRegistry = new PacketBundleRegistry();
+        this.packetBundleRegistry.register(HandshakePacket.createBundle());
+        this.packetEncoder = new PacketEncoder(this);
+        this.packetDecoder = new PacketDecoder(this);
+        this.packetInterceptorPipeline = new PacketInterceptorPipeline();
+        this.networkEventBus = new NetworkEventBus();
+        this.eventForwarder = new EventForwarder(this);
+        this.loaded = true;
+
+        synchronized (WebSocketPackets.class) {
+            if (instance == null) instance = this;
+        }
     }
 
     /**
      * Disables the {@link WebSocketPackets} system.
      * <p>
-     * Clears the singleton instance. Should be called during shutdown.
+     * Clears the default instance if it is this instance. Should be called during shutdown.
      * </p>
      */
-    public void onDisable() {
-        instance = null;
+    public synchronized void onDisable() {
+        this.loaded = false;
+
+        synchronized (WebSocketPackets.class) {
+            if (instance == this) instance = null;
+        }
     }
 
     /**
@@ -81,18 +127,141 @@ public class WebSocketPackets {
     }
 
     /**
-     * Returns the current singleton instance of {@link WebSocketPackets}.
+     * Returns the {@link PacketEncoder} bound to this instance.
+     *
+     * @return the {@link PacketEncoder} instance
+     */
+    public PacketEncoder getPacketEncoder() {
+        return packetEncoder;
+    }
+
+    /**
+     * Returns the {@link PacketDecoder} bound to this instance.
+     *
+     * @return the {@link PacketDecoder} instance
+     */
+    public PacketDecoder getPacketDecoder() {
+        return packetDecoder;
+    }
+
+    /**
+     * Returns the {@link PacketInterceptorPipeline} of this instance.
+     *
+     * @return the {@link PacketInterceptorPipeline} instance
+     */
+    public PacketInterceptorPipeline getPacketInterceptorPipeline() {
+        return packetInterceptorPipeline;
+    }
+
+    /**
+     * Returns the {@link NetworkEventBus} dispatching events received from the network.
+     *
+     * @return the {@link NetworkEventBus} instance
+     */
+    public NetworkEventBus getNetworkEventBus() {
+        return networkEventBus;
+    }
+
+    /**
+     * Returns the {@link EventForwarder} publishing local events to subscribed networkers.
+     *
+     * @return the {@link EventForwarder} instance
+     */
+    public EventForwarder getEventForwarder() {
+        return eventForwarder;
+    }
+
+    /**
+     * Returns the {@link PacketMetrics} recorded by the codecs and the dispatch path of this instance.
+     *
+     * @return the {@link PacketMetrics} instance
+     */
+    public @NotNull PacketMetrics getPacketMetrics() {
+        return packetMetrics;
+    }
+
+    /**
+     * Returns a snapshot of the metrics of every packet type encoded or decoded by this instance.
+     *
+     * @return an unmodifiable list of {@link PacketStatistics}
+     * @see PacketMetrics#snapshot()
+     */
+    public @NotNull @Unmodifiable List<PacketStatistics> getPacketStatistics() {
+        return packetMetrics.snapshot();
+    }
+
+    /**
+     * Returns the settings offered during the connection handshake.
+     *
+     * @return the {@link HandshakeSettings}, or {@code null} if handshakes are disabled
+     */
+    public @Nullable HandshakeSettings getHandshakeSettings() {
+        return handshakeSettings;
+    }
+
+    /**
+     * Sets the settings offered during the connection handshake. Handshakes are
+     * disabled by default, as peers without handshake support can not handle the
+     * handshake packet. Only applies to connections opened afterward.
+     *
+     * @param handshakeSettings the {@link HandshakeSettings} to offer, or {@code null} to disable handshakes
+     */
+    public void setHandshakeSettings(@Nullable HandshakeSettings handshakeSettings) {
+        this.handshakeSettings = handshakeSettings;
+    }
+
+    /**
+     * Returns the router deciding where frames of bundles unknown to this instance are relayed to.
+     *
+     * @return the {@link RelayRouter}, or {@code null} if relaying is disabled
+     */
+    public @Nullable RelayRouter getRelayRouter() {
+        return relayRouter;
+    }
+
+    /**
+     * Sets the router deciding where frames of bundles unknown to this instance are relayed to.
+     *
+     * @param relayRouter the {@link RelayRouter} to use, or {@code null} to disable relaying
+     */
+    public void setRelayRouter(@Nullable RelayRouter relayRouter) {
+        this.relayRouter = relayRouter;
+    }
+
+    /**
+     * Returns the capture recording the frames sent and received by the networkers of this instance.
+     *
+     * @return the {@link PacketCapture}, or {@code null} if capturing is disabled
+     */
+    public @Nullable PacketCapture getPacketCapture() {
+        return packetCapture;
+    }
+
+    /**
+     * Sets the capture recording the frames sent and received by the networkers of this instance.
+     * Capturing is disabled by default. The capture is not closed when it is replaced or this
+     * instance is disabled, which is left to the caller who opened it.
+     *
+     * @param packetCapture the {@link PacketCapture} to record into, or {@code null} to disable capturing
+     */
+    public void setPacketCapture(@Nullable PacketCapture packetCapture) {
+        this.packetCapture = packetCapture;
+    }
+
+    /**
+     * Returns the default instance of {@link WebSocketPackets}, which is the
+     * first instance that has been loaded and not yet disabled.
      *
-     * @return the current {@link WebSocketPackets} instance, or {@code null} if not loaded
+     * @return the default {@link WebSocketPackets} instance, or {@code null} if not loaded
      */
     public static WebSocketPackets getInstance() {
         return instance;
     }
 
     /**
-     * Returns the current singleton instance of {@link WebSocketPackets} safely.
+     * Returns the default instance of {@link WebSocketPackets} safely.
      *
-     * @return the current {@link WebSocketPackets} instance
+     * @return the default {@link WebSocketPackets} instance
      * @throws IllegalStateException if the system is not loaded
      */
     public static @NotNull WebSocketPackets getInstanceSafely() {
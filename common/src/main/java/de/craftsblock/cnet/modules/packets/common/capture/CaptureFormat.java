@@ -0,0 +1,204 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The layout of the files written by a {@link PacketCapture}.
+ * <p>
+ * A capture directory contains numbered segments, each consisting of a
+ * {@code .segment} file holding the records and a {@code .index} file holding
+ * the sparse index. Both files start with a header of the {@link #MAGIC},
+ * the {@link #VERSION} and the number of the segment. Files are preallocated,
+ * so the unused remainder of a file is zero filled.
+ * <p>
+ * A record consists of its total length, the capture timestamp in nanoseconds
+ * since the epoch, the ID of the networker, the ordinal of the direction and
+ * the raw frame. The length is written last, so a reader never sees a partially
+ * written record and stops at the first length of zero. An index entry consists
+ * of the position of a record and its timestamp, the timestamp again written last.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class CaptureFormat {
+
+    /**
+     * The magic number at the start of every file, {@code WSPC} in ASCII.
+     */
+    static final int MAGIC = 0x57535043;
+
+    /**
+     * The version of the file layout.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of the record header preceding the frame in bytes.
+     */
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Byte.BYTES;
+
+    /**
+     * The size of an index entry in bytes.
+     */
+    static final int INDEX_ENTRY_SIZE = Long.BYTES + Long.BYTES;
+
+    /**
+     * The file extension of segments.
+     */
+    static final String SEGMENT_SUFFIX = ".segment";
+
+    /**
+     * The file extension of indexes.
+     */
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final @Nullable MethodHandle INVOKE_CLEANER = findCleaner();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CaptureFormat() {
+    }
+
+    /**
+     * Resolves the segment file of a segment.
+     *
+     * @param directory The capture directory.
+     * @param segment   The number of the segment.
+     * @return The path of the segment file.
+     */
+    static @NotNull Path segment(@NotNull Path directory, long segment) {
+        return directory.resolve("%020d%s".formatted(segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Resolves the index file of a segment.
+     *
+     * @param directory The capture directory.
+     * @param segment   The number of the segment.
+     * @return The path of the index file.
+     */
+    static @NotNull Path index(@NotNull Path directory, long segment) {
+        return directory.resolve("%020d%s".formatted(segment, INDEX_SUFFIX));
+    }
+
+    /**
+     * Parses the number of a segment from the name of its segment file.
+     *
+     * @param segment The path of the segment file.
+     * @return The number of the segment.
+     */
+    static long number(@NotNull Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Lists the segment files of a capture directory, ordered by their number.
+     *
+     * @param directory The capture directory.
+     * @return The segment files.
+     * @throws IOException If the directory could not be listed.
+     */
+    static @NotNull List<Path> segments(@NotNull Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("\\d{20}\\" + SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes the file header.
+     *
+     * @param buffer  The mapped file.
+     * @param segment The number of the segment.
+     */
+    static void writeHeader(@NotNull MappedByteBuffer buffer, long segment) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, segment);
+    }
+
+    /**
+     * Validates the file header.
+     *
+     * @param buffer The mapped file.
+     * @param file   The path of the file, used in the error message.
+     * @throws IOException If the file is no capture file of a supported version.
+     */
+    static void checkHeader(@NotNull MappedByteBuffer buffer, @NotNull Path file) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("%s is not a capture file!".formatted(file));
+
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported capture version %s in %s! (Expected: %s)".formatted(
+                    buffer.getInt(4), file, VERSION
+            ));
+    }
+
+    /**
+     * Releases the mapping of a file right away instead of once the buffer is
+     * garbage collected, so the file can be deleted afterward. The buffer must
+     * not be accessed anymore after being unmapped.
+     * <p>
+     * Mappings are released through {@code sun.misc.Unsafe#invokeCleaner}, as
+     * no public API exists for it. If it is not available, the mapping is
+     * released once the buffer is garbage collected.
+     *
+     * @param buffer The mapping to release, may be {@code null}.
+     */
+    static void unmap(@Nullable MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) return;
+
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to unmap a capture file!", e);
+        }
+    }
+
+    /**
+     * Looks up {@code sun.misc.Unsafe#invokeCleaner} bound to the unsafe instance.
+     *
+     * @return The method handle, or {@code null} if it is not available.
+     */
+    private static @Nullable MethodHandle findCleaner() {
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+
+            return MethodHandles.lookup()
+                    .findVirtual(type, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+}
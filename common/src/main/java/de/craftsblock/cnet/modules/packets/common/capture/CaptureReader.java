@@ -0,0 +1,195 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records written by a {@link PacketCapture}.
+ * <p>
+ * Reading from a point in time first picks the last segment which starts at
+ * or before that time, then looks up the last index entry at or before it and
+ * only scans the records from there on. Segments can be read while the capture
+ * is still writing, records appended after a segment was mapped are not read.
+ * The mappings are released as soon as a file was read, as the records are
+ * copied out of them.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see CaptureRecord
+ * @since 1.2.0
+ */
+public final class CaptureReader {
+
+    private static final PacketDirection[] DIRECTIONS = PacketDirection.values();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CaptureReader() {
+    }
+
+    /**
+     * Reads all records of a capture directory in the order they were written.
+     *
+     * @param directory The capture directory.
+     * @param consumer  The consumer of the records.
+     * @throws IOException If a file could not be read or is no capture file.
+     */
+    public static void read(@NotNull Path directory, @NotNull Consumer<CaptureRecord> consumer) throws IOException {
+        read(directory, Long.MIN_VALUE, consumer);
+    }
+
+    /**
+     * Reads the records of a capture directory captured at or after a point in time.
+     *
+     * @param directory The capture directory.
+     * @param from      The earliest capture time in nanoseconds since the epoch.
+     * @param consumer  The consumer of the records.
+     * @throws IOException If a file could not be read or is no capture file.
+     */
+    public static void read(@NotNull Path directory, long from, @NotNull Consumer<CaptureRecord> consumer) throws IOException {
+        List<Path> segments = CaptureFormat.segments(directory);
+
+        int first = 0;
+        for (int i = segments.size() - 1; i > 0; i--) {
+            long start = firstTimestamp(directory, CaptureFormat.number(segments.get(i)));
+            if (start != 0 && start <= from) {
+                first = i;
+                break;
+            }
+        }
+
+        for (int i = first; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            long position = i == first ? seek(directory, CaptureFormat.number(segment), from) : CaptureFormat.HEADER_SIZE;
+            scan(segment, position, from, consumer);
+        }
+    }
+
+    /**
+     * Reads the records of a segment starting at a position.
+     *
+     * @param segment  The segment file.
+     * @param position The position of the first record to read.
+     * @param from     The earliest capture time of the passed records.
+     * @param consumer The consumer of the records.
+     * @throws IOException If the segment could not be read or is no capture file.
+     */
+    private static void scan(Path segment, long position, long from, Consumer<CaptureRecord> consumer) throws IOException {
+        MappedByteBuffer data = map(segment);
+        try {
+            CaptureFormat.checkHeader(data, segment);
+
+            int offset = (int) position;
+            while (data.capacity() - offset >= CaptureFormat.RECORD_HEADER_SIZE) {
+                int length = data.getInt(offset);
+                if (length < CaptureFormat.RECORD_HEADER_SIZE || length > data.capacity() - offset) break;
+
+                long timestamp = data.getLong(offset + Integer.BYTES);
+                if (timestamp >= from) {
+                    long networker = data.getLong(offset + Integer.BYTES + Long.BYTES);
+                    PacketDirection direction = DIRECTIONS[data.get(offset + Integer.BYTES + Long.BYTES * 2)];
+
+                    byte[] frame = new byte[length - CaptureFormat.RECORD_HEADER_SIZE];
+                    data.get(offset + CaptureFormat.RECORD_HEADER_SIZE, frame);
+                    consumer.accept(new CaptureRecord(timestamp, networker, direction, frame));
+                }
+
+                offset += length;
+            }
+        } finally {
+            CaptureFormat.unmap(data);
+        }
+    }
+
+    /**
+     * Looks up the position of the last indexed record of a segment captured at or before a point in time.
+     *
+     * @param directory The capture directory.
+     * @param segment   The number of the segment.
+     * @param from      The point in time in nanoseconds since the epoch.
+     * @return The position to start scanning at.
+     * @throws IOException If the index could not be read or is no capture file.
+     */
+    private static long seek(Path directory, long segment, long from) throws IOException {
+        Path file = CaptureFormat.index(directory, segment);
+        if (!Files.exists(file)) return CaptureFormat.HEADER_SIZE;
+
+        MappedByteBuffer index = map(file);
+        try {
+            CaptureFormat.checkHeader(index, file);
+
+            int entries = 0;
+            while (entryOffset(entries + 1) <= index.capacity() && index.getLong(entryOffset(entries)) != 0)
+                entries++;
+
+            int low = 0, high = entries - 1, found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (index.getLong(entryOffset(middle)) <= from) {
+                    found = middle;
+                    low = middle + 1;
+                } else high = middle - 1;
+            }
+
+            return found < 0 ? CaptureFormat.HEADER_SIZE : index.getLong(entryOffset(found) + Long.BYTES);
+        } finally {
+            CaptureFormat.unmap(index);
+        }
+    }
+
+    /**
+     * Reads the timestamp of the first record of a segment from its index.
+     *
+     * @param directory The capture directory.
+     * @param segment   The number of the segment.
+     * @return The timestamp, or {@code 0} if the segment has no indexed record.
+     * @throws IOException If the index could not be read or is no capture file.
+     */
+    private static long firstTimestamp(Path directory, long segment) throws IOException {
+        Path file = CaptureFormat.index(directory, segment);
+        if (!Files.exists(file)) return 0;
+
+        MappedByteBuffer index = map(file);
+        try {
+            CaptureFormat.checkHeader(index, file);
+            return index.capacity() >= entryOffset(1) ? index.getLong(entryOffset(0)) : 0;
+        } finally {
+            CaptureFormat.unmap(index);
+        }
+    }
+
+    /**
+     * Calculates the offset of an index entry.
+     *
+     * @param entry The number of the entry.
+     * @return The offset of the entry in the index file.
+     */
+    private static int entryOffset(int entry) {
+        return CaptureFormat.HEADER_SIZE + entry * CaptureFormat.INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Maps a file read only.
+     *
+     * @param file The file to map.
+     * @return The mapping of the file.
+     * @throws IOException If the file could not be mapped.
+     */
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+}
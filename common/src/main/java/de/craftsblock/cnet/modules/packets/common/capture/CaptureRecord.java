@@ -0,0 +1,31 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+
+/**
+ * A frame recorded by a {@link PacketCapture}, as read by the {@link CaptureReader}.
+ *
+ * @param timestamp The time the frame was captured at, in nanoseconds since the epoch.
+ * @param networker The ID of the networker which sent or received the frame.
+ * @param direction The direction of the frame.
+ * @param frame     The raw frame.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public record CaptureRecord(long timestamp, long networker, @NotNull PacketDirection direction, byte @NotNull [] frame) {
+
+    /**
+     * Returns the time the frame was captured at.
+     *
+     * @return The capture time.
+     */
+    public @NotNull Instant instant() {
+        return Instant.ofEpochSecond(0, timestamp);
+    }
+
+}
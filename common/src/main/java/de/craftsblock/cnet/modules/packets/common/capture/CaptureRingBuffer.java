@@ -0,0 +1,135 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue of captured frames with many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number which tells producers and the consumer
+ * whether the slot is free or filled for their position. Producers claim a
+ * position through a compare and set on the tail, fill the slot and then
+ * publish it by advancing its sequence, the consumer frees a slot after
+ * reading it the same way. Offering never blocks and fails if the queue is
+ * full, so capturing can never slow down the networkers waiting for the writer.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class CaptureRingBuffer {
+
+    private static final PacketDirection[] DIRECTIONS = PacketDirection.values();
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final long[] networkers;
+    private final byte[] directions;
+    private final byte[][] frames;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * Constructs a new {@link CaptureRingBuffer}.
+     *
+     * @param capacity The capacity, rounded up to the next power of two.
+     */
+    CaptureRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.timestamps = new long[size];
+        this.networkers = new long[size];
+        this.directions = new byte[size];
+        this.frames = new byte[size][];
+
+        for (int i = 0; i < size; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * Adds a frame if the queue is not full. Safe to call from any thread.
+     *
+     * @param timestamp The capture time in nanoseconds since the epoch.
+     * @param networker The ID of the networker.
+     * @param direction The direction of the frame.
+     * @param frame     The frame, which must not be modified afterward.
+     * @return {@code true} if the frame was added, {@code false} if the queue is full.
+     */
+    boolean offer(long timestamp, long networker, PacketDirection direction, byte[] frame) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (tail.weakCompareAndSetVolatile(position, position + 1)) break;
+                position = tail.get();
+            } else if (difference < 0) return false;
+            else position = tail.get();
+        }
+
+        int index = (int) position & mask;
+        timestamps[index] = timestamp;
+        networkers[index] = networker;
+        directions[index] = (byte) direction.ordinal();
+        frames[index] = frame;
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes up to a limit of frames and passes them to a consumer.
+     * Must only be called by the consuming thread.
+     *
+     * @param consumer The consumer of the frames.
+     * @param limit    The maximum amount of frames to remove.
+     * @return The amount of removed frames.
+     * @throws IOException If the consumer failed, in which case the failed frame is removed.
+     */
+    int drain(Consumer consumer, int limit) throws IOException {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (sequences.getAcquire(index) != head + 1) break;
+
+            byte[] frame = frames[index];
+            frames[index] = null;
+            long timestamp = timestamps[index], networker = networkers[index];
+            PacketDirection direction = DIRECTIONS[directions[index]];
+            sequences.setRelease(index, head + mask + 1);
+            head++;
+            drained++;
+
+            consumer.accept(timestamp, networker, direction, frame);
+        }
+
+        return drained;
+    }
+
+    /**
+     * Consumes the frames removed from a {@link CaptureRingBuffer}.
+     */
+    @FunctionalInterface
+    interface Consumer {
+
+        /**
+         * Consumes a frame.
+         *
+         * @param timestamp The capture time in nanoseconds since the epoch.
+         * @param networker The ID of the networker.
+         * @param direction The direction of the frame.
+         * @param frame     The frame.
+         * @throws IOException If the frame could not be consumed.
+         */
+        void accept(long timestamp, long networker, PacketDirection direction, byte[] frame) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Appends captured frames to memory-mapped segment files in the {@link CaptureFormat}.
+ * <p>
+ * Segments are preallocated with the configured size and mapped as a whole,
+ * so appending a record only copies it into the mapping. Once a record does
+ * not fit into the current segment anymore, the next segment is created. An
+ * index entry is added for the first record of a segment and whenever the
+ * configured amount of bytes was written since the last entry. The mappings
+ * of a segment are flushed and released once the next segment is created, so
+ * the oldest segments can be deleted once more than the retained amount exists.
+ * <p>
+ * Timestamps are made monotonic, as frames of concurrent networkers may be
+ * captured in a slightly different order than their timestamps were taken,
+ * which keeps the records of the index and the segments sorted.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class CaptureSegmentWriter implements Closeable {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final int retainedSegments;
+    private final Deque<Long> segments = new ArrayDeque<>();
+
+    private long segment;
+    private MappedByteBuffer data;
+    private MappedByteBuffer index;
+    private int position;
+    private int indexPosition;
+    private int lastIndexed;
+    private long lastTimestamp;
+
+    /**
+     * Constructs a new {@link CaptureSegmentWriter}, continuing after the
+     * segments already present in the directory.
+     *
+     * @param directory        The capture directory.
+     * @param segmentSize      The size of a segment in bytes.
+     * @param indexInterval    The bytes written between two index entries.
+     * @param retainedSegments The maximum amount of segments kept, or {@code 0} to keep all.
+     * @throws IOException If the directory could not be created or listed.
+     */
+    CaptureSegmentWriter(Path directory, int segmentSize, int indexInterval, int retainedSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+        this.retainedSegments = retainedSegments;
+
+        Files.createDirectories(directory);
+        List<Path> existing = CaptureFormat.segments(directory);
+        for (Path file : existing)
+            segments.add(CaptureFormat.number(file));
+
+        this.segment = existing.isEmpty() ? 0 : segments.getLast() + 1;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param timestamp The capture time in nanoseconds since the epoch.
+     * @param networker The ID of the networker.
+     * @param direction The direction of the frame.
+     * @param frame     The frame.
+     * @throws IOException If a new segment could not be created.
+     */
+    void write(long timestamp, long networker, PacketDirection direction, byte[] frame) throws IOException {
+        int length = CaptureFormat.RECORD_HEADER_SIZE + frame.length;
+        if (data == null || data.capacity() - position < length) this.roll(length);
+
+        timestamp = Math.max(timestamp, lastTimestamp);
+        lastTimestamp = timestamp;
+
+        if (position - lastIndexed >= indexInterval || position == CaptureFormat.HEADER_SIZE) {
+            index.putLong(indexPosition + Long.BYTES, position);
+            index.putLong(indexPosition, timestamp);
+            indexPosition += CaptureFormat.INDEX_ENTRY_SIZE;
+            lastIndexed = position;
+        }
+
+        data.putLong(position + Integer.BYTES, timestamp);
+        data.putLong(position + Integer.BYTES + Long.BYTES, networker);
+        data.put(position + Integer.BYTES + Long.BYTES * 2, (byte) direction.ordinal());
+        data.put(position + CaptureFormat.RECORD_HEADER_SIZE, frame);
+        data.putInt(position, length);
+        position += length;
+    }
+
+    /**
+     * Flushes and releases the current segment and creates the next one.
+     *
+     * @param length The length of the record which has to fit into the new segment.
+     * @throws IOException If the segment could not be created.
+     */
+    private void roll(int length) throws IOException {
+        this.release();
+
+        int size = Math.max(segmentSize, CaptureFormat.HEADER_SIZE + length);
+        int entries = size / indexInterval + 1;
+
+        this.data = map(CaptureFormat.segment(directory, segment), size);
+        this.index = map(CaptureFormat.index(directory, segment), CaptureFormat.HEADER_SIZE + entries * CaptureFormat.INDEX_ENTRY_SIZE);
+        CaptureFormat.writeHeader(data, segment);
+        CaptureFormat.writeHeader(index, segment);
+
+        this.position = CaptureFormat.HEADER_SIZE;
+        this.indexPosition = CaptureFormat.HEADER_SIZE;
+        this.lastIndexed = CaptureFormat.HEADER_SIZE;
+
+        segments.add(segment++);
+        while (retainedSegments > 0 && segments.size() > retainedSegments) {
+            long oldest = segments.removeFirst();
+            Files.deleteIfExists(CaptureFormat.segment(directory, oldest));
+            Files.deleteIfExists(CaptureFormat.index(directory, oldest));
+        }
+    }
+
+    /**
+     * Creates and maps a new file.
+     *
+     * @param file The file to create.
+     * @param size The size of the file in bytes.
+     * @return The mapping of the file.
+     * @throws IOException If the file already exists or could not be mapped.
+     */
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Writes the records of the current segment through to the storage device.
+     * Records are visible to readers as soon as they are appended regardless.
+     */
+    void force() {
+        if (data == null) return;
+
+        data.force();
+        index.force();
+    }
+
+    /**
+     * Flushes the current segment and releases its mappings.
+     */
+    private void release() {
+        this.force();
+
+        CaptureFormat.unmap(data);
+        CaptureFormat.unmap(index);
+        this.data = null;
+        this.index = null;
+    }
+
+    /**
+     * Flushes the current segment and releases its mappings. Records must not
+     * be written afterward.
+     */
+    @Override
+    public void close() {
+        this.release();
+    }
+
+}
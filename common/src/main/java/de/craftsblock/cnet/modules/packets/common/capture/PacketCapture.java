@@ -0,0 +1,222 @@
+package de.craftsblock.cnet.modules.packets.common.capture;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the raw frames sent and received by networkers into memory-mapped segment files.
+ * <p>
+ * Capturing a frame only takes a timestamp and adds a reference to the frame
+ * to a lock-free {@link CaptureRingBuffer ring buffer}, a dedicated writer
+ * thread appends the frames to the segments. If the writer falls behind and the
+ * ring buffer is full, frames are dropped and counted instead of slowing down
+ * the networkers. Frames are captured after encoding and after reassembly, so
+ * the records contain exactly the bytes of the packets on the wire, and are
+ * referenced until written, so they must not be modified after being captured.
+ * <p>
+ * Captures are enabled per instance through
+ * {@link de.craftsblock.cnet.modules.packets.common.WebSocketPackets#setPacketCapture(PacketCapture)}
+ * and read through the {@link CaptureReader}, which seeks to a point in time
+ * through the sparse index of the segments. See {@link CaptureFormat} for the
+ * layout of the files.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see CaptureReader
+ * @since 1.2.0
+ */
+public final class PacketCapture implements Closeable {
+
+    /**
+     * The default size of a segment, 64 MiB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default amount of frames the ring buffer holds.
+     */
+    public static final int DEFAULT_RING_CAPACITY = 64 * 1024;
+
+    /**
+     * The default amount of bytes written between two index entries, 64 KiB.
+     */
+    public static final int DEFAULT_INDEX_INTERVAL = 64 * 1024;
+
+    private static final int DRAIN_LIMIT = 1024;
+    private static final long IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Path directory;
+    private final CaptureRingBuffer ring;
+    private final CaptureSegmentWriter writer;
+    private final Thread thread;
+    private final long epochOffset;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder capturing = new LongAdder();
+
+    private volatile boolean running = true;
+    private volatile long written;
+    private volatile @Nullable IOException failure;
+
+    /**
+     * Constructs a new {@link PacketCapture} with the default settings, keeping all segments.
+     *
+     * @param directory The directory to write the segments to.
+     * @throws IOException If the directory could not be created.
+     */
+    public PacketCapture(@NotNull Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_RING_CAPACITY, DEFAULT_INDEX_INTERVAL, 0);
+    }
+
+    /**
+     * Constructs a new {@link PacketCapture} and starts its writer thread.
+     * Segments already present in the directory are kept and continued after.
+     *
+     * @param directory        The directory to write the segments to.
+     * @param segmentSize      The size of a segment in bytes, segments are only larger if a single frame does not fit.
+     * @param ringCapacity     The amount of frames buffered for the writer, rounded up to the next power of two.
+     * @param indexInterval    The bytes written between two index entries.
+     * @param retainedSegments The maximum amount of segments kept, or {@code 0} to keep all.
+     * @throws IOException              If the directory could not be created.
+     * @throws IllegalArgumentException If a size is out of range.
+     */
+    public PacketCapture(@NotNull Path directory,
+                         @Range(from = 1024, to = Integer.MAX_VALUE) int segmentSize,
+                         @Range(from = 2, to = 1 << 30) int ringCapacity,
+                         @Range(from = 1, to = Integer.MAX_VALUE) int indexInterval,
+                         @Range(from = 0, to = Integer.MAX_VALUE) int retainedSegments) throws IOException {
+        if (segmentSize < 1024)
+            throw new IllegalArgumentException("The segment size must be at least 1024 bytes! (Got: %s)".formatted(segmentSize));
+
+        if (ringCapacity < 2 || ringCapacity > 1 << 30)
+            throw new IllegalArgumentException("The ring capacity must be between 2 and %s! (Got: %s)".formatted(1 << 30, ringCapacity));
+
+        if (indexInterval < 1 || retainedSegments < 0)
+            throw new IllegalArgumentException("The index interval must be positive and the retained segments not negative! (Got: %s, %s)".formatted(
+                    indexInterval, retainedSegments
+            ));
+
+        this.directory = directory;
+        this.ring = new CaptureRingBuffer(ringCapacity);
+        this.writer = new CaptureSegmentWriter(directory, segmentSize, indexInterval, retainedSegments);
+
+        Instant now = Instant.now();
+        this.epochOffset = now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+
+        this.thread = new Thread(this::run, "websocketpackets-capture");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Captures a frame sent or received by a networker.
+     *
+     * @param networker The networker which sent or received the frame.
+     * @param direction The direction of the frame.
+     * @param frame     The raw frame, which must not be modified afterward.
+     */
+    public void capture(@NotNull Networker networker, @NotNull PacketDirection direction, byte @NotNull [] frame) {
+        capturing.increment();
+        try {
+            if (!running || !ring.offer(epochOffset + System.nanoTime(), networker.getId(), direction, frame))
+                dropped.increment();
+        } finally {
+            capturing.decrement();
+        }
+    }
+
+    /**
+     * Appends the captured frames to the segments until the capture is closed.
+     * <p>
+     * Once closed, the writer keeps draining until no capture which saw the
+     * capture still running is in progress anymore, so that every frame offered
+     * to the ring buffer is written.
+     */
+    private void run() {
+        CaptureRingBuffer.Consumer consumer = (timestamp, networker, direction, frame) -> {
+            writer.write(timestamp, networker, direction, frame);
+            written++;
+        };
+
+        try {
+            while (running || capturing.sum() != 0)
+                if (ring.drain(consumer, DRAIN_LIMIT) == 0)
+                    LockSupport.parkNanos(IDLE_NANOS);
+
+            ring.drain(consumer, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            this.failure = e;
+            this.running = false;
+        }
+    }
+
+    /**
+     * Stops capturing, writes the frames captured so far and flushes the segments.
+     *
+     * @throws IOException If writing the frames failed, or waiting for the writer was interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the capture writer!", e);
+        }
+
+        writer.close();
+
+        IOException failure = this.failure;
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Checks whether frames are still captured.
+     *
+     * @return {@code true} if the capture is running, {@code false} once closed or after writing failed.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the directory the segments are written to.
+     *
+     * @return The capture directory.
+     */
+    public @NotNull Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the amount of frames written to the segments.
+     *
+     * @return The written frames.
+     */
+    public long getWrittenFrames() {
+        return written;
+    }
+
+    /**
+     * Gets the amount of frames which were dropped, as the ring buffer was full or the capture stopped.
+     *
+     * @return The dropped frames.
+     */
+    public long getDroppedFrames() {
+        return dropped.sum();
+    }
+
+}
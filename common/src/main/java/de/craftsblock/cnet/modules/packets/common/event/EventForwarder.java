@@ -0,0 +1,290 @@
+package de.craftsblock.cnet.modules.packets.common.event;
+
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.BufferWritable;
+import de.craftsblock.cnet.modules.packets.common.packet.EventPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.NegotiatedSettings;
+import de.craftsblock.craftscore.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Publishes local {@link Event events} as {@link EventPacket event packets}
+ * to the {@link Networker networkers} subscribed to their event class.
+ * <p>
+ * Networkers subscribe to an event class and receive all events assignable to
+ * it. The subscribers of an event class are compiled into an immutable array
+ * on first use and cached per event class, so forwarding an event without any
+ * subscriber is a single cache lookup. Events are forwarded as the packet
+ * registered for their class, or for its closest superclass if none is
+ * registered for the class itself.
+ * <p>
+ * Each forwarded event is wrapped into its packet and encoded once. The encoded
+ * frame is shared between all subscribers which do not depend on per connection
+ * encoding state, which are connections without an outbound string table,
+ * without a pinned snapshot and without bundles negotiated in different versions,
+ * as long as no outbound interceptor is registered.
+ * All other subscribers receive the packet through {@link Networker#send}.
+ * A subscriber failing to send the packet is logged and does not prevent the
+ * event from being forwarded to the remaining subscribers.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see de.craftsblock.cnet.modules.packets.common.networker.environment.Environment#callAndForward(Event)
+ * @since 1.2.0
+ */
+public final class EventForwarder {
+
+    private static final Networker[] EMPTY = new Networker[0];
+    private static final System.Logger LOGGER = System.getLogger(EventForwarder.class.getName());
+
+    private final @NotNull WebSocketPackets webSocketPackets;
+
+    private volatile Map<Class<?>, Function<Event, EventPacket<?>>> packets = Map.of();
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    private volatile ClassValue<Networker[]> compiled = this.createCompiled();
+    private volatile ClassValue<Optional<Function<Event, EventPacket<?>>>> factories = this.createFactories();
+
+    /**
+     * Constructs a new {@link EventForwarder} encoding through the given {@link WebSocketPackets} instance.
+     *
+     * @param webSocketPackets The instance whose encoder and bundles are used.
+     */
+    public EventForwarder(@NotNull WebSocketPackets webSocketPackets) {
+        this.webSocketPackets = webSocketPackets;
+    }
+
+    /**
+     * Registers the packet an event class is forwarded as.
+     *
+     * @param type    The event class.
+     * @param factory The factory wrapping an event into its packet.
+     * @param <E>     The type of the event.
+     * @throws IllegalStateException If a packet is already registered for the event class.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <E extends Event & BufferWritable> void register(@NotNull Class<E> type,
+                                                                         @NotNull Function<? super E, ? extends EventPacket<E>> factory) {
+        if (packets.containsKey(type))
+            throw new IllegalStateException("A packet is already registered for event %s!".formatted(type.getName()));
+
+        Map<Class<?>, Function<Event, EventPacket<?>>> updated = new HashMap<>(packets);
+        updated.put(type, event -> factory.apply((E) event));
+        this.packets = Map.copyOf(updated);
+        this.factories = this.createFactories();
+    }
+
+    /**
+     * Unregisters the packet of an event class.
+     *
+     * @param type The event class.
+     * @return {@code true} if a packet was registered, {@code false} otherwise.
+     */
+    public synchronized boolean unregister(@NotNull Class<? extends Event> type) {
+        if (!packets.containsKey(type)) return false;
+
+        Map<Class<?>, Function<Event, EventPacket<?>>> updated = new HashMap<>(packets);
+        updated.remove(type);
+        this.packets = Map.copyOf(updated);
+        this.factories = this.createFactories();
+        return true;
+    }
+
+    /**
+     * Subscribes a networker to all events assignable to an event class.
+     *
+     * @param networker The networker to subscribe.
+     * @param type      The event class.
+     * @return {@code true} if the networker was subscribed, {@code false} if it already was.
+     */
+    public synchronized boolean subscribe(@NotNull Networker networker, @NotNull Class<? extends Event> type) {
+        Subscription[] current = this.subscriptions;
+        for (Subscription subscription : current)
+            if (subscription.networker() == networker && subscription.type() == type)
+                return false;
+
+        Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new Subscription(networker, type);
+        this.publish(updated);
+        return true;
+    }
+
+    /**
+     * Unsubscribes a networker from an event class.
+     *
+     * @param networker The networker to unsubscribe.
+     * @param type      The event class.
+     * @return {@code true} if the networker was subscribed, {@code false} otherwise.
+     */
+    public synchronized boolean unsubscribe(@NotNull Networker networker, @NotNull Class<? extends Event> type) {
+        return this.remove(networker, type);
+    }
+
+    /**
+     * Unsubscribes a networker from all event classes, should be called once its connection is closed.
+     *
+     * @param networker The networker to unsubscribe.
+     * @return {@code true} if the networker was subscribed to any event class, {@code false} otherwise.
+     */
+    public synchronized boolean unsubscribe(@NotNull Networker networker) {
+        return this.remove(networker, null);
+    }
+
+    /**
+     * Checks whether any networker is subscribed to events of a class.
+     *
+     * @param type The event class.
+     * @return {@code true} if the event class has subscribers, {@code false} otherwise.
+     */
+    public boolean hasSubscribers(@NotNull Class<? extends Event> type) {
+        return compiled.get(type).length != 0;
+    }
+
+    /**
+     * Forwards an event to all networkers subscribed to its class.
+     *
+     * @param event The event to forward.
+     * @return The amount of networkers the event was sent to.
+     * @throws IllegalStateException If the event has subscribers but no packet is registered for its class or a superclass.
+     */
+    public int forward(@NotNull Event event) {
+        Networker[] subscribers = compiled.get(event.getClass());
+        if (subscribers.length == 0) return 0;
+
+        Function<Event, EventPacket<?>> factory = factories.get(event.getClass()).orElseThrow(() ->
+                new IllegalStateException("No packet is registered for event %s!".formatted(event.getClass().getName())));
+
+        EventPacket<?> packet = factory.apply(event);
+        boolean intercepted = webSocketPackets.getPacketInterceptorPipeline().hasInterceptors(PacketDirection.OUTBOUND);
+
+        byte[] frame = null;
+        int sent = 0;
+        for (Networker networker : subscribers)
+            try {
+                if (intercepted || !isShareable(networker.getConnectionState())) {
+                    networker.send(packet);
+                    sent++;
+                    continue;
+                }
+
+                // Encoded without any networker bound, so that the frame does not depend on a connection
+                if (frame == null) frame = webSocketPackets.getPacketEncoder().encode(packet, (Networker) null).getSource();
+
+                try {
+                    PacketTransport.sendRaw(networker, frame, networker::sendRaw);
+                } catch (UnsupportedOperationException e) {
+                    networker.send(packet);
+                }
+                sent++;
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to forward event %s to networker %s!".formatted(
+                        event.getClass().getName(), networker.getId()
+                ), e);
+            }
+
+        return sent;
+    }
+
+    /**
+     * Checks whether a connection can receive a frame which was encoded without its state.
+     *
+     * @param state The state of the connection.
+     * @return {@code true} if the shared frame can be sent, {@code false} otherwise.
+     */
+    private static boolean isShareable(ConnectionState state) {
+        if (state.getOutboundStringTable() != null || state.getPinnedSnapshot() != null) return false;
+
+        NegotiatedSettings negotiated = state.getNegotiatedSettings();
+        return negotiated == null || negotiated.mismatchedBundles().isEmpty();
+    }
+
+    /**
+     * Removes the subscriptions of a networker.
+     *
+     * @param networker The networker.
+     * @param type      The event class to remove, or {@code null} to remove all subscriptions.
+     * @return {@code true} if a subscription was removed, {@code false} otherwise.
+     */
+    private boolean remove(Networker networker, Class<? extends Event> type) {
+        Subscription[] current = this.subscriptions;
+        Subscription[] updated = Arrays.stream(current)
+                .filter(subscription -> subscription.networker() != networker || (type != null && subscription.type() != type))
+                .toArray(Subscription[]::new);
+
+        if (updated.length == current.length) return false;
+
+        this.publish(updated);
+        return true;
+    }
+
+    /**
+     * Publishes a new set of subscriptions and discards all compiled subscriber arrays.
+     *
+     * @param updated The new subscriptions.
+     */
+    private void publish(Subscription[] updated) {
+        this.subscriptions = updated;
+        this.compiled = this.createCompiled();
+    }
+
+    /**
+     * Creates a new cache which compiles the subscribers of an event class from the current subscriptions.
+     *
+     * @return The created cache.
+     */
+    private ClassValue<Networker[]> createCompiled() {
+        return new ClassValue<>() {
+            @Override
+            protected Networker[] computeValue(@NotNull Class<?> type) {
+                Networker[] subscribers = Arrays.stream(EventForwarder.this.subscriptions)
+                        .filter(subscription -> subscription.type().isAssignableFrom(type))
+                        .map(Subscription::networker)
+                        .distinct()
+                        .toArray(Networker[]::new);
+
+                return subscribers.length == 0 ? EMPTY : subscribers;
+            }
+        };
+    }
+
+    /**
+     * Creates a new cache which resolves the packet factory of an event class
+     * from the packets registered for the class or its closest superclass.
+     *
+     * @return The created cache.
+     */
+    private ClassValue<Optional<Function<Event, EventPacket<?>>>> createFactories() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<Function<Event, EventPacket<?>>> computeValue(@NotNull Class<?> type) {
+                Map<Class<?>, Function<Event, EventPacket<?>>> packets = EventForwarder.this.packets;
+                for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                    Function<Event, EventPacket<?>> factory = packets.get(current);
+                    if (factory != null) return Optional.of(factory);
+                }
+
+                return Optional.empty();
+            }
+        };
+    }
+
+    /**
+     * A subscription of a networker to an event class.
+     *
+     * @param networker The subscribed networker.
+     * @param type      The event class.
+     */
+    private record Subscription(Networker networker, Class<? extends Event> type) {
+    }
+
+}
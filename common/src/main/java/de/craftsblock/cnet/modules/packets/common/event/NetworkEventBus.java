@@ -0,0 +1,344 @@
+package de.craftsblock.cnet.modules.packets.common.event;
+
+import de.craftsblock.craftscore.event.Event;
+import de.craftsblock.craftscore.event.EventHandler;
+import de.craftsblock.craftscore.event.EventPriority;
+import de.craftsblock.craftscore.event.ListenAdapter;
+import de.craftsblock.craftscore.event.ListenerRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Dispatches {@link Event events} received from the network to the methods of
+ * registered listeners annotated with {@link NetworkEventHandler} or with the
+ * {@link EventHandler} of the {@link ListenerRegistry}.
+ * <p>
+ * The handler methods of a listener are resolved once on registration and
+ * bound through the {@link LambdaMetafactory} into direct invokers, so that
+ * firing an event is a plain interface call per handler instead of a
+ * reflective invocation. The handlers of an event class are compiled into an
+ * immutable array on first use and cached per event class. If the lookup has
+ * no full privilege access to a listener, its handlers are invoked through
+ * their {@link MethodHandle}.
+ * <p>
+ * The bus sits in front of the {@link ListenerRegistry} of the environment,
+ * events are passed to the listener registry after the handlers of the bus,
+ * whether they were handled by the bus or not, see
+ * {@link de.craftsblock.cnet.modules.packets.common.packet.EventPacket EventPacket}.
+ * Existing {@link ListenAdapter listeners} of the listener registry can be
+ * registered in the bus instead, their {@link EventHandler} methods are bound
+ * just like network event handlers. Once no listener of an event class is left
+ * in the listener registry, the reflective call of the listener registry can be
+ * skipped for it through {@link #setListenerRegistryBypassed(Class, boolean)}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see NetworkEventHandler
+ * @since 1.2.0
+ */
+public final class NetworkEventBus {
+
+    /**
+     * The priority of handlers which do not declare an explicit priority.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final Handler[] EMPTY = new Handler[0];
+
+    private volatile Handler[] handlers = EMPTY;
+    private volatile ClassValue<Handler[]> compiled = this.createCompiled();
+    private volatile Class<?>[] bypassed = new Class<?>[0];
+    private volatile ClassValue<Boolean> bypassing = this.createBypassing();
+
+    /**
+     * Registers all methods of a listener annotated with {@link NetworkEventHandler}
+     * or {@link EventHandler}.
+     * <p>
+     * Methods annotated with {@link EventHandler} are invoked in the declaration
+     * order of the {@link EventPriority} constants, after network event handlers
+     * with the {@link #DEFAULT_PRIORITY default priority}.
+     *
+     * @param listener The listener to register.
+     * @throws IllegalStateException If the listener is already registered, declares no handlers
+     *                               or one of its handlers is invalid or not accessible.
+     */
+    public void register(@NotNull Object listener) {
+        List<Handler> created = resolve(listener);
+
+        synchronized (this) {
+            Handler[] current = this.handlers;
+            for (Handler handler : current)
+                if (handler.listener() == listener)
+                    throw new IllegalStateException("The listener %s is already registered!".formatted(
+                            listener.getClass().getName()
+                    ));
+
+            Handler[] updated = Arrays.copyOf(current, current.length + created.size());
+            for (int i = 0; i < created.size(); i++)
+                updated[current.length + i] = created.get(i);
+
+            // Stable sort, handlers with equal priorities keep their registration order
+            Arrays.sort(updated, Comparator.comparingInt(Handler::priority).reversed());
+            this.publish(updated);
+        }
+    }
+
+    /**
+     * Unregisters all handlers of a listener.
+     *
+     * @param listener The listener to unregister.
+     * @return {@code true} if the listener was registered, {@code false} otherwise.
+     */
+    public synchronized boolean unregister(@NotNull Object listener) {
+        Handler[] current = this.handlers;
+        Handler[] updated = Arrays.stream(current)
+                .filter(handler -> handler.listener() != listener)
+                .toArray(Handler[]::new);
+
+        if (updated.length == current.length) return false;
+
+        this.publish(updated);
+        return true;
+    }
+
+    /**
+     * Fires an event through all handlers accepting its class.
+     *
+     * @param event The event to fire.
+     * @return {@code true} if at least one handler accepted the event, {@code false} otherwise.
+     * @throws RuntimeException If a handler failed with a checked exception.
+     */
+    public boolean call(@NotNull Event event) {
+        Handler[] handlers = compiled.get(event.getClass());
+        if (handlers.length == 0) return false;
+
+        try {
+            for (Handler handler : handlers)
+                handler.invoker().accept(handler.listener(), event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not fire event %s from network!".formatted(event.getClass().getName()), e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether at least one handler accepts events of a class.
+     *
+     * @param type The class of the event.
+     * @return {@code true} if the event class is handled, {@code false} otherwise.
+     */
+    public boolean hasHandlers(@NotNull Class<? extends Event> type) {
+        return compiled.get(type).length != 0;
+    }
+
+    /**
+     * Sets whether the {@link ListenerRegistry} is skipped for events of a class
+     * and its subclasses, so that they are only dispatched through this bus.
+     * This should only be enabled once all listeners of these events are
+     * registered in this bus, as listeners left in the listener registry do not
+     * receive them anymore.
+     *
+     * @param type     The class of the events.
+     * @param bypassed {@code true} to skip the listener registry, {@code false} to call it again.
+     */
+    public synchronized void setListenerRegistryBypassed(@NotNull Class<? extends Event> type, boolean bypassed) {
+        Class<?>[] current = this.bypassed;
+        Class<?>[] updated = Arrays.stream(current)
+                .filter(bypassedType -> bypassedType != type)
+                .toArray(Class<?>[]::new);
+
+        if (bypassed) {
+            updated = Arrays.copyOf(updated, updated.length + 1);
+            updated[updated.length - 1] = type;
+        }
+
+        this.bypassed = updated;
+        this.bypassing = this.createBypassing();
+    }
+
+    /**
+     * Checks whether the {@link ListenerRegistry} is skipped for events of a class.
+     *
+     * @param type The class of the event.
+     * @return {@code true} if events of the class are only dispatched through this bus, {@code false} otherwise.
+     */
+    public boolean isListenerRegistryBypassed(@NotNull Class<? extends Event> type) {
+        return bypassing.get(type);
+    }
+
+    /**
+     * Publishes a new set of handlers and discards all compiled handler arrays.
+     *
+     * @param updated The new handlers.
+     */
+    private void publish(Handler[] updated) {
+        this.handlers = updated;
+        this.compiled = this.createCompiled();
+    }
+
+    /**
+     * Creates a new cache which compiles the handlers of an event class from the current handlers.
+     *
+     * @return The created cache.
+     */
+    private ClassValue<Handler[]> createCompiled() {
+        return new ClassValue<>() {
+            @Override
+            protected Handler[] computeValue(@NotNull Class<?> type) {
+                Handler[] handlers = Arrays.stream(NetworkEventBus.this.handlers)
+                        .filter(handler -> handler.type().isAssignableFrom(type))
+                        .toArray(Handler[]::new);
+
+                return handlers.length == 0 ? EMPTY : handlers;
+            }
+        };
+    }
+
+    /**
+     * Creates a new cache which checks whether an event class is assignable to a
+     * class the listener registry is bypassed for.
+     *
+     * @return The created cache.
+     */
+    private ClassValue<Boolean> createBypassing() {
+        return new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(@NotNull Class<?> type) {
+                return Arrays.stream(NetworkEventBus.this.bypassed)
+                        .anyMatch(bypassedType -> bypassedType.isAssignableFrom(type));
+            }
+        };
+    }
+
+    /**
+     * Resolves and binds all handler methods of a listener, including inherited ones.
+     *
+     * @param listener The listener.
+     * @return The handlers of the listener in declaration order.
+     * @throws IllegalStateException If the listener declares no handlers or a handler is invalid.
+     */
+    private static List<Handler> resolve(Object listener) {
+        List<Handler> handlers = new ArrayList<>();
+        Set<String> overridden = new HashSet<>();
+
+        for (Class<?> type = listener.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            MethodHandles.Lookup lookup = lookup(type);
+
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic()) continue;
+
+                NetworkEventHandler annotation = method.getAnnotation(NetworkEventHandler.class);
+                EventHandler registryAnnotation = method.getAnnotation(EventHandler.class);
+                if (annotation == null && registryAnnotation == null) continue;
+
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1
+                        || !Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+                    throw new IllegalStateException("The network event handler %s#%s must be an instance method with a single event parameter!".formatted(
+                            type.getName(), method.getName()
+                    ));
+
+                Class<?> event = method.getParameterTypes()[0];
+                if (!overridden.add(method.getName() + "(" + event.getName() + ")")) continue;
+
+                int priority = annotation != null ? annotation.priority() : -1 - registryAnnotation.priority().ordinal();
+                handlers.add(new Handler(event, listener, invoker(lookup, method), priority));
+            }
+        }
+
+        if (handlers.isEmpty())
+            throw new IllegalStateException("The listener %s does not declare any network event handlers!".formatted(
+                    listener.getClass().getName()
+            ));
+
+        return handlers;
+    }
+
+    /**
+     * Creates the lookup used to access the handler methods of a listener class.
+     *
+     * @param type The listener class.
+     * @return The lookup.
+     */
+    private static MethodHandles.Lookup lookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * Binds a handler method into an invoker.
+     * <p>
+     * The {@link LambdaMetafactory} is used whenever the lookup has full privilege
+     * access to the listener, so that the handler can be inlined like a regular
+     * method call. Otherwise the handler is invoked through its {@link MethodHandle}.
+     *
+     * @param lookup The lookup to access the handler with.
+     * @param method The handler method.
+     * @return The invoker taking the listener and the event.
+     * @throws IllegalStateException If the handler is not accessible.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> invoker(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("The network event handler %s#%s is not accessible!".formatted(
+                    method.getDeclaringClass().getName(), method.getName()
+            ), e);
+        }
+
+        if (lookup.hasFullPrivilegeAccess())
+            try {
+                return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(
+                        lookup, "accept", MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0])
+                ).getTarget().invoke();
+            } catch (Throwable ignored) {
+                // Fall back to invoking the method handle
+            }
+
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (listener, event) -> {
+            try {
+                generic.invokeExact(listener, event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * A single bound handler method.
+     *
+     * @param type     The event class accepted by the handler.
+     * @param listener The listener declaring the handler.
+     * @param invoker  The invoker calling the handler on the listener.
+     * @param priority The priority of the handler.
+     */
+    private record Handler(Class<?> type, Object listener, BiConsumer<Object, Object> invoker, int priority) {
+    }
+
+}
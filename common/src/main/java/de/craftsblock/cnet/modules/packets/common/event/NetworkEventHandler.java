@@ -0,0 +1,34 @@
+package de.craftsblock.cnet.modules.packets.common.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a listener registered in a {@link NetworkEventBus} as
+ * handler of the network events assignable to its single parameter.
+ * <p>
+ * Handlers with a higher priority are invoked before handlers with a lower
+ * priority, handlers with the same priority in the order of registration.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see NetworkEventBus
+ * @since 1.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface NetworkEventHandler {
+
+    /**
+     * The priority of the handler, higher priorities are invoked first.
+     *
+     * @return The priority.
+     */
+    int priority() default NetworkEventBus.DEFAULT_PRIORITY;
+
+}
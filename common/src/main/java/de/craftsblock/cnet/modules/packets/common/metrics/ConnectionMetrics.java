@@ -0,0 +1,92 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the connections of an environment.
+ * <p>
+ * Unlike the packet counters these are always maintained, as gauges like the
+ * amount of active networkers would be wrong after re-enabling the metrics.
+ * Updating them only increments {@link LongAdder striped counters}, so reading
+ * them does not require walking the connections.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketMetrics#getConnections()
+ * @since 1.2.0
+ */
+public final class ConnectionMetrics {
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder sendsStarted = new LongAdder();
+    private final LongAdder sendsCompleted = new LongAdder();
+
+    /**
+     * Records a networker which was connected.
+     */
+    public void networkerOpened() {
+        opened.increment();
+    }
+
+    /**
+     * Records a networker which was disconnected.
+     */
+    public void networkerClosed() {
+        closed.increment();
+    }
+
+    /**
+     * Records a send which was started and is now pending until
+     * {@link #sendCompleted()} is called.
+     */
+    public void sendStarted() {
+        sendsStarted.increment();
+    }
+
+    /**
+     * Records a pending send which has completed, successfully or not.
+     */
+    public void sendCompleted() {
+        sendsCompleted.increment();
+    }
+
+    /**
+     * Gets the amount of currently connected networkers.
+     *
+     * @return The amount of active networkers.
+     */
+    public long getActiveNetworkers() {
+        return Math.max(0, opened.sum() - closed.sum());
+    }
+
+    /**
+     * Gets the total amount of networkers which were connected.
+     *
+     * @return The amount of opened networkers.
+     */
+    public long getOpenedNetworkers() {
+        return opened.sum();
+    }
+
+    /**
+     * Gets the amount of sends which are waiting for their networker or the
+     * transport, summed over all networkers.
+     *
+     * @return The amount of pending sends.
+     */
+    public long getPendingSends() {
+        return Math.max(0, sendsStarted.sum() - sendsCompleted.sum());
+    }
+
+    /**
+     * Gets the total amount of completed sends.
+     *
+     * @return The amount of completed sends.
+     */
+    public long getCompletedSends() {
+        return sendsCompleted.sum();
+    }
+
+}
@@ -0,0 +1,123 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * An immutable copy of the buckets of a {@link LatencyHistogram}.
+ * <p>
+ * Percentiles are reported as the highest value of the bucket they fall
+ * into, so they are never lower than the real value.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see LatencyHistogram#snapshot()
+ * @since 1.2.0
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long totalCount;
+
+    /**
+     * Constructs a new {@link HistogramSnapshot} from copied buckets.
+     *
+     * @param counts The copied bucket counts, owned by the snapshot.
+     */
+    HistogramSnapshot(long @NotNull [] counts) {
+        this.counts = counts;
+
+        long total = 0;
+        for (long count : counts)
+            total += count;
+
+        this.totalCount = total;
+    }
+
+    /**
+     * Gets the amount of recorded values.
+     *
+     * @return The amount of values.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Calculates the value below or at which the given percentage of all values lies.
+     *
+     * @param percentile The percentile, between {@code 0} and {@code 100}.
+     * @return The value at the percentile in nanoseconds, or {@code 0} if no value was recorded.
+     */
+    public long getValueAtPercentile(@Range(from = 0, to = 100) double percentile) {
+        if (totalCount == 0) return 0;
+
+        long threshold = Math.max(1, (long) Math.ceil(totalCount * (percentile / 100d)));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= threshold) return LatencyHistogram.highestValue(i);
+        }
+
+        return this.getMax();
+    }
+
+    /**
+     * Gets the highest recorded value.
+     *
+     * @return The highest value in nanoseconds, or {@code 0} if no value was recorded.
+     */
+    public long getMax() {
+        for (int i = counts.length - 1; i >= 0; i--)
+            if (counts[i] != 0) return LatencyHistogram.highestValue(i);
+
+        return 0;
+    }
+
+    /**
+     * Calculates the mean of all recorded values, using the middle of each bucket.
+     *
+     * @return The mean in nanoseconds, or {@code 0} if no value was recorded.
+     */
+    public double getMean() {
+        if (totalCount == 0) return 0;
+
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++)
+            if (counts[i] != 0)
+                sum += counts[i] * ((LatencyHistogram.lowestValue(i) + LatencyHistogram.highestValue(i)) / 2d);
+
+        return sum / totalCount;
+    }
+
+    /**
+     * Gets the amount of values counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The amount of values.
+     */
+    public long getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Gets the highest value counted in a bucket, usable as upper bound when exporting the buckets.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket in nanoseconds.
+     */
+    public long getUpperBound(int index) {
+        return LatencyHistogram.highestValue(index);
+    }
+
+    /**
+     * Gets the amount of buckets.
+     *
+     * @return The amount of buckets.
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+}
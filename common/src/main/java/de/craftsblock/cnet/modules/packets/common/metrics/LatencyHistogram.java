@@ -0,0 +1,149 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed memory, lock free histogram of latencies in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into
+ * {@link #SUB_BUCKETS} linear sub buckets, which bounds the relative error of
+ * every recorded value to about 3% while covering the whole range from one
+ * nanosecond up to {@link #MAX_VALUE} in a little more than a thousand buckets.
+ * Larger values are counted in the highest bucket.
+ * <p>
+ * Recording a value is a single atomic increment of its bucket, there is no
+ * allocation and no lock. Snapshots can be taken at any time, optionally
+ * resetting the histogram to measure intervals.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see HistogramSnapshot
+ * @since 1.2.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of bits used for the linear sub buckets of each power of two.
+     */
+    static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of linear sub buckets of each power of two.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest value which is counted precisely, about 73 minutes in nanoseconds.
+     */
+    public static final long MAX_VALUE = (1L << 42) - 1;
+
+    /**
+     * The amount of buckets of every histogram.
+     */
+    static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a single value.
+     *
+     * @param nanos The value in nanoseconds, negative values are counted as {@code 0}.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(index(nanos));
+    }
+
+    /**
+     * Creates a snapshot of all recorded values.
+     *
+     * @return The created snapshot.
+     */
+    public @NotNull HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            copy[i] = counts.get(i);
+
+        return new HistogramSnapshot(copy);
+    }
+
+    /**
+     * Creates a snapshot of all values recorded since the last reset and resets the histogram.
+     * <p>
+     * Every bucket is read and cleared atomically, so no value recorded
+     * concurrently is lost, it is either part of this or of the next interval.
+     *
+     * @return The created snapshot.
+     */
+    public @NotNull HistogramSnapshot snapshotAndReset() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            copy[i] = counts.getAndSet(i, 0);
+
+        return new HistogramSnapshot(copy);
+    }
+
+    /**
+     * Resets all buckets of the histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+    }
+
+    /**
+     * Reads the count of a single bucket without taking a snapshot.
+     *
+     * @param index The index of the bucket.
+     * @return The amount of values counted in the bucket.
+     */
+    long count(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Calculates the bucket of a value.
+     *
+     * @param value The value.
+     * @return The index of the bucket.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return value < 0 ? 0 : (int) value;
+        if (value > MAX_VALUE) value = MAX_VALUE;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Calculates the lowest value counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The lowest value of the bucket.
+     */
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << shift;
+    }
+
+    /**
+     * Calculates the highest value counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        return lowestValue(index) + (1L << shift) - 1;
+    }
+
+}
@@ -0,0 +1,116 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link LatencyHistogram latency histograms} of every {@link LatencyStage},
+ * kept once globally and once per bundle.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketMetrics#getLatencyHistograms()
+ * @since 1.2.0
+ */
+public final class LatencyHistograms {
+
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+
+    private final LatencyHistogram[] global = create();
+    private final ConcurrentHashMap<String, LatencyHistogram[]> bundles = new ConcurrentHashMap<>();
+
+    /**
+     * Records a latency into the global histogram and the histogram of the bundle.
+     *
+     * @param bundle The identifier of the bundle.
+     * @param stage  The stage the latency was measured for.
+     * @param nanos  The latency in nanoseconds.
+     */
+    public void record(@NotNull String bundle, @NotNull LatencyStage stage, long nanos) {
+        global[stage.ordinal()].record(nanos);
+
+        LatencyHistogram[] histograms = bundles.get(bundle);
+        if (histograms == null) histograms = bundles.computeIfAbsent(bundle, key -> create());
+        histograms[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Gets the global histogram of a stage.
+     *
+     * @param stage The stage.
+     * @return The histogram covering all bundles.
+     */
+    public @NotNull LatencyHistogram getGlobal(@NotNull LatencyStage stage) {
+        return global[stage.ordinal()];
+    }
+
+    /**
+     * Gets the histogram of a stage for a bundle.
+     *
+     * @param bundle The identifier of the bundle.
+     * @param stage  The stage.
+     * @return The histogram, or {@code null} if nothing was recorded for the bundle.
+     */
+    public @Nullable LatencyHistogram getBundle(@NotNull String bundle, @NotNull LatencyStage stage) {
+        LatencyHistogram[] histograms = bundles.get(bundle);
+        return histograms != null ? histograms[stage.ordinal()] : null;
+    }
+
+    /**
+     * Gets the identifiers of all bundles with recorded latencies.
+     *
+     * @return An unmodifiable view of the identifiers.
+     */
+    public @NotNull @Unmodifiable Set<String> getBundles() {
+        return Collections.unmodifiableSet(bundles.keySet());
+    }
+
+    /**
+     * Creates snapshots of the histograms of a stage for all bundles.
+     *
+     * @param stage The stage.
+     * @param reset {@code true} to reset the histograms for the next interval.
+     * @return The snapshots by bundle identifier.
+     */
+    public @NotNull @Unmodifiable Map<String, HistogramSnapshot> snapshot(@NotNull LatencyStage stage, boolean reset) {
+        Map<String, HistogramSnapshot> snapshots = new HashMap<>();
+        bundles.forEach((bundle, histograms) -> {
+            LatencyHistogram histogram = histograms[stage.ordinal()];
+            snapshots.put(bundle, reset ? histogram.snapshotAndReset() : histogram.snapshot());
+        });
+
+        return Map.copyOf(snapshots);
+    }
+
+    /**
+     * Resets all histograms.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : global)
+            histogram.reset();
+
+        bundles.clear();
+    }
+
+    /**
+     * Creates a histogram for every stage.
+     *
+     * @return The histograms indexed by the ordinal of their stage.
+     */
+    private static LatencyHistogram[] create() {
+        LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new LatencyHistogram();
+
+        return histograms;
+    }
+
+}
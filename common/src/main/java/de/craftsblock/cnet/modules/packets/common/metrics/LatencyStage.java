@@ -0,0 +1,36 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+/**
+ * The stages of the packet pipeline whose latency is recorded in {@link LatencyHistogram histograms}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see LatencyHistograms
+ * @since 1.2.0
+ */
+public enum LatencyStage {
+
+    /**
+     * Encoding a packet into a frame.
+     */
+    ENCODE,
+
+    /**
+     * Decoding a frame into a packet.
+     */
+    DECODE,
+
+    /**
+     * Executing the handler of a received packet.
+     */
+    HANDLE,
+
+    /**
+     * Sending a packet, from the call to
+     * {@link de.craftsblock.cnet.modules.packets.common.networker.Networker#send Networker.send}
+     * until the transport completed the write of the frame.
+     */
+    SEND
+
+}
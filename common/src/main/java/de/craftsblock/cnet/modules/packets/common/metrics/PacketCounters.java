@@ -0,0 +1,46 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of a single packet ID of a bundle in a single direction.
+ * <p>
+ * All counters are {@link LongAdder striped}, so concurrent connections
+ * recording the same packet type do not contend on a single memory location.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketMetrics
+ * @since 1.2.0
+ */
+final class PacketCounters {
+
+    final LongAdder packets = new LongAdder();
+    final LongAdder payloadBytes = new LongAdder();
+    final LongAdder frameBytes = new LongAdder();
+    final LongAdder codecNanos = new LongAdder();
+    final LongAdder handled = new LongAdder();
+    final LongAdder handleNanos = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    /**
+     * Creates an immutable view of the current counter values.
+     *
+     * @param bundle    The bundle the counters belong to.
+     * @param id        The packet ID the counters belong to.
+     * @param direction The direction the counters belong to.
+     * @return The created {@link PacketStatistics}.
+     */
+    @NotNull PacketStatistics snapshot(@NotNull String bundle, int id, @NotNull PacketDirection direction) {
+        return new PacketStatistics(
+                bundle, id, direction,
+                packets.sum(), payloadBytes.sum(), frameBytes.sum(), codecNanos.sum(),
+                handled.sum(), handleNanos.sum(), errors.sum()
+        );
+    }
+
+}
@@ -0,0 +1,330 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.LazyPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Low overhead counters for every packet ID of every bundle in both directions.
+ * <p>
+ * Counters are resolved through a lookup of the bundle identifier followed by
+ * an array access by packet ID, and are only created the first time a packet
+ * type is recorded. Recording itself only increments {@link java.util.concurrent.atomic.LongAdder striped counters}.
+ * Packet IDs above {@link #MAX_TRACKED_ID} are not recorded and packets of
+ * bundles which are not registered, like relayed or wrapped packets, are
+ * recorded under {@link #UNKNOWN_BUNDLE}, so peers can not grow the counters
+ * and histograms without bounds.
+ * <p>
+ * Besides the counters, the latencies of every {@link LatencyStage} are
+ * recorded into {@link LatencyHistograms log-linear histograms}, globally and
+ * per bundle.
+ * <p>
+ * Metrics are enabled by default and can be disabled at runtime, components
+ * recording metrics check {@link #isEnabled()} before measuring any time.
+ * The {@link ConnectionMetrics} are maintained regardless.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketStatistics
+ * @since 1.2.0
+ */
+public final class PacketMetrics {
+
+    /**
+     * The highest packet ID which is recorded.
+     */
+    public static final int MAX_TRACKED_ID = 0xFFFF;
+
+    /**
+     * The bundle under which packets of bundles which are not registered are recorded.
+     */
+    public static final String UNKNOWN_BUNDLE = "unknown";
+
+    private static final int DIRECTIONS = PacketDirection.values().length;
+
+    private final @NotNull WebSocketPackets webSocketPackets;
+    private final ConcurrentHashMap<String, BundleCounters> bundles = new ConcurrentHashMap<>();
+    private final LatencyHistograms latencyHistograms = new LatencyHistograms();
+    private final ConnectionMetrics connections = new ConnectionMetrics();
+    private volatile boolean enabled = true;
+
+    /**
+     * Constructs a new {@link PacketMetrics} tracking the bundles registered in
+     * the given {@link WebSocketPackets} instance.
+     *
+     * @param webSocketPackets The instance whose registered bundles are tracked.
+     */
+    public PacketMetrics(@NotNull WebSocketPackets webSocketPackets) {
+        this.webSocketPackets = webSocketPackets;
+    }
+
+    /**
+     * Records an encoded packet.
+     *
+     * @param bundle       The identifier of the bundle of the packet.
+     * @param id           The ID of the packet.
+     * @param payloadBytes The size of the serialized packet body.
+     * @param frameBytes   The size of the complete frame.
+     * @param nanos        The time spent encoding, in nanoseconds.
+     */
+    public void recordEncode(@NotNull String bundle, int id, int payloadBytes, int frameBytes, long nanos) {
+        bundle = this.track(bundle);
+        this.recordCodec(bundle, id, PacketDirection.OUTBOUND, payloadBytes, frameBytes, nanos);
+        latencyHistograms.record(bundle, LatencyStage.ENCODE, nanos);
+    }
+
+    /**
+     * Records a decoded packet.
+     *
+     * @param bundle       The identifier of the bundle of the packet.
+     * @param id           The ID of the packet.
+     * @param payloadBytes The size of the serialized packet body.
+     * @param frameBytes   The size of the complete frame.
+     * @param nanos        The time spent decoding, in nanoseconds.
+     */
+    public void recordDecode(@NotNull String bundle, int id, int payloadBytes, int frameBytes, long nanos) {
+        bundle = this.track(bundle);
+        this.recordCodec(bundle, id, PacketDirection.INBOUND, payloadBytes, frameBytes, nanos);
+        latencyHistograms.record(bundle, LatencyStage.DECODE, nanos);
+    }
+
+    /**
+     * Records a handled inbound packet.
+     *
+     * @param bundle The identifier of the bundle of the packet.
+     * @param id     The ID of the packet.
+     * @param nanos  The time spent handling, in nanoseconds.
+     */
+    public void recordHandle(@NotNull String bundle, int id, long nanos) {
+        bundle = this.track(bundle);
+        PacketCounters counters = this.counters(bundle, id, PacketDirection.INBOUND);
+        if (counters == null) return;
+
+        counters.handled.increment();
+        counters.handleNanos.add(nanos);
+        latencyHistograms.record(bundle, LatencyStage.HANDLE, nanos);
+    }
+
+    /**
+     * Records the time it took to send a packet, from the call to {@link Networker#send(Packet)}
+     * until the transport completed the write of the frame.
+     *
+     * @param networker The networker the packet was sent through.
+     * @param packet    The sent packet.
+     * @param nanos     The time spent sending, in nanoseconds.
+     */
+    public void recordSend(@NotNull Networker networker, @NotNull Packet packet, long nanos) {
+        String bundle;
+        if (packet instanceof LazyPacket lazy) bundle = lazy.bundle().identifier();
+        else if (packet instanceof WrappedPacket wrapped) bundle = wrapped.bundle();
+        else {
+            PacketBundleSnapshot snapshot = networker.getConnectionState().getPinnedSnapshot();
+            if (snapshot == null) snapshot = networker.getEnvironment().getPacketBundleRegistry().getSnapshot();
+
+            FrozenPacketBundle packetBundle = snapshot.getBundle(packet.getClass());
+            if (packetBundle == null) return;
+            bundle = packetBundle.identifier();
+        }
+
+        latencyHistograms.record(this.track(bundle), LatencyStage.SEND, nanos);
+    }
+
+    /**
+     * Records a packet which failed to be encoded, decoded or handled.
+     *
+     * @param bundle    The identifier of the bundle of the packet.
+     * @param id        The ID of the packet.
+     * @param direction The direction of the packet.
+     */
+    public void recordError(@NotNull String bundle, int id, @NotNull PacketDirection direction) {
+        PacketCounters counters = this.counters(this.track(bundle), id, direction);
+        if (counters != null) counters.errors.increment();
+    }
+
+    /**
+     * Creates a snapshot of all recorded metrics.
+     * <p>
+     * The values of a single entry are read one after another while packets may
+     * still be recorded, they are therefore not guaranteed to be consistent with
+     * each other.
+     *
+     * @return An unmodifiable list of the metrics of every recorded packet type.
+     */
+    public @NotNull @Unmodifiable List<PacketStatistics> snapshot() {
+        List<PacketStatistics> statistics = new ArrayList<>();
+
+        bundles.forEach((bundle, counters) -> {
+            for (PacketDirection direction : PacketDirection.values()) {
+                PacketCounters[] byId = counters.byDirection[direction.ordinal()];
+                for (int id = 0; id < byId.length; id++)
+                    if (byId[id] != null) statistics.add(byId[id].snapshot(bundle, id, direction));
+            }
+        });
+
+        return List.copyOf(statistics);
+    }
+
+    /**
+     * Gets the latency histograms of all stages.
+     *
+     * @return The latency histograms.
+     */
+    public @NotNull LatencyHistograms getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * Gets the metrics of the connections.
+     *
+     * @return The connection metrics.
+     */
+    public @NotNull ConnectionMetrics getConnections() {
+        return connections;
+    }
+
+    /**
+     * Discards all recorded metrics, including the latency histograms.
+     * The {@link ConnectionMetrics} are not reset.
+     */
+    public void reset() {
+        bundles.clear();
+        latencyHistograms.reset();
+    }
+
+    /**
+     * Checks whether metrics are recorded.
+     *
+     * @return {@code true} if metrics are recorded, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the recording of metrics. Already recorded metrics are kept.
+     *
+     * @param enabled {@code true} to record metrics, {@code false} otherwise.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Passes the counters of every recorded bundle, indexed by the ordinal of
+     * the direction and the packet ID, to an action without copying them.
+     *
+     * @param action The action to perform for every bundle.
+     */
+    void forEachBundle(@NotNull BiConsumer<String, PacketCounters[][]> action) {
+        bundles.forEach((bundle, counters) -> action.accept(bundle, counters.byDirection));
+    }
+
+    /**
+     * Records an encoded or decoded packet.
+     *
+     * @param bundle       The identifier of the bundle of the packet.
+     * @param id           The ID of the packet.
+     * @param direction    The direction of the packet.
+     * @param payloadBytes The size of the serialized packet body.
+     * @param frameBytes   The size of the complete frame.
+     * @param nanos        The time spent encoding or decoding, in nanoseconds.
+     */
+    private void recordCodec(String bundle, int id, PacketDirection direction, int payloadBytes, int frameBytes, long nanos) {
+        PacketCounters counters = this.counters(bundle, id, direction);
+        if (counters == null) return;
+
+        counters.packets.increment();
+        counters.payloadBytes.add(payloadBytes);
+        counters.frameBytes.add(frameBytes);
+        counters.codecNanos.add(nanos);
+    }
+
+    /**
+     * Resolves the key a bundle is recorded under.
+     *
+     * @param bundle The identifier of the bundle.
+     * @return The identifier if the bundle is registered, {@link #UNKNOWN_BUNDLE} otherwise.
+     */
+    private String track(String bundle) {
+        PacketBundleRegistry registry = webSocketPackets.getPacketBundleRegistry();
+        return registry != null && registry.isRegistered(bundle) ? bundle : UNKNOWN_BUNDLE;
+    }
+
+    /**
+     * Resolves the counters of a packet type, creating them if necessary.
+     *
+     * @param bundle    The key the bundle is recorded under.
+     * @param id        The ID of the packet.
+     * @param direction The direction.
+     * @return The counters, or {@code null} if the ID is not tracked.
+     */
+    private @Nullable PacketCounters counters(String bundle, int id, PacketDirection direction) {
+        if (id < 0 || id > MAX_TRACKED_ID) return null;
+
+        BundleCounters counters = bundles.get(bundle);
+        if (counters == null) counters = bundles.computeIfAbsent(bundle, key -> new BundleCounters());
+
+        return counters.get(id, direction.ordinal());
+    }
+
+    /**
+     * The counters of all packet IDs of a single bundle, indexed by direction and packet ID.
+     */
+    private static final class BundleCounters {
+
+        private volatile PacketCounters[][] byDirection = new PacketCounters[DIRECTIONS][0];
+
+        /**
+         * Resolves the counters of a packet ID in a direction, creating them if necessary.
+         *
+         * @param id        The ID of the packet.
+         * @param direction The ordinal of the direction.
+         * @return The counters.
+         */
+        PacketCounters get(int id, int direction) {
+            PacketCounters[] byId = byDirection[direction];
+            if (id < byId.length && byId[id] != null) return byId[id];
+            return this.create(id, direction);
+        }
+
+        /**
+         * Creates the counters of a packet ID in a direction, growing the arrays if necessary.
+         *
+         * @param id        The ID of the packet.
+         * @param direction The ordinal of the direction.
+         * @return The counters.
+         */
+        private synchronized PacketCounters create(int id, int direction) {
+            PacketCounters[][] current = this.byDirection;
+            PacketCounters[] byId = current[direction];
+            if (id < byId.length && byId[id] != null) return byId[id];
+
+            PacketCounters[][] updated = current.clone();
+            updated[direction] = Arrays.copyOf(byId, Math.max(byId.length, id + 1));
+
+            PacketCounters counters = new PacketCounters();
+            updated[direction][id] = counters;
+
+            this.byDirection = updated;
+            return counters;
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The recorded metrics of a single packet ID of a bundle in a single direction.
+ * <p>
+ * Payload bytes are the serialized packet bodies, frame bytes the complete
+ * frames including the header as they are handed to the transport. Frames are
+ * not compressed at the moment, so both only differ by the header size.
+ *
+ * @param bundle       The identifier of the bundle.
+ * @param id           The ID of the packet within its bundle.
+ * @param direction    The direction of the packets.
+ * @param packets      The amount of encoded or decoded packets.
+ * @param payloadBytes The total size of the packet bodies.
+ * @param frameBytes   The total size of the frames.
+ * @param codecNanos   The total time spent encoding or decoding, in nanoseconds.
+ * @param handled      The amount of handled packets.
+ * @param handleNanos  The total time spent handling packets, in nanoseconds.
+ * @param errors       The amount of packets which failed to be encoded, decoded or handled.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketMetrics#snapshot()
+ * @since 1.2.0
+ */
+public record PacketStatistics(@NotNull String bundle, int id, @NotNull PacketDirection direction,
+                               long packets, long payloadBytes, long frameBytes, long codecNanos,
+                               long handled, long handleNanos, long errors) {
+
+    /**
+     * Calculates the average time spent encoding or decoding a single packet.
+     *
+     * @return The average codec time in nanoseconds, or {@code 0} if no packet was recorded.
+     */
+    public double averageCodecNanos() {
+        return packets == 0 ? 0 : (double) codecNanos / packets;
+    }
+
+    /**
+     * Calculates the average time spent handling a single packet.
+     *
+     * @return The average handle time in nanoseconds, or {@code 0} if no packet was handled.
+     */
+    public double averageHandleNanos() {
+        return handled == 0 ? 0 : (double) handleNanos / handled;
+    }
+
+}
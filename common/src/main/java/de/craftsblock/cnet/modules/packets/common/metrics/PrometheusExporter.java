@@ -0,0 +1,331 @@
+package de.craftsblock.cnet.modules.packets.common.metrics;
+
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Renders {@link PacketMetrics} in the Prometheus text exposition format.
+ * <p>
+ * The output contains the {@link ConnectionMetrics} as gauges, the packet
+ * counters summed up per bundle and direction, from which rates are derived
+ * by Prometheus, and the {@link LatencyHistograms} of every bundle and stage.
+ * The log-linear buckets of the histograms are folded into a fixed set of
+ * Prometheus buckets from one microsecond up to ten seconds.
+ * <p>
+ * Scrapes read the counters and histogram buckets in place and render into a
+ * builder which is reused across scrapes, so that it does not have to grow
+ * again on every scrape. Scrapes are therefore serialized.
+ * {@link #scrape(OutputWriter)} encodes the rendered output as UTF-8 directly
+ * into a reused byte array, which is only allocated again if the length of the
+ * output changed. {@link #scrape()} copies the output into a new string instead.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class PrometheusExporter {
+
+    /**
+     * The content type of the rendered output.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "websocketpackets_";
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+    private static final PacketDirection[] DIRECTIONS = PacketDirection.values();
+    private static final String[] STAGE_LABELS = labels(STAGES);
+    private static final String[] DIRECTION_LABELS = labels(DIRECTIONS);
+
+    private static final long[] BOUNDS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    private static final String[] BOUND_LABELS = new String[BOUNDS.length];
+    private static final int[] BOUND_INDEXES = new int[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS[i], 9).stripTrailingZeros().toPlainString();
+
+            int index = LatencyHistogram.index(BOUNDS[i]);
+            BOUND_INDEXES[i] = LatencyHistogram.highestValue(index) <= BOUNDS[i] ? index : index - 1;
+        }
+    }
+
+    private final PacketMetrics metrics;
+    private final StringBuilder builder = new StringBuilder(8192);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private byte[] output = new byte[0];
+
+    /**
+     * Constructs a new {@link PrometheusExporter}.
+     *
+     * @param metrics The metrics to export.
+     */
+    public PrometheusExporter(@NotNull PacketMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Renders the current metrics.
+     *
+     * @return The metrics in the Prometheus text exposition format.
+     */
+    public synchronized @NotNull String scrape() {
+        this.render();
+        return builder.toString();
+    }
+
+    /**
+     * Renders the current metrics and passes them encoded as UTF-8 to a writer.
+     * <p>
+     * The passed array is reused by later scrapes, so the writer must not keep it
+     * after returning. It is only valid while the writer runs.
+     *
+     * @param writer The writer receiving the metrics in the Prometheus text exposition format.
+     * @throws IOException If the writer failed.
+     */
+    public synchronized void scrape(@NotNull OutputWriter writer) throws IOException {
+        this.render();
+
+        int length = utf8Length(builder);
+        if (output.length != length) output = new byte[length];
+
+        encoder.reset();
+        ByteBuffer target = ByteBuffer.wrap(output);
+        encoder.encode(CharBuffer.wrap(builder), target, true);
+        encoder.flush(target);
+
+        writer.write(output);
+    }
+
+    /**
+     * Renders the current metrics into the reused builder.
+     */
+    private void render() {
+        StringBuilder builder = this.builder;
+        builder.setLength(0);
+
+        ConnectionMetrics connections = metrics.getConnections();
+        this.header("networkers_active", "gauge", "Currently connected networkers.");
+        this.name("networkers_active").append(' ').append(connections.getActiveNetworkers()).append('\n');
+        this.header("networkers_opened_total", "counter", "Networkers connected since the start.");
+        this.name("networkers_opened_total").append(' ').append(connections.getOpenedNetworkers()).append('\n');
+        this.header("sends_pending", "gauge", "Sends waiting for their networker or the transport.");
+        this.name("sends_pending").append(' ').append(connections.getPendingSends()).append('\n');
+        this.header("sends_total", "counter", "Completed sends.");
+        this.name("sends_total").append(' ').append(connections.getCompletedSends()).append('\n');
+
+        this.counters("packets_total", "Encoded and decoded packets.", false, counters -> counters.packets.sum());
+        this.counters("payload_bytes_total", "Serialized packet body bytes.", false, counters -> counters.payloadBytes.sum());
+        this.counters("frame_bytes_total", "Frame bytes including the packet header.", false, counters -> counters.frameBytes.sum());
+        this.counters("packets_handled_total", "Handled packets.", true, counters -> counters.handled.sum());
+        this.counters("packet_errors_total", "Packets which failed to be encoded, decoded or handled.", false, counters -> counters.errors.sum());
+
+        LatencyHistograms histograms = metrics.getLatencyHistograms();
+        this.header("latency_seconds", "histogram", "Latency of the packet pipeline stages.");
+        for (String bundle : histograms.getBundles())
+            for (LatencyStage stage : STAGES) {
+                LatencyHistogram histogram = histograms.getBundle(bundle, stage);
+                if (histogram != null) this.histogram(bundle, stage, histogram);
+            }
+    }
+
+    /**
+     * Renders a counter of every bundle, summed up per direction.
+     *
+     * @param name        The name of the metric without prefix.
+     * @param help        The description of the metric.
+     * @param inboundOnly {@code true} if the counter is only maintained for inbound packets.
+     * @param counter     The function reading the counter of a packet ID.
+     */
+    private void counters(String name, String help, boolean inboundOnly, ToLongFunction<PacketCounters> counter) {
+        this.header(name, "counter", help);
+        metrics.forEachBundle((bundle, counters) -> {
+            for (PacketDirection direction : DIRECTIONS) {
+                if (inboundOnly && direction != PacketDirection.INBOUND) continue;
+
+                long sum = 0;
+                for (PacketCounters packet : counters[direction.ordinal()])
+                    if (packet != null) sum += counter.applyAsLong(packet);
+
+                this.name(name).append("{bundle=\"");
+                this.escaped(bundle).append("\",direction=\"").append(DIRECTION_LABELS[direction.ordinal()])
+                        .append("\"} ").append(sum).append('\n');
+            }
+        });
+    }
+
+    /**
+     * Renders a latency histogram, folding its buckets into the exported buckets.
+     *
+     * @param bundle    The identifier of the bundle.
+     * @param stage     The stage of the histogram.
+     * @param histogram The histogram.
+     */
+    private void histogram(String bundle, LatencyStage stage, LatencyHistogram histogram) {
+        long cumulative = 0;
+        double sum = 0;
+        int bucket = 0;
+
+        for (int i = 0; i < BOUNDS.length; i++) {
+            for (; bucket <= BOUND_INDEXES[i]; bucket++) {
+                long count = histogram.count(bucket);
+                if (count == 0) continue;
+
+                cumulative += count;
+                sum += count * this.middle(bucket);
+            }
+
+            this.histogramLabels("latency_seconds_bucket", bundle, stage).append(",le=\"").append(BOUND_LABELS[i])
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+
+        for (; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long count = histogram.count(bucket);
+            if (count == 0) continue;
+
+            cumulative += count;
+            sum += count * this.middle(bucket);
+        }
+
+        this.histogramLabels("latency_seconds_bucket", bundle, stage).append(",le=\"+Inf\"} ")
+                .append(cumulative).append('\n');
+        this.histogramLabels("latency_seconds_sum", bundle, stage).append("} ").append(sum / 1e9).append('\n');
+        this.histogramLabels("latency_seconds_count", bundle, stage).append("} ").append(cumulative).append('\n');
+    }
+
+    /**
+     * Appends the name and the opened label set of a histogram line.
+     *
+     * @param name   The name of the metric without prefix.
+     * @param bundle The identifier of the bundle.
+     * @param stage  The stage of the histogram.
+     * @return The builder.
+     */
+    private StringBuilder histogramLabels(String name, String bundle, LatencyStage stage) {
+        this.name(name).append("{bundle=\"");
+        return this.escaped(bundle).append("\",stage=\"").append(STAGE_LABELS[stage.ordinal()]).append('"');
+    }
+
+    /**
+     * Appends the help and type lines of a metric.
+     *
+     * @param name The name of the metric without prefix.
+     * @param type The type of the metric.
+     * @param help The description of the metric.
+     */
+    private void header(String name, String type, String help) {
+        builder.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends the prefixed name of a metric.
+     *
+     * @param name The name of the metric without prefix.
+     * @return The builder.
+     */
+    private StringBuilder name(String name) {
+        return builder.append(PREFIX).append(name);
+    }
+
+    /**
+     * Appends a label value, escaping backslashes, quotes and line breaks.
+     *
+     * @param value The label value.
+     * @return The builder.
+     */
+    private StringBuilder escaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '"' -> builder.append("\\\"");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(c);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Calculates the middle of a histogram bucket, used to approximate the sum of its values.
+     *
+     * @param bucket The index of the bucket.
+     * @return The middle of the bucket in nanoseconds.
+     */
+    private double middle(int bucket) {
+        return (LatencyHistogram.lowestValue(bucket) + LatencyHistogram.highestValue(bucket)) / 2d;
+    }
+
+    /**
+     * Calculates the length of a char sequence encoded as UTF-8, counting
+     * malformed surrogates as their single byte replacement.
+     *
+     * @param chars The char sequence.
+     * @return The length in bytes.
+     */
+    private static int utf8Length(CharSequence chars) {
+        int length = 0;
+        for (int i = 0, size = chars.length(); i < size; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (!Character.isSurrogate(c)) length += 3;
+            else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else length++;
+        }
+
+        return length;
+    }
+
+    /**
+     * Creates the label values of enum constants, their lower case names.
+     *
+     * @param constants The enum constants.
+     * @return The label values indexed by the ordinal of their constant.
+     */
+    private static String[] labels(Enum<?>[] constants) {
+        String[] labels = new String[constants.length];
+        for (Enum<?> constant : constants)
+            labels[constant.ordinal()] = constant.name().toLowerCase(Locale.ROOT);
+
+        return labels;
+    }
+
+    /**
+     * Receives the rendered metrics of a scrape.
+     */
+    @FunctionalInterface
+    public interface OutputWriter {
+
+        /**
+         * Writes the rendered metrics.
+         *
+         * @param output The metrics encoded as UTF-8, only valid during this call.
+         * @throws IOException If the metrics could not be written.
+         */
+        void write(byte @NotNull [] output) throws IOException;
+
+    }
+
+}
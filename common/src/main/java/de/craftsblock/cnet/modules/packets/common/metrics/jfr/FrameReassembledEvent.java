@@ -0,0 +1,63 @@
+package de.craftsblock.cnet.modules.packets.common.metrics.jfr;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event emitted for every binary frame reassembled from its fragments.
+ * <p>
+ * The duration spans from the arrival of the first fragment until the last
+ * fragment was appended. The event is only created if it is enabled, so
+ * receiving fragments does not allocate while no recording is running.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@Name("de.craftsblock.websocketpackets.FrameReassembled")
+@Label("Frame Reassembled")
+@Category({"CraftsNet", "WebSocket Packets"})
+@Description("A binary frame was reassembled from its fragments")
+@StackTrace(false)
+public final class FrameReassembledEvent extends jdk.jfr.Event {
+
+    @Label("Fragments")
+    private int fragments;
+
+    @Label("Frame Size")
+    @DataAmount
+    private int size;
+
+    @Label("Networker ID")
+    private long networker;
+
+    /**
+     * Counts a received fragment.
+     */
+    public void fragment() {
+        this.fragments++;
+    }
+
+    /**
+     * Ends the event and commits it if it passes the settings of the recording.
+     *
+     * @param size      The size of the reassembled frame.
+     * @param networker The networker the frame was received from.
+     */
+    public void commit(int size, @NotNull Networker networker) {
+        this.end();
+        if (!this.shouldCommit()) return;
+
+        this.size = size;
+        this.networker = networker.getId();
+        this.commit();
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.craftsblock.cnet.modules.packets.common.metrics.jfr;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight recorder event emitted for every decoded packet.
+ * <p>
+ * The duration covers the deserialization of the packet body. Like all events
+ * of this package it is disabled unless enabled through the JFR settings of a
+ * recording, in which case creating and committing it costs nothing.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@Name("de.craftsblock.websocketpackets.PacketDecoded")
+@Label("Packet Decoded")
+@Category({"CraftsNet", "WebSocket Packets"})
+@Description("A packet was decoded from a received frame")
+@StackTrace(false)
+public final class PacketDecodedEvent extends jdk.jfr.Event {
+
+    @Label("Bundle")
+    private String bundle;
+
+    @Label("Packet ID")
+    private int id;
+
+    @Label("Frame Size")
+    @DataAmount
+    private int size;
+
+    @Label("Networker ID")
+    private long networker;
+
+    /**
+     * Ends the event and commits it if it passes the settings of the recording.
+     *
+     * @param bundle    The identifier of the bundle of the packet.
+     * @param id        The ID of the packet.
+     * @param size      The size of the frame.
+     * @param networker The networker the packet was received from, or {@code null} to use
+     *                  the networker bound to the {@link NetworkerContext}.
+     */
+    public void commit(@NotNull String bundle, int id, int size, @Nullable Networker networker) {
+        this.end();
+        if (!this.shouldCommit()) return;
+
+        this.bundle = bundle;
+        this.id = id;
+        this.size = size;
+        if (networker == null) networker = NetworkerContext.current();
+        this.networker = networker != null ? networker.getId() : 0;
+        this.commit();
+    }
+
+}
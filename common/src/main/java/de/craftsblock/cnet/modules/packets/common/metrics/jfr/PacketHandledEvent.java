@@ -0,0 +1,54 @@
+package de.craftsblock.cnet.modules.packets.common.metrics.jfr;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event emitted for every handled packet.
+ * <p>
+ * The duration covers the execution of {@link de.craftsblock.cnet.modules.packets.common.packet.Packet#handle(Networker)}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@Name("de.craftsblock.websocketpackets.PacketHandled")
+@Label("Packet Handled")
+@Category({"CraftsNet", "WebSocket Packets"})
+@Description("A received packet was handled")
+@StackTrace(false)
+public final class PacketHandledEvent extends jdk.jfr.Event {
+
+    @Label("Bundle")
+    private String bundle;
+
+    @Label("Packet ID")
+    private int id;
+
+    @Label("Networker ID")
+    private long networker;
+
+    /**
+     * Ends the event and commits it if it passes the settings of the recording.
+     *
+     * @param bundle    The identifier of the bundle of the packet.
+     * @param id        The ID of the packet.
+     * @param networker The networker the packet was received from.
+     */
+    public void commit(@NotNull String bundle, int id, @NotNull Networker networker) {
+        this.end();
+        if (!this.shouldCommit()) return;
+
+        this.bundle = bundle;
+        this.id = id;
+        this.networker = networker.getId();
+        this.commit();
+    }
+
+}
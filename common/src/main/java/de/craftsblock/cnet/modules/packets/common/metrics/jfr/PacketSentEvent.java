@@ -0,0 +1,82 @@
+package de.craftsblock.cnet.modules.packets.common.metrics.jfr;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.LazyPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event emitted for every sent packet.
+ * <p>
+ * The duration covers the interception, encoding and the write of the frame,
+ * including the time spent waiting for other sends on the same networker.
+ * The bundle and ID of the packet are only resolved if the event is committed.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@Name("de.craftsblock.websocketpackets.PacketSent")
+@Label("Packet Sent")
+@Category({"CraftsNet", "WebSocket Packets"})
+@Description("A packet was sent through a networker")
+@StackTrace(false)
+public final class PacketSentEvent extends jdk.jfr.Event {
+
+    @Label("Bundle")
+    private String bundle;
+
+    @Label("Packet ID")
+    private int id;
+
+    @Label("Frame Size")
+    @DataAmount
+    private int size;
+
+    @Label("Networker ID")
+    private long networker;
+
+    /**
+     * Ends the event and commits it if it passes the settings of the recording.
+     *
+     * @param networker The networker the packet was sent through.
+     * @param packet    The sent packet.
+     * @param size      The size of the sent frame.
+     */
+    public void commit(@NotNull Networker networker, @NotNull Packet packet, int size) {
+        this.end();
+        if (!this.shouldCommit()) return;
+
+        if (packet instanceof LazyPacket lazy) {
+            this.bundle = lazy.bundle().identifier();
+            this.id = lazy.id();
+        } else if (packet instanceof WrappedPacket wrapped) {
+            this.bundle = wrapped.bundle();
+            this.id = wrapped.id();
+        } else {
+            PacketBundleSnapshot snapshot = networker.getConnectionState().getPinnedSnapshot();
+            if (snapshot == null) snapshot = networker.getEnvironment().getPacketBundleRegistry().getSnapshot();
+
+            FrozenPacketBundle packetBundle = snapshot.getBundle(packet.getClass());
+            if (packetBundle != null) {
+                this.bundle = packetBundle.identifier();
+                this.id = packetBundle.getId(packet);
+            } else this.id = -1;
+        }
+
+        this.size = size;
+        this.networker = networker.getId();
+        this.commit();
+    }
+
+}
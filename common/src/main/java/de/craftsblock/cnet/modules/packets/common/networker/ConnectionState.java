@@ -0,0 +1,134 @@
+package de.craftsblock.cnet.modules.packets.common.networker;
+
+import de.craftsblock.cnet.modules.packets.common.networker.strings.StringTable;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.NegotiatedSettings;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Mutable per connection state of a {@link Networker}.
+ * <p>
+ * Holds everything that belongs to a single connection but is not part of
+ * the transport itself, like the optional string tables, the bundle snapshot
+ * the connection is pinned to or the settings negotiated during the handshake.
+ * Each networker owns exactly one instance for its whole lifetime.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see Networker#getConnectionState()
+ * @since 1.2.0
+ */
+public final class ConnectionState {
+
+    private volatile @Nullable StringTable outboundStringTable;
+    private volatile @Nullable StringTable inboundStringTable;
+    private volatile @Nullable PacketBundleSnapshot pinnedSnapshot;
+    private volatile @Nullable NegotiatedSettings negotiatedSettings;
+
+    /**
+     * Enables the string tables in both directions with the same capacity.
+     * <p>
+     * Both peers have to enable their tables before the first string is sent
+     * through them.
+     *
+     * @param capacity The capacity of each table.
+     * @see #enableOutboundStringTable(int)
+     * @see #enableInboundStringTable(int)
+     */
+    public void enableStringTables(@Range(from = 1, to = StringTable.MAX_CAPACITY) int capacity) {
+        this.enableOutboundStringTable(capacity);
+        this.enableInboundStringTable(capacity);
+    }
+
+    /**
+     * Enables the string table used for packets sent through this connection.
+     *
+     * @param capacity The capacity of the table.
+     */
+    public void enableOutboundStringTable(@Range(from = 1, to = StringTable.MAX_CAPACITY) int capacity) {
+        this.outboundStringTable = new StringTable(capacity);
+    }
+
+    /**
+     * Enables the string table used for packets received through this connection.
+     * <p>
+     * Inbound tables only work if the packets are decoded with this connection
+     * bound to the {@link NetworkerContext}, which is the case for
+     * {@link de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder#decode(de.craftsblock.craftsnet.utils.ByteBuffer, Networker)}.
+     *
+     * @param capacity The capacity of the table.
+     */
+    public void enableInboundStringTable(@Range(from = 1, to = StringTable.MAX_CAPACITY) int capacity) {
+        this.inboundStringTable = new StringTable(capacity);
+    }
+
+    /**
+     * Disables the string tables in both directions.
+     */
+    public void disableStringTables() {
+        this.outboundStringTable = null;
+        this.inboundStringTable = null;
+    }
+
+    /**
+     * Returns the string table used for packets sent through this connection.
+     *
+     * @return The outbound string table, or {@code null} if disabled.
+     */
+    public @Nullable StringTable getOutboundStringTable() {
+        return outboundStringTable;
+    }
+
+    /**
+     * Returns the string table used for packets received through this connection.
+     *
+     * @return The inbound string table, or {@code null} if disabled.
+     */
+    public @Nullable StringTable getInboundStringTable() {
+        return inboundStringTable;
+    }
+
+    /**
+     * Pins this connection to a bundle snapshot.
+     * <p>
+     * Packets encoded and decoded for this connection are resolved against the
+     * pinned snapshot instead of the current snapshot of the registry, so bundles
+     * replaced after the snapshot was taken do not affect this connection.
+     *
+     * @param snapshot The snapshot to pin to, or {@code null} to follow the registry again.
+     */
+    public void pinSnapshot(@Nullable PacketBundleSnapshot snapshot) {
+        this.pinnedSnapshot = snapshot;
+    }
+
+    /**
+     * Returns the bundle snapshot this connection is pinned to.
+     *
+     * @return The pinned snapshot, or {@code null} if the connection follows the registry.
+     */
+    public @Nullable PacketBundleSnapshot getPinnedSnapshot() {
+        return pinnedSnapshot;
+    }
+
+    /**
+     * Stores the settings negotiated during the handshake.
+     *
+     * @param negotiatedSettings The negotiated settings.
+     * @see de.craftsblock.cnet.modules.packets.common.protocol.handshake.Handshake
+     */
+    public void setNegotiatedSettings(@Nullable NegotiatedSettings negotiatedSettings) {
+        this.negotiatedSettings = negotiatedSettings;
+    }
+
+    /**
+     * Returns the settings negotiated during the handshake.
+     *
+     * @return The negotiated settings, or {@code null} if no handshake was completed.
+     */
+    public @Nullable NegotiatedSettings getNegotiatedSettings() {
+        return negotiatedSettings;
+    }
+
+}
@@ -0,0 +1,142 @@
+package de.craftsblock.cnet.modules.packets.common.networker;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link ConnectionState} of networkers which do not hold their state themselves.
+ * <p>
+ * States are keyed by the identity of the networker and only weakly reference it,
+ * so a state is dropped once its networker was garbage collected. Lookups of
+ * existing states go through a reused probe per thread, so that only the first
+ * access of a networker allocates a key.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see Networker#getConnectionState()
+ * @since 1.2.0
+ */
+final class ConnectionStates {
+
+    private static final ReferenceQueue<Networker> QUEUE = new ReferenceQueue<>();
+    private static final ConcurrentHashMap<Object, ConnectionState> STATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Probe> PROBE = ThreadLocal.withInitial(Probe::new);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ConnectionStates() {
+    }
+
+    /**
+     * Gets the state of a networker, creating it on first access.
+     *
+     * @param networker The networker.
+     * @return The state of the networker.
+     */
+    static @NotNull ConnectionState of(@NotNull Networker networker) {
+        Probe probe = PROBE.get();
+        probe.networker = networker;
+
+        try {
+            ConnectionState state = STATES.get(probe);
+            if (state != null) return state;
+        } finally {
+            probe.networker = null;
+        }
+
+        expunge();
+        return STATES.computeIfAbsent(new Key(networker), key -> new ConnectionState());
+    }
+
+    /**
+     * Removes the states of networkers which were garbage collected.
+     */
+    private static void expunge() {
+        Reference<? extends Networker> reference;
+        while ((reference = QUEUE.poll()) != null)
+            STATES.remove((Key) reference);
+    }
+
+    /**
+     * A weak key comparing networkers by identity.
+     * A cleared key is only equal to itself.
+     */
+    private static final class Key extends WeakReference<Networker> {
+
+        private final int hash;
+
+        /**
+         * Constructs a new {@link Key}.
+         *
+         * @param networker The networker.
+         */
+        private Key(Networker networker) {
+            super(networker, QUEUE);
+            this.hash = System.identityHashCode(networker);
+        }
+
+        /**
+         * Compares the networkers of two keys by identity.
+         *
+         * @param obj The object to compare to.
+         * @return {@code true} if both keys refer to the same networker.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key other)) return false;
+
+            Networker networker = this.get();
+            return networker != null && networker == other.get();
+        }
+
+        /**
+         * Returns the identity hash of the networker.
+         *
+         * @return The hash code.
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * A reusable key used to look up the state of a networker without allocating.
+     * It is only passed to lookups of the map and never stored as key.
+     */
+    private static final class Probe {
+
+        private Networker networker;
+
+        /**
+         * Compares the networker of this probe to the one of a key by identity.
+         *
+         * @param obj The key to compare to.
+         * @return {@code true} if the key refers to the networker of this probe.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key key && networker != null && key.get() == networker;
+        }
+
+        /**
+         * Returns the identity hash of the networker.
+         *
+         * @return The hash code.
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(networker);
+        }
+
+    }
+
+}
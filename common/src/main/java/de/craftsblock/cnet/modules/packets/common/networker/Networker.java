@@ -29,6 +29,19 @@ public interface Networker {
      */
     void send(@NotNull Packet packet);
 
+    /**
+     * Sends an already encoded frame to this network connection as is.
+     * <p>
+     * Used to forward frames without decoding and encoding them again, see
+     * {@link de.craftsblock.cnet.modules.packets.common.protocol.relay.PacketRelay PacketRelay}.
+     *
+     * @param frame The encoded frame, never {@code null}
+     * @throws UnsupportedOperationException If the networker can not send raw frames
+     */
+    default void sendRaw(byte @NotNull [] frame) {
+        throw new UnsupportedOperationException("%s can not send raw frames!".formatted(getClass().getSimpleName()));
+    }
+
     /**
      * Disconnects the network connection immediately,
      * using a default closure code and no explicit reason.
@@ -67,4 +80,17 @@ public interface Networker {
      */
     Environment getEnvironment();
 
+    /**
+     * Returns the mutable {@link ConnectionState} of this networker.
+     * <p>
+     * The default implementation lazily creates one state per networker instance
+     * and keeps it until the networker is garbage collected. Implementations
+     * should override this method and hold the state themselves.
+     *
+     * @return The connection state, never {@code null}.
+     */
+    default @NotNull ConnectionState getConnectionState() {
+        return ConnectionStates.of(this);
+    }
+
 }
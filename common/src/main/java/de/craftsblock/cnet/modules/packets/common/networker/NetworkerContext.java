@@ -0,0 +1,64 @@
+package de.craftsblock.cnet.modules.packets.common.networker;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds the {@link Networker} a packet is currently encoded for or decoded from.
+ * <p>
+ * The packet API does not pass the networker into
+ * {@link de.craftsblock.cnet.modules.packets.common.packet.BufferWritable#write(de.craftsblock.craftsnet.utils.ByteBuffer) write}
+ * or into the deserializers of a bundle. Features depending on per connection
+ * state, like the string tables, therefore look the networker up through this
+ * class. The codecs bind the networker for the duration of a single encode or
+ * decode call on the current thread.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class NetworkerContext {
+
+    private static final ThreadLocal<Networker> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NetworkerContext() {
+    }
+
+    /**
+     * Returns the networker bound to the current thread.
+     *
+     * @return The bound networker, or {@code null} if none is bound.
+     */
+    public static @Nullable Networker current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a networker to the current thread.
+     * <p>
+     * The returned previous networker must be passed to {@link #restore(Networker)}
+     * once the encode or decode call has finished.
+     *
+     * @param networker The networker to bind, may be {@code null}.
+     * @return The networker that was bound before, or {@code null} if none was bound.
+     */
+    public static @Nullable Networker bind(@Nullable Networker networker) {
+        Networker previous = CURRENT.get();
+        if (networker != previous) CURRENT.set(networker);
+        return previous;
+    }
+
+    /**
+     * Restores the networker that was bound before a call to {@link #bind(Networker)}.
+     *
+     * @param previous The networker returned by {@link #bind(Networker)}.
+     */
+    public static void restore(@Nullable Networker previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.craftsblock.cnet.modules.packets.common.networker.builtin;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+
+/**
+ * The characteristics of the simulated link between two {@link LoopbackNetworker loopback networkers}.
+ * <p>
+ * Every frame occupies the link of its direction for the time needed to
+ * transmit it with the configured bandwidth, so frames queue up behind each
+ * other once the link is saturated. After being transmitted a frame arrives
+ * at the peer once the configured latency has passed. Both directions are
+ * simulated independently.
+ *
+ * @param latency        The one way latency of the link.
+ * @param bytesPerSecond The bandwidth of each direction in bytes per second, or {@code 0} for an unlimited bandwidth.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see LoopbackNetworker
+ * @since 1.2.0
+ */
+public record LinkSimulation(@NotNull Duration latency, @Range(from = 0, to = Long.MAX_VALUE) long bytesPerSecond) {
+
+    /**
+     * A link without latency and with unlimited bandwidth, delivering frames as fast as possible.
+     */
+    public static final LinkSimulation NONE = new LinkSimulation(Duration.ZERO, 0);
+
+    /**
+     * Constructs a new {@link LinkSimulation} and validates the values.
+     *
+     * @param latency        The one way latency of the link.
+     * @param bytesPerSecond The bandwidth of each direction in bytes per second, or {@code 0} for an unlimited bandwidth.
+     * @throws IllegalArgumentException If the latency or the bandwidth is negative.
+     */
+    public LinkSimulation {
+        if (latency.isNegative())
+            throw new IllegalArgumentException("The latency must not be negative! (Got: %s)".formatted(latency));
+
+        if (bytesPerSecond < 0)
+            throw new IllegalArgumentException("The bandwidth must not be negative! (Got: %s)".formatted(bytesPerSecond));
+    }
+
+    /**
+     * Creates a link with the given latency and an unlimited bandwidth.
+     *
+     * @param latency The one way latency of the link.
+     * @return The created link.
+     */
+    public static @NotNull LinkSimulation latency(@NotNull Duration latency) {
+        return new LinkSimulation(latency, 0);
+    }
+
+    /**
+     * Calculates the time needed to transmit a frame over this link.
+     *
+     * @param size The size of the frame in bytes.
+     * @return The transmission time in nanoseconds, {@code 0} if the bandwidth is unlimited.
+     */
+    public long transmissionNanos(int size) {
+        if (bytesPerSecond == 0) return 0;
+        return (long) Math.ceil(size * 1e9 / bytesPerSecond);
+    }
+
+}
@@ -0,0 +1,414 @@
+package de.craftsblock.cnet.modules.packets.common.networker.builtin;
+
+import de.craftsblock.cnet.modules.packets.common.metrics.ConnectionMetrics;
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.Handshake;
+import de.craftsblock.craftscore.utils.id.Snowflake;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Networker} connected to a peer in the same process through in-memory queues.
+ * <p>
+ * Loopback networkers are created in pairs by {@link #pair(Environment, Environment, LinkSimulation)},
+ * each side belonging to its own {@link Environment}. Sending and receiving run the
+ * same {@link PacketTransport} path as every other networker, the encoded frames
+ * are just queued for the peer instead of being written to a socket. A delivery
+ * thread per direction passes the frames to the peer. This makes loopback pairs suitable for tests and
+ * benchmarks of the complete packet path without the overhead and nondeterminism
+ * of real sockets.
+ * <p>
+ * The {@link LinkSimulation} of a pair delays the delivery of frames by their
+ * transmission time and the latency of the link. Delays are waited for with
+ * {@link LockSupport#parkNanos(long)} and therefore only as precise as the
+ * timer of the platform, usually some ten microseconds.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see LinkSimulation
+ * @since 1.2.0
+ */
+public final class LoopbackNetworker implements Networker {
+
+    private final long id = Snowflake.generate();
+    private final ConnectionState connectionState = new ConnectionState();
+    private final Environment environment;
+    private final Connection connection;
+    private final Channel outbound;
+    private LoopbackNetworker peer;
+
+    /**
+     * Constructs a new {@link LoopbackNetworker} which is not yet linked to its peer.
+     *
+     * @param environment The environment containing the packet system context.
+     * @param connection  The state shared with the peer.
+     * @param simulation  The simulated link to the peer.
+     */
+    private LoopbackNetworker(Environment environment, Connection connection, LinkSimulation simulation) {
+        this.environment = environment;
+        this.connection = connection;
+        this.outbound = new Channel(simulation);
+    }
+
+    /**
+     * Connects two environments through a pair of loopback networkers without
+     * simulating latency or bandwidth.
+     *
+     * @param first  The environment of the returned networker.
+     * @param second The environment of its peer.
+     * @return The networker of the first environment, whose {@link #getPeer() peer} belongs to the second.
+     */
+    public static @NotNull LoopbackNetworker pair(@NotNull Environment first, @NotNull Environment second) {
+        return pair(first, second, LinkSimulation.NONE);
+    }
+
+    /**
+     * Connects two environments through a pair of loopback networkers.
+     * <p>
+     * Both networkers are recorded as opened in the {@link ConnectionMetrics} of
+     * their environment and send their {@link Handshake} if enabled, just like
+     * networkers of newly opened web sockets. Packets may be sent right away.
+     *
+     * @param first      The environment of the returned networker.
+     * @param second     The environment of its peer.
+     * @param simulation The simulated link between both networkers.
+     * @return The networker of the first environment, whose {@link #getPeer() peer} belongs to the second.
+     */
+    public static @NotNull LoopbackNetworker pair(@NotNull Environment first, @NotNull Environment second,
+                                                  @NotNull LinkSimulation simulation) {
+        Connection connection = new Connection();
+        LoopbackNetworker a = new LoopbackNetworker(first, connection, simulation);
+        LoopbackNetworker b = new LoopbackNetworker(second, connection, simulation);
+        a.peer = b;
+        b.peer = a;
+
+        a.outbound.start();
+        b.outbound.start();
+
+        first.getPacketMetrics().getConnections().networkerOpened();
+        second.getPacketMetrics().getConnections().networkerOpened();
+        Handshake.initiate(a);
+        Handshake.initiate(b);
+        return a;
+    }
+
+    /**
+     * Sends a {@link Packet} to the peer through the {@link PacketTransport}.
+     * The encoded frame is queued for the peer while holding the lock of this
+     * networker, so frames are delivered in the order they were encoded in.
+     *
+     * @param packet The packet to send.
+     * @throws IllegalStateException If the networker is disconnected.
+     */
+    @Override
+    public void send(@NotNull Packet packet) {
+        PacketTransport.send(this, packet, this::transmit);
+    }
+
+    /**
+     * Queues a copy of an already encoded frame for the peer.
+     *
+     * @param frame The encoded frame.
+     * @throws IllegalStateException If the networker is disconnected.
+     */
+    @Override
+    public synchronized void sendRaw(byte @NotNull [] frame) {
+        this.transmit(frame.clone());
+    }
+
+    /**
+     * Queues a frame for the peer.
+     *
+     * @param frame The frame, which must not be modified afterward.
+     * @throws IllegalStateException If the networker is disconnected.
+     */
+    private void transmit(byte[] frame) {
+        if (!outbound.enqueue(frame))
+            throw new IllegalStateException("The loopback networker %s is disconnected!".formatted(id));
+    }
+
+    /**
+     * Disconnects the pair gracefully using close code {@code 1000} (normal closure)
+     * and an empty reason.
+     */
+    @Override
+    public void disconnect() {
+        this.disconnect(1000, "");
+    }
+
+    /**
+     * Disconnects the pair using the given close code and reason.
+     * <p>
+     * Frames which were sent before are still delivered to the peer. Once the
+     * close reaches the peer, both networkers are recorded as closed, unsubscribed
+     * from all forwarded events and further sends in either direction fail.
+     * As there is no close frame, the code and reason are not passed to the peer.
+     *
+     * @param code   The WebSocket close code (between 1000 and 4999).
+     * @param reason The textual reason for the disconnection.
+     */
+    @Override
+    public void disconnect(@Range(from = 1000, to = 4999) int code, @NotNull String reason) {
+        outbound.close();
+    }
+
+    /**
+     * Waits until every frame sent in either direction of the pair was handled by its receiver,
+     * including the frames sent while handling them.
+     *
+     * @param timeout The maximum time to wait.
+     * @return {@code true} if the pair became idle, {@code false} if the timeout elapsed before.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    public boolean awaitIdle(@NotNull Duration timeout) throws InterruptedException {
+        return connection.awaitIdle(timeout.toNanos());
+    }
+
+    /**
+     * Checks whether the pair is still connected.
+     *
+     * @return {@code true} if the pair is connected, {@code false} once a close was delivered.
+     */
+    public boolean isOpen() {
+        return connection.open.get();
+    }
+
+    /**
+     * Returns the networker on the other end of the pair.
+     *
+     * @return The peer.
+     */
+    public @NotNull LoopbackNetworker getPeer() {
+        return peer;
+    }
+
+    /**
+     * Returns the unique identifier of this networker instance.
+     *
+     * @return The unique ID.
+     */
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the {@link Environment} associated with this networker.
+     *
+     * @return The environment containing the
+     * {@link de.craftsblock.cnet.modules.packets.common.WebSocketPackets WebSocketPackets} context.
+     */
+    @Override
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Returns the mutable {@link ConnectionState} of this networker.
+     *
+     * @return The connection state, never {@code null}.
+     */
+    @Override
+    public @NotNull ConnectionState getConnectionState() {
+        return connectionState;
+    }
+
+    /**
+     * Closes both networkers of the pair after a close was delivered.
+     */
+    private void closed() {
+        if (!connection.open.compareAndSet(true, false)) return;
+
+        for (LoopbackNetworker networker : new LoopbackNetworker[]{this, peer}) {
+            networker.outbound.stop();
+            networker.environment.getEventForwarder().unsubscribe(networker);
+            networker.environment.getPacketMetrics().getConnections().networkerClosed();
+        }
+    }
+
+    /**
+     * A frame queued for delivery, or a marker ending the delivery if it has no data.
+     *
+     * @param data      The frame, or {@code null} for a marker.
+     * @param deliverAt The {@link System#nanoTime()} at which the frame arrives at the peer.
+     * @param close     Whether the marker closes the pair or only stops the delivery.
+     */
+    private record Frame(byte[] data, long deliverAt, boolean close) {
+    }
+
+    /**
+     * The state shared by both networkers of a pair.
+     */
+    private static final class Connection {
+
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Records a frame which was handled by its receiver, waking up the threads
+         * waiting for the pair to become idle if it was the last pending frame.
+         */
+        private void delivered() {
+            if (pending.decrementAndGet() != 0) return;
+
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * Waits until no frame is pending in either direction.
+         *
+         * @param nanos The maximum time to wait in nanoseconds.
+         * @return {@code true} if no frame is pending, {@code false} if the timeout elapsed before.
+         * @throws InterruptedException If the current thread was interrupted while waiting.
+         */
+        private synchronized boolean awaitIdle(long nanos) throws InterruptedException {
+            long deadline = System.nanoTime() + nanos;
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * The direction of the pair from this networker to its peer, simulating the
+     * link and delivering the queued frames on a dedicated thread.
+     */
+    private final class Channel implements Runnable {
+
+        private final BlockingQueue<Frame> queue = new LinkedBlockingQueue<>();
+        private final LinkSimulation simulation;
+        private final long latency;
+        private long linkFree = System.nanoTime();
+        private boolean stopped;
+
+        /**
+         * Constructs a new {@link Channel}.
+         *
+         * @param simulation The simulated link.
+         */
+        private Channel(LinkSimulation simulation) {
+            this.simulation = simulation;
+            this.latency = simulation.latency().toNanos();
+        }
+
+        /**
+         * Starts the delivery thread of this direction.
+         */
+        private void start() {
+            Thread thread = new Thread(this, "loopback-networker-%s".formatted(id));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Queues a frame for the delivery once it was transmitted over the simulated link.
+         *
+         * @param data The frame.
+         * @return {@code true} if the frame was queued, {@code false} if this direction is closed.
+         */
+        private synchronized boolean enqueue(byte[] data) {
+            if (stopped) return false;
+
+            connection.pending.incrementAndGet();
+            queue.add(new Frame(data, this.transmitted(data.length) + latency, false));
+            return true;
+        }
+
+        /**
+         * Queues the close of the pair behind all frames sent before.
+         */
+        private synchronized void close() {
+            if (stopped) return;
+
+            stopped = true;
+            queue.add(new Frame(null, this.transmitted(0) + latency, true));
+        }
+
+        /**
+         * Stops the delivery thread after the frames queued before, which are dropped.
+         */
+        private synchronized void stop() {
+            if (stopped) return;
+
+            stopped = true;
+            queue.add(new Frame(null, 0, false));
+        }
+
+        /**
+         * Occupies the link with the transmission of a frame.
+         *
+         * @param size The size of the frame in bytes.
+         * @return The {@link System#nanoTime()} at which the frame is transmitted.
+         */
+        private long transmitted(int size) {
+            long now = System.nanoTime();
+            long begin = linkFree - now > 0 ? linkFree : now;
+            return linkFree = begin + simulation.transmissionNanos(size);
+        }
+
+        /**
+         * Delivers the queued frames to the peer until the pair is closed.
+         */
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Frame frame = queue.take();
+                    if (frame.data() == null) {
+                        if (!frame.close()) return;
+
+                        this.await(frame.deliverAt());
+                        LoopbackNetworker.this.closed();
+                        return;
+                    }
+
+                    try {
+                        this.await(frame.deliverAt());
+                        if (connection.open.get()) PacketTransport.receive(peer, frame.data());
+                    } catch (RuntimeException e) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    } finally {
+                        connection.delivered();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Waits until a frame arrives at the peer, unless the pair was closed meanwhile.
+         *
+         * @param deliverAt The {@link System#nanoTime()} at which the frame arrives.
+         */
+        private void await(long deliverAt) {
+            long remaining;
+            while (connection.open.get() && (remaining = deliverAt - System.nanoTime()) > 0)
+                LockSupport.parkNanos(remaining);
+        }
+
+    }
+
+}
@@ -1,9 +1,11 @@
 package de.craftsblock.cnet.modules.packets.common.networker.builtin;
 
+import de.craftsblock.cnet.modules.packets.common.metrics.jfr.FrameReassembledEvent;
 import de.craftsblock.cnet.modules.packets.common.networker.Networker;
 import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
-import de.craftsblock.cnet.modules.packets.common.packet.Packet;
-import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.Handshake;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.NegotiatedSettings;
 
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
@@ -14,8 +16,8 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * Internal listener for handling WebSocket events.
  * <p>
- * This listener decodes incoming binary messages into {@link Packet} instances
- * and dispatches them to their handlers. It also manages connection state
+ * This listener reassembles incoming binary messages and passes them to the
+ * {@link PacketTransport}, which decodes and dispatches them. It also manages connection state
  * and ping/pong responses.
  * </p>
  *
@@ -28,14 +30,13 @@ import java.util.concurrent.atomic.AtomicReference;
 @SuppressWarnings("unused")
 public record SimpleWebSocketListener(Environment environment) implements WebSocket.Listener {
 
-    private static final PacketDecoder PACKET_DECODER = new PacketDecoder();
     private static final ConcurrentHashMap<WebSocket, WebSocketConnection> connections = new ConcurrentHashMap<>(1);
 
     /**
      * Called when a WebSocket connection is opened.
      * <p>
-     * Creates a new {@link WebSocketConnection} for the WebSocket and stores it
-     * in the static connections map.
+     * Creates a new {@link WebSocketConnection} for the WebSocket, stores it
+     * in the static connections map and sends the {@link Handshake} if enabled.
      * </p>
      *
      * @param webSocket The WebSocket that was opened.
@@ -45,11 +46,14 @@ public record SimpleWebSocketListener(Environment environment) implements WebSoc
         WebSocketConnection connection = new WebSocketConnection(
                 webSocket,
                 new WebSocketNetworker(environment, webSocket),
+                new AtomicReference<>(),
                 new AtomicReference<>()
         );
         connection.clearAccumulator();
 
         connections.put(webSocket, connection);
+        environment.getPacketMetrics().getConnections().networkerOpened();
+        Handshake.initiate(connection.networker());
         WebSocket.Listener.super.onOpen(webSocket);
     }
 
@@ -83,20 +87,27 @@ public record SimpleWebSocketListener(Environment environment) implements WebSoc
     }
 
     /**
-     * Removes a connection from the connections map.
+     * Removes a connection from the connections map, unsubscribes its
+     * networker from all forwarded events and records it as closed.
      *
      * @param webSocket The WebSocket whose connection should be removed.
      * @return The removed {@link WebSocketConnection}, or null if none existed.
      */
     WebSocketConnection onClose0(WebSocket webSocket) {
-        return connections.remove(webSocket);
+        WebSocketConnection connection = connections.remove(webSocket);
+        if (connection == null) return null;
+
+        environment.getEventForwarder().unsubscribe(connection.networker());
+        environment.getPacketMetrics().getConnections().networkerClosed();
+        return connection;
     }
 
     /**
      * Handles incoming binary WebSocket messages.
      * <p>
-     * Accumulates partial messages, decodes complete messages into packets,
-     * and dispatches them using {@link Packet#handle(Networker)}.
+     * Accumulates partial messages and passes complete messages to the
+     * {@link PacketTransport}. Connections whose accumulated message exceeds the
+     * negotiated max frame size are closed without waiting for the last fragment.
      * </p>
      *
      * @param webSocket The WebSocket receiving the binary message.
@@ -114,19 +125,42 @@ public record SimpleWebSocketListener(Environment environment) implements WebSoc
         message.get(data);
 
         Networker networker = connection.networker();
+        FrameReassembledEvent reassembly = connection.reassembly().get();
+        if (reassembly == null) {
+            FrameReassembledEvent event = new FrameReassembledEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                connection.reassembly().set(reassembly = event);
+            }
+        }
+        if (reassembly != null) reassembly.fragment();
+
         ByteBuffer accumulator = connection.ensureCapacityAndGetAccumulator(data.length);
         accumulator.put(data);
 
+        NegotiatedSettings negotiated = networker.getConnectionState().getNegotiatedSettings();
+        if (negotiated != null && accumulator.position() > negotiated.maxFrameSize()) {
+            connection.clearAccumulator();
+            connection.reassembly().set(null);
+            networker.disconnect(PacketTransport.MESSAGE_TOO_BIG, "Frame exceeded the negotiated max size of %s bytes!".formatted(
+                    negotiated.maxFrameSize()
+            ));
+            return null;
+        }
+
         if (!last) return WebSocket.Listener.super.onBinary(webSocket, message, false);
 
         accumulator.flip();
         byte[] packetData = new byte[accumulator.remaining()];
         accumulator.get(packetData);
 
-        try {
-            Packet packet = PACKET_DECODER.decode(new de.craftsblock.craftsnet.utils.ByteBuffer(packetData));
-            packet.handle(networker);
+        if (reassembly != null) {
+            connection.reassembly().set(null);
+            reassembly.commit(packetData.length, networker);
+        }
 
+        try {
+            PacketTransport.receive(networker, packetData);
             return WebSocket.Listener.super.onBinary(webSocket, message, true);
         } finally {
             connection.clearAccumulator();
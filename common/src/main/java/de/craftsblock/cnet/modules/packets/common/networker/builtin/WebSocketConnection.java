@@ -1,5 +1,6 @@
 package de.craftsblock.cnet.modules.packets.common.networker.builtin;
 
+import de.craftsblock.cnet.modules.packets.common.metrics.jfr.FrameReassembledEvent;
 import de.craftsblock.cnet.modules.packets.common.networker.Networker;
 
 import java.net.http.WebSocket;
@@ -13,12 +14,15 @@ import java.util.concurrent.atomic.AtomicReference;
  * @param webSocket   The underlying WebSocket.
  * @param networker   The networker wrapper managing this WebSocket.
  * @param accumulator An atomic reference holding the accumulator buffer.
+ * @param reassembly  An atomic reference holding the flight recorder event of the frame
+ *                    currently being reassembled, if the event is enabled.
  * @author Philipp Maywald
  * @author CraftsBlock
  * @version 1.0.0
  * @since 1.1.0
  */
-record WebSocketConnection(WebSocket webSocket, Networker networker, AtomicReference<ByteBuffer> accumulator) {
+record WebSocketConnection(WebSocket webSocket, Networker networker, AtomicReference<ByteBuffer> accumulator,
+                           AtomicReference<FrameReassembledEvent> reassembly) {
 
     /**
      * Clears and resets the accumulator buffer.
@@ -42,6 +46,7 @@ record WebSocketConnection(WebSocket webSocket, Networker networker, AtomicRefer
         ByteBuffer expandedBuffer = ByteBuffer.allocate(accumulator.capacity() + additionalCapacity);
         accumulator.flip();
         expandedBuffer.put(accumulator);
+        accumulator().set(expandedBuffer);
 
         return expandedBuffer;
     }
@@ -1,9 +1,10 @@
 package de.craftsblock.cnet.modules.packets.common.networker.builtin;
 
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
 import de.craftsblock.cnet.modules.packets.common.networker.Networker;
 import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
 import de.craftsblock.cnet.modules.packets.common.packet.Packet;
-import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
 import de.craftsblock.craftscore.utils.id.Snowflake;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
@@ -20,9 +21,10 @@ import java.nio.ByteBuffer;
  * a {@link Snowflake}-generated ID.
  * </p>
  *
- * @param id          The id of this networker.
- * @param environment The environment containing the packet system context.
- * @param webSocket   The underlying WebSocket used for communication.
+ * @param id              The id of this networker.
+ * @param environment     The environment containing the packet system context.
+ * @param webSocket       The underlying WebSocket used for communication.
+ * @param connectionState The mutable state of this connection.
  * @author Philipp Maywald
  * @author CraftsBlock
  * @version 1.0.0
@@ -31,7 +33,8 @@ import java.nio.ByteBuffer;
  * @see WebSocket
  * @since 1.0.0
  */
-public record WebSocketNetworker(long id, Environment environment, WebSocket webSocket) implements Networker {
+public record WebSocketNetworker(long id, Environment environment, WebSocket webSocket,
+                                 ConnectionState connectionState) implements Networker {
 
     /**
      * Constructs a new {@link WebSocketNetworker} with an automatically
@@ -45,17 +48,35 @@ public record WebSocketNetworker(long id, Environment environment, WebSocket web
     }
 
     /**
-     * Sends a {@link Packet} to the client through the underlying {@link WebSocket}.
-     * <p>
-     * The packet is first encoded using {@link PacketEncoder} and then transmitted as a binary frame.
+     * Constructs a new {@link WebSocketNetworker} with a fresh {@link ConnectionState}.
+     *
+     * @param id          The id of this networker.
+     * @param environment The environment containing the packet system context.
+     * @param webSocket   The underlying WebSocket used for communication.
+     */
+    public WebSocketNetworker(long id, Environment environment, WebSocket webSocket) {
+        this(id, environment, webSocket, new ConnectionState());
+    }
+
+    /**
+     * Sends a {@link Packet} to the client through the {@link PacketTransport},
+     * which transmits the encoded packet as binary frame through the underlying {@link WebSocket}.
      *
      * @param packet The packet to send.
      */
     @Override
-    public synchronized void send(@NotNull Packet packet) {
-        PacketEncoder packetEncoder = new PacketEncoder(environment.getWebSocketPackets());
-        ByteBuffer message = ByteBuffer.wrap(packetEncoder.encode(packet).getSource());
-        webSocket().sendBinary(message, true).join();
+    public void send(@NotNull Packet packet) {
+        PacketTransport.send(this, packet, frame -> webSocket().sendBinary(ByteBuffer.wrap(frame), true).join());
+    }
+
+    /**
+     * Sends an already encoded frame to the client as binary frame.
+     *
+     * @param frame The encoded frame.
+     */
+    @Override
+    public synchronized void sendRaw(byte @NotNull [] frame) {
+        webSocket().sendBinary(ByteBuffer.wrap(frame), true).join();
     }
 
     /**
@@ -99,4 +120,14 @@ public record WebSocketNetworker(long id, Environment environment, WebSocket web
         return environment();
     }
 
+    /**
+     * Returns the mutable {@link ConnectionState} of this networker.
+     *
+     * @return The connection state, never {@code null}.
+     */
+    @Override
+    public @NotNull ConnectionState getConnectionState() {
+        return connectionState();
+    }
+
 }
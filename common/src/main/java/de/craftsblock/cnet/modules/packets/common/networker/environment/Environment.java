@@ -1,12 +1,23 @@
 package de.craftsblock.cnet.modules.packets.common.networker.environment;
 
 import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.capture.PacketCapture;
+import de.craftsblock.cnet.modules.packets.common.event.EventForwarder;
+import de.craftsblock.cnet.modules.packets.common.event.NetworkEventBus;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketInterceptorPipeline;
 import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListenerRegistry;
 import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;
+import de.craftsblock.cnet.modules.packets.common.protocol.relay.RelayRouter;
+import de.craftsblock.craftscore.event.Event;
 import de.craftsblock.craftscore.event.ListenerRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.InvocationTargetException;
+
 /**
  * Represents the environment or context in which a
  * {@link de.craftsblock.cnet.modules.packets.common.networker.Networker Networker}
@@ -50,6 +61,94 @@ public interface Environment {
         return getWebSocketPackets().getPacketListenerRegistry();
     }
 
+    /**
+     * Returns the {@link PacketEncoder} bound to the {@link WebSocketPackets} instance.
+     *
+     * @return The packet encoder, never {@code null}.
+     */
+    default @NotNull PacketEncoder getPacketEncoder() {
+        return getWebSocketPackets().getPacketEncoder();
+    }
+
+    /**
+     * Returns the {@link PacketDecoder} bound to the {@link WebSocketPackets} instance.
+     *
+     * @return The packet decoder, never {@code null}.
+     */
+    default @NotNull PacketDecoder getPacketDecoder() {
+        return getWebSocketPackets().getPacketDecoder();
+    }
+
+    /**
+     * Returns the {@link PacketInterceptorPipeline} of the {@link WebSocketPackets} instance.
+     *
+     * @return The interceptor pipeline, never {@code null}.
+     */
+    default @NotNull PacketInterceptorPipeline getPacketInterceptorPipeline() {
+        return getWebSocketPackets().getPacketInterceptorPipeline();
+    }
+
+    /**
+     * Returns the {@link PacketMetrics} of the {@link WebSocketPackets} instance.
+     *
+     * @return The packet metrics, never {@code null}.
+     */
+    default @NotNull PacketMetrics getPacketMetrics() {
+        return getWebSocketPackets().getPacketMetrics();
+    }
+
+    /**
+     * Returns the {@link PacketCapture} of the {@link WebSocketPackets} instance.
+     *
+     * @return The packet capture, or {@code null} if capturing is disabled.
+     */
+    default @Nullable PacketCapture getPacketCapture() {
+        return getWebSocketPackets().getPacketCapture();
+    }
+
+    /**
+     * Returns the {@link NetworkEventBus} of the {@link WebSocketPackets} instance.
+     *
+     * @return The network event bus, never {@code null}.
+     */
+    default @NotNull NetworkEventBus getNetworkEventBus() {
+        return getWebSocketPackets().getNetworkEventBus();
+    }
+
+    /**
+     * Returns the {@link EventForwarder} of the {@link WebSocketPackets} instance.
+     *
+     * @return The event forwarder, never {@code null}.
+     */
+    default @NotNull EventForwarder getEventForwarder() {
+        return getWebSocketPackets().getEventForwarder();
+    }
+
+    /**
+     * Fires an event through the {@link ListenerRegistry} of this environment, if
+     * present, and forwards it to all networkers subscribed to its class through
+     * the {@link EventForwarder}.
+     *
+     * @param event The event to fire.
+     * @return The amount of networkers the event was forwarded to.
+     * @throws InvocationTargetException If a local listener failed.
+     * @throws IllegalAccessException    If a local listener is not accessible.
+     */
+    default int callAndForward(@NotNull Event event) throws InvocationTargetException, IllegalAccessException {
+        ListenerRegistry listenerRegistry = getListenerRegistry();
+        if (listenerRegistry != null) listenerRegistry.call(event);
+        return getEventForwarder().forward(event);
+    }
+
+    /**
+     * Returns the {@link RelayRouter} of the {@link WebSocketPackets} instance.
+     *
+     * @return The relay router, or {@code null} if relaying is disabled.
+     */
+    default @Nullable RelayRouter getRelayRouter() {
+        return getWebSocketPackets().getRelayRouter();
+    }
+
     /**
      * Returns the optional {@link ListenerRegistry} associated with this environment.
      * <p>
@@ -0,0 +1,415 @@
+package de.craftsblock.cnet.modules.packets.common.networker.strings;
+
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A bounded, least recently used string dictionary for one direction of a connection.
+ * <p>
+ * The sending side writes each string through {@link #write(ByteBuffer, String)}.
+ * The first occurrence of a string is written inline together with the slot it
+ * is stored in, every further occurrence only writes the slot as a var int. The
+ * receiving side mirrors the table through {@link #read(ByteBuffer)} and returns
+ * the cached instance for known slots, so no new {@link String} is allocated.
+ * <p>
+ * Once the table is full, the least recently used slot is reused for the next new
+ * string. As both sides see the exact same sequence of strings, they evict the
+ * same slots and stay in sync without any additional traffic. The slot of new
+ * entries is transmitted nonetheless, so that a desynchronized table is detected
+ * instead of silently resolving to wrong strings.
+ * <p>
+ * Changes made by the sending side can be undone through a savepoint, see
+ * {@link #begin()}. This keeps the table in sync when encoding a packet fails
+ * after some of its strings were already written, as the receiving side never
+ * sees that packet.
+ * <p>
+ * Wire format of a single string:
+ * <ul>
+ *     <li>{@code 0}, slot, UTF string: A new entry stored in the given slot.</li>
+ *     <li>{@code 1}, UTF string: A string that is not cached, as it is too long.</li>
+ *     <li>{@code slot + 2}: A cached entry.</li>
+ * </ul>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see StringTables
+ * @since 1.2.0
+ */
+public final class StringTable {
+
+    /**
+     * The maximum amount of entries a string table can hold.
+     */
+    public static final int MAX_CAPACITY = 1 << 16;
+
+    /**
+     * The maximum length of a string which is stored in the table.
+     * Longer strings are always written inline.
+     */
+    public static final int MAX_CACHED_LENGTH = 256;
+
+    private static final int TAG_NEW = 0;
+    private static final int TAG_INLINE = 1;
+    private static final int TAG_OFFSET = 2;
+
+    private static final int FIELD_PREVIOUS = 0;
+    private static final int FIELD_NEXT = 1;
+    private static final int FIELD_HEAD = 2;
+    private static final int FIELD_TAIL = 3;
+    private static final int FIELD_SIZE = 4;
+    private static final int FIELD_VALUE = 5;
+
+    private final int capacity;
+    private final String[] values;
+    private final int[] previous;
+    private final int[] next;
+
+    private HashMap<String, Integer> slots;
+    private int head = -1;
+    private int tail = -1;
+    private int size;
+
+    private int transactions;
+    private int[] journal;
+    private int journalSize;
+    private ArrayList<String> replaced;
+
+    /**
+     * Constructs a new empty {@link StringTable}.
+     *
+     * @param capacity The maximum amount of entries, between {@code 1} and {@link #MAX_CAPACITY}.
+     * @throws IllegalArgumentException If the capacity is out of range.
+     */
+    public StringTable(@Range(from = 1, to = MAX_CAPACITY) int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("The capacity of a string table must be between 1 and %s! (Got: %s)".formatted(
+                    MAX_CAPACITY, capacity
+            ));
+
+        this.capacity = capacity;
+        this.values = new String[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    /**
+     * Writes a string using this table as the sending side.
+     *
+     * @param buffer The buffer to write to.
+     * @param value  The string to write.
+     */
+    public synchronized void write(@NotNull ByteBuffer buffer, @NotNull String value) {
+        if (value.length() > MAX_CACHED_LENGTH) {
+            buffer.writeVarInt(TAG_INLINE);
+            buffer.writeUTF(value);
+            return;
+        }
+
+        if (slots == null) slots = new HashMap<>(Math.min(capacity, 64));
+
+        Integer slot = slots.get(value);
+        if (slot != null) {
+            this.touch(slot);
+            buffer.writeVarInt(slot + TAG_OFFSET);
+            return;
+        }
+
+        int newSlot = this.insert(value);
+        buffer.writeVarInt(TAG_NEW);
+        buffer.writeVarInt(newSlot);
+        buffer.writeUTF(value);
+    }
+
+    /**
+     * Reads a string using this table as the receiving side.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read string, the cached instance if the string is already known.
+     * @throws IllegalStateException If the table is out of sync with the sending side.
+     */
+    public synchronized @NotNull String read(@NotNull ByteBuffer buffer) {
+        int tag = buffer.readVarInt();
+        if (tag == TAG_INLINE) return buffer.readUTF();
+
+        if (tag == TAG_NEW) {
+            int expected = this.nextSlot();
+            int slot = buffer.readVarInt();
+            String value = buffer.readUTF();
+
+            if (slot != expected)
+                throw new IllegalStateException("String table out of sync! (Expected slot %s, got %s)".formatted(
+                        expected, slot
+                ));
+
+            this.insert(value);
+            return value;
+        }
+
+        int slot = tag - TAG_OFFSET;
+        if (slot < 0 || slot >= size)
+            throw new IllegalStateException("String table out of sync! (Unknown slot %s, size %s)".formatted(slot, size));
+
+        this.touch(slot);
+        return values[slot];
+    }
+
+    /**
+     * Returns the slot the next new string will be stored in.
+     *
+     * @return The next slot.
+     */
+    private int nextSlot() {
+        return size < capacity ? size : tail;
+    }
+
+    /**
+     * Stores a new string in the next free or least recently used slot.
+     *
+     * @param value The string to store.
+     * @return The slot of the string.
+     */
+    private int insert(String value) {
+        int slot;
+        if (size < capacity) {
+            slot = size;
+            this.set(FIELD_SIZE, 0, size + 1);
+        } else {
+            slot = tail;
+            this.unlink(slot);
+        }
+
+        this.setValue(slot, value);
+        this.linkFirst(slot);
+        return slot;
+    }
+
+    /**
+     * Marks a slot as most recently used.
+     *
+     * @param slot The slot to mark.
+     */
+    private void touch(int slot) {
+        if (head == slot) return;
+
+        this.unlink(slot);
+        this.linkFirst(slot);
+    }
+
+    /**
+     * Removes a slot from the usage list.
+     *
+     * @param slot The slot to remove.
+     */
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+
+        if (before == -1) this.set(FIELD_HEAD, 0, after);
+        else this.set(FIELD_NEXT, before, after);
+
+        if (after == -1) this.set(FIELD_TAIL, 0, before);
+        else this.set(FIELD_PREVIOUS, after, before);
+    }
+
+    /**
+     * Inserts a slot at the front of the usage list.
+     *
+     * @param slot The slot to insert.
+     */
+    private void linkFirst(int slot) {
+        this.set(FIELD_PREVIOUS, slot, -1);
+        this.set(FIELD_NEXT, slot, head);
+
+        if (head != -1) this.set(FIELD_PREVIOUS, head, slot);
+        this.set(FIELD_HEAD, 0, slot);
+
+        if (tail == -1) this.set(FIELD_TAIL, 0, slot);
+    }
+
+    /**
+     * Changes a field of the usage list, recording the old value while a savepoint is active.
+     *
+     * @param field The field to change.
+     * @param slot  The slot of the field, ignored for head, tail and size.
+     * @param value The new value.
+     */
+    private void set(int field, int slot, int value) {
+        int old = switch (field) {
+            case FIELD_PREVIOUS -> previous[slot];
+            case FIELD_NEXT -> next[slot];
+            case FIELD_HEAD -> head;
+            case FIELD_TAIL -> tail;
+            default -> size;
+        };
+
+        if (transactions > 0) this.record(field, slot, old);
+        this.apply(field, slot, value);
+    }
+
+    /**
+     * Writes a field of the usage list.
+     *
+     * @param field The field to write.
+     * @param slot  The slot of the field, ignored for head, tail and size.
+     * @param value The value.
+     */
+    private void apply(int field, int slot, int value) {
+        switch (field) {
+            case FIELD_PREVIOUS -> previous[slot] = value;
+            case FIELD_NEXT -> next[slot] = value;
+            case FIELD_HEAD -> head = value;
+            case FIELD_TAIL -> tail = value;
+            default -> size = value;
+        }
+    }
+
+    /**
+     * Stores a string in a slot, replacing the previous string of the slot,
+     * and records the previous string while a savepoint is active.
+     *
+     * @param slot  The slot.
+     * @param value The string to store, or {@code null} to empty the slot.
+     */
+    private void setValue(int slot, String value) {
+        String old = values[slot];
+        if (transactions > 0) {
+            if (replaced == null) replaced = new ArrayList<>();
+            this.record(FIELD_VALUE, slot, replaced.size());
+            replaced.add(old);
+        }
+
+        if (slots != null) {
+            if (old != null) slots.remove(old, slot);
+            if (value != null) slots.put(value, slot);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Appends a change to the journal.
+     *
+     * @param field The changed field.
+     * @param slot  The slot of the field.
+     * @param old   The old value, or the index of the replaced string.
+     */
+    private void record(int field, int slot, int old) {
+        if (journal == null) journal = new int[48];
+        else if (journalSize + 3 > journal.length) journal = Arrays.copyOf(journal, journal.length * 2);
+
+        journal[journalSize++] = field;
+        journal[journalSize++] = slot;
+        journal[journalSize++] = old;
+    }
+
+    /**
+     * Starts recording the changes made to this table, so that they can be undone.
+     * <p>
+     * Every savepoint has to be closed exactly once by either {@link #commit(int)}
+     * or {@link #rollback(int)}, in the reverse order they were started in.
+     * Savepoints are meant to span the encoding of a single packet, which is
+     * done by {@link de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder#encode(de.craftsblock.cnet.modules.packets.common.packet.Packet, de.craftsblock.cnet.modules.packets.common.networker.Networker) PacketEncoder}.
+     *
+     * @return The savepoint to pass to {@link #commit(int)} or {@link #rollback(int)}.
+     */
+    public synchronized int begin() {
+        transactions++;
+        return journalSize;
+    }
+
+    /**
+     * Keeps the changes made since a savepoint.
+     *
+     * @param savepoint The savepoint returned by {@link #begin()}.
+     * @throws IllegalStateException If no savepoint is active.
+     */
+    public synchronized void commit(int savepoint) {
+        this.close();
+    }
+
+    /**
+     * Undoes the changes made since a savepoint.
+     *
+     * @param savepoint The savepoint returned by {@link #begin()}.
+     * @throws IllegalStateException If no savepoint is active.
+     */
+    public synchronized void rollback(int savepoint) {
+        if (transactions == 0) throw new IllegalStateException("No savepoint is active!");
+
+        while (journalSize > savepoint) {
+            int old = journal[--journalSize];
+            int slot = journal[--journalSize];
+            int field = journal[--journalSize];
+
+            if (field != FIELD_VALUE) {
+                this.apply(field, slot, old);
+                continue;
+            }
+
+            String value = values[slot];
+            String restored = replaced.remove(old);
+            if (slots != null) {
+                if (value != null) slots.remove(value, slot);
+                if (restored != null) slots.put(restored, slot);
+            }
+            values[slot] = restored;
+        }
+
+        this.close();
+    }
+
+    /**
+     * Closes the innermost savepoint and drops the journal once no savepoint is active anymore.
+     *
+     * @throws IllegalStateException If no savepoint is active.
+     */
+    private void close() {
+        if (transactions == 0) throw new IllegalStateException("No savepoint is active!");
+        if (--transactions > 0) return;
+
+        journalSize = 0;
+        if (replaced != null) replaced.clear();
+    }
+
+    /**
+     * Removes all entries from this table.
+     * <p>
+     * Both sides of a connection have to clear their tables at the same position
+     * of the packet stream.
+     *
+     * @throws IllegalStateException If a savepoint is active.
+     */
+    public synchronized void clear() {
+        if (transactions > 0) throw new IllegalStateException("Can not clear a string table while a savepoint is active!");
+
+        Arrays.fill(values, null);
+        if (slots != null) slots.clear();
+
+        head = tail = -1;
+        size = 0;
+    }
+
+    /**
+     * Returns the maximum amount of entries of this table.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the current amount of entries of this table.
+     *
+     * @return The amount of entries.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+}
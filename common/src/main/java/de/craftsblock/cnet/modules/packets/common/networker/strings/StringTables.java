@@ -0,0 +1,77 @@
+package de.craftsblock.cnet.modules.packets.common.networker.strings;
+
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Entry point for packets writing and reading strings through the string
+ * table of the current connection.
+ * <p>
+ * If the {@link Networker} bound to the {@link NetworkerContext} has a string
+ * table for the respective direction, the string is written or read through it.
+ * Otherwise, the string is written as a plain UTF string. Packets can therefore
+ * use these methods unconditionally:
+ * <pre>{@code
+ * @Override
+ * public void write(@NotNull ByteBuffer buffer) {
+ *     StringTables.writeString(buffer, playerName);
+ * }
+ *
+ * public static ChatPacket read(ByteBuffer buffer) {
+ *     return new ChatPacket(StringTables.readString(buffer));
+ * }
+ * }</pre>
+ * String tables are opt-in per connection and direction, see
+ * {@link ConnectionState#enableStringTables(int)}. Both peers have to enable
+ * matching directions, as the wire format differs from a plain UTF string.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see StringTable
+ * @since 1.2.0
+ */
+public final class StringTables {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StringTables() {
+    }
+
+    /**
+     * Writes a string through the outbound string table of the current connection.
+     *
+     * @param buffer The buffer to write to.
+     * @param value  The string to write.
+     */
+    public static void writeString(@NotNull ByteBuffer buffer, @NotNull String value) {
+        Networker networker = NetworkerContext.current();
+        StringTable table = networker == null ? null : networker.getConnectionState().getOutboundStringTable();
+
+        if (table == null) {
+            buffer.writeUTF(value);
+            return;
+        }
+
+        table.write(buffer, value);
+    }
+
+    /**
+     * Reads a string through the inbound string table of the current connection.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read string.
+     */
+    public static @NotNull String readString(@NotNull ByteBuffer buffer) {
+        Networker networker = NetworkerContext.current();
+        StringTable table = networker == null ? null : networker.getConnectionState().getInboundStringTable();
+
+        if (table == null) return buffer.readUTF();
+        return table.read(buffer);
+    }
+
+}
@@ -1,5 +1,6 @@
 package de.craftsblock.cnet.modules.packets.common.packet;
 
+import de.craftsblock.cnet.modules.packets.common.event.NetworkEventBus;
 import de.craftsblock.cnet.modules.packets.common.networker.Networker;
 import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
 import de.craftsblock.craftscore.event.Event;
@@ -41,21 +42,31 @@ public interface EventPacket<E extends Event & BufferWritable> extends Packet {
     }
 
     /**
-     * Handles the event packet by firing the underlying event through the networker's
-     * listener registry. Any reflection related exceptions during invocation are
-     * wrapped in a {@link RuntimeException}.
+     * Handles the event packet by firing the underlying event through the
+     * {@link NetworkEventBus} of the networker's environment and afterward
+     * through the networker's listener registry, so listeners of the registry
+     * receive the event regardless of the handlers in the bus. The listener
+     * registry is skipped for event classes it is bypassed for in the bus, see
+     * {@link NetworkEventBus#setListenerRegistryBypassed(Class, boolean)}. Any
+     * reflection related exceptions during invocation are wrapped in a {@link RuntimeException}.
      *
      * @param networker The networker responsible for handling the packet.
-     * @throws RuntimeException If the event could not be fired due to reflection errors.
+     * @throws RuntimeException              If the event could not be fired due to reflection errors.
+     * @throws UnsupportedOperationException If the environment has no listener registry and the bus did not handle the event.
      */
     @Override
     default void handle(Networker networker) {
         Event event = getEvent();
+        Environment environment = networker.getEnvironment();
+        NetworkEventBus bus = environment.getNetworkEventBus();
+        boolean handled = bus.call(event);
+        if (bus.isListenerRegistryBypassed(event.getClass())) return;
 
         try {
-            Environment environment = networker.getEnvironment();
-            if (!environment.hasListenerRegistry())
+            if (!environment.hasListenerRegistry()) {
+                if (handled) return;
                 throw new UnsupportedOperationException("Received event in environment without listener registry!");
+            }
 
             environment.getListenerRegistry().call(event);
         } catch (InvocationTargetException | IllegalAccessException e) {
@@ -0,0 +1,192 @@
+package de.craftsblock.cnet.modules.packets.common.packet;
+
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A received {@link Packet} whose body has not been deserialized yet.
+ * <p>
+ * Only the bundle and the packet ID are decoded upfront, which is enough for
+ * filtering and routing the packet. The body is deserialized through the
+ * bundle on the first call to {@link #get()} and cached afterwards, so packets
+ * which are dropped or forwarded never pay for their deserialization.
+ * <p>
+ * As long as the body is not deserialized, {@link #write(ByteBuffer)} writes
+ * the raw body again, which allows forwarding the packet without touching it.
+ * This only applies if neither the connection the packet was received from nor
+ * the one it is written for uses string tables or a pinned snapshot, otherwise
+ * the body is deserialized and encoded again for the target connection.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketDecoder#decodeLazy(ByteBuffer, Networker)
+ * @since 1.2.0
+ */
+public final class LazyPacket implements Packet {
+
+    private final @NotNull FrozenPacketBundle bundle;
+    private final int id;
+    private final byte[] data;
+    private final @Nullable Networker networker;
+
+    private volatile @Nullable Packet packet;
+
+    /**
+     * Constructs a new {@link LazyPacket}.
+     *
+     * @param bundle    The bundle the packet belongs to.
+     * @param id        The ID of the packet, which must be assigned in the bundle.
+     * @param data      The raw body of the packet.
+     * @param networker The networker the packet was received from, may be {@code null}.
+     * @throws IllegalStateException If the ID is not assigned in the bundle.
+     */
+    public LazyPacket(@NotNull FrozenPacketBundle bundle, int id, byte @NotNull [] data, @Nullable Networker networker) {
+        if (!bundle.isAssigned(id))
+            throw new IllegalStateException("The packet id %s is not assigned in bundle %s!".formatted(id, bundle.identifier()));
+
+        this.bundle = bundle;
+        this.id = id;
+        this.data = data;
+        this.networker = networker;
+    }
+
+    /**
+     * Returns the deserialized packet, deserializing it on the first call.
+     * <p>
+     * The networker the packet was received from is bound to the
+     * {@link NetworkerContext} while the body is read.
+     *
+     * @return The deserialized packet.
+     * @throws IllegalStateException If the bundle could not create the packet.
+     */
+    public @NotNull Packet get() {
+        Packet packet = this.packet;
+        if (packet != null) return packet;
+
+        synchronized (this) {
+            if (this.packet != null) return this.packet;
+
+            Networker previous = NetworkerContext.bind(networker);
+            try {
+                packet = bundle.createPacket(id, new ByteBuffer(data, true));
+            } finally {
+                NetworkerContext.restore(previous);
+            }
+
+            if (packet == null)
+                throw new IllegalStateException("Failed to deserialize packet %s#%s!".formatted(bundle.identifier(), id));
+
+            return this.packet = packet;
+        }
+    }
+
+    /**
+     * Checks whether the body has already been deserialized.
+     *
+     * @return {@code true} if the body was deserialized, {@code false} otherwise.
+     */
+    public boolean isDeserialized() {
+        return packet != null;
+    }
+
+    /**
+     * Writes the packet into the provided buffer.
+     * <p>
+     * If the body has not been deserialized yet and does not depend on the
+     * state of the source or the target connection, the raw body is written as
+     * received. The target is the networker bound to the {@link NetworkerContext}.
+     * Note that the bundle and ID are not written here as they are handled by
+     * the encoder.
+     *
+     * @param buffer The buffer to write the packet into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        Packet packet = this.packet;
+        if (packet == null && !this.isRawWritable(NetworkerContext.current())) packet = this.get();
+
+        if (packet != null) packet.write(buffer);
+        else buffer.write(data);
+    }
+
+    /**
+     * Checks whether the raw body can be written for another connection
+     * without being deserialized and encoded again, which requires that
+     * neither the connection the packet was received from nor the target
+     * uses string tables or a pinned snapshot.
+     *
+     * @param target The networker the body is written for, may be {@code null}.
+     * @return {@code true} if the raw body can be written, {@code false} otherwise.
+     */
+    public boolean isRawWritable(@Nullable Networker target) {
+        if (networker != null) {
+            ConnectionState state = networker.getConnectionState();
+            if (state.getInboundStringTable() != null || state.getPinnedSnapshot() != null) return false;
+        }
+
+        if (target != null) {
+            ConnectionState state = target.getConnectionState();
+            return state.getOutboundStringTable() == null && state.getPinnedSnapshot() == null;
+        }
+
+        return true;
+    }
+
+    /**
+     * Deserializes the packet if necessary and lets it handle itself.
+     *
+     * @param networker The networker that received the packet.
+     */
+    @Override
+    public void handle(Networker networker) {
+        this.get().handle(networker);
+    }
+
+    /**
+     * Gets the bundle the packet belongs to.
+     *
+     * @return The bundle.
+     */
+    public @NotNull FrozenPacketBundle bundle() {
+        return bundle;
+    }
+
+    /**
+     * Gets the ID of the packet within its bundle.
+     *
+     * @return The packet ID.
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * Gets the class the body is deserialized into.
+     *
+     * @return The packet class.
+     */
+    public @NotNull Class<? extends Packet> getPacketClass() {
+        Class<? extends Packet> type = bundle.getPacketClass(id);
+        if (type == null)
+            throw new IllegalStateException("No packet class is assigned to %s#%s!".formatted(bundle.identifier(), id));
+
+        return type;
+    }
+
+    /**
+     * Gets the size of the raw body in bytes.
+     *
+     * @return The body size.
+     */
+    public int size() {
+        return data.length;
+    }
+
+}
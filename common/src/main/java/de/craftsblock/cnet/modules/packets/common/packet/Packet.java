@@ -41,4 +41,17 @@ public interface Packet extends BufferWritable {
         return networker.getEnvironment().getPacketListenerRegistry().get(type);
     }
 
+    /**
+     * Retrieves all {@link PacketListener listeners} of a specific type from the network environment,
+     * ordered by their priority. The returned array is shared and must not be modified.
+     *
+     * @param networker The networker instance from which to obtain the listener registry.
+     * @param type      The class type of the desired {@link PacketListener listeners}.
+     * @param <L>       The type of listeners to retrieve.
+     * @return The listeners of the specified type, empty if none are registered.
+     */
+    default <L extends PacketListener> L[] getPacketListeners(Networker networker, Class<L> type) {
+        return networker.getEnvironment().getPacketListenerRegistry().getAll(type);
+    }
+
 }
@@ -0,0 +1,82 @@
+package de.craftsblock.cnet.modules.packets.common.packet;
+
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.metrics.jfr.PacketHandledEvent;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dispatches received packets to their handlers.
+ * <p>
+ * Wraps {@link Packet#handle(Networker)} with the instrumentation of the
+ * environment of the receiving networker and emits a {@link PacketHandledEvent}.
+ * If neither metrics nor the flight recorder event are enabled the packet is
+ * handled directly without resolving its bundle or measuring any time.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketMetrics
+ * @since 1.2.0
+ */
+public final class PacketDispatcher {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PacketDispatcher() {
+    }
+
+    /**
+     * Lets a received packet handle itself.
+     *
+     * @param networker The networker the packet was received from.
+     * @param packet    The packet to handle.
+     */
+    public static void dispatch(@NotNull Networker networker, @NotNull Packet packet) {
+        PacketMetrics metrics = networker.getEnvironment().getPacketMetrics();
+        PacketHandledEvent event = new PacketHandledEvent();
+        boolean record = metrics.isEnabled();
+
+        if ((!record && !event.isEnabled()) || packet instanceof WrappedPacket) {
+            packet.handle(networker);
+            return;
+        }
+
+        String bundle;
+        int id;
+
+        if (packet instanceof LazyPacket lazy) {
+            bundle = lazy.bundle().identifier();
+            id = lazy.id();
+        } else {
+            PacketBundleSnapshot snapshot = networker.getConnectionState().getPinnedSnapshot();
+            if (snapshot == null) snapshot = networker.getEnvironment().getPacketBundleRegistry().getSnapshot();
+
+            FrozenPacketBundle packetBundle = snapshot.getBundle(packet.getClass());
+            if (packetBundle == null) {
+                packet.handle(networker);
+                return;
+            }
+
+            bundle = packetBundle.identifier();
+            id = packetBundle.getId(packet);
+        }
+
+        event.begin();
+        long start = record ? System.nanoTime() : 0;
+        try {
+            packet.handle(networker);
+        } catch (RuntimeException | Error e) {
+            if (record) metrics.recordError(bundle, id, PacketDirection.INBOUND);
+            throw e;
+        }
+
+        if (record) metrics.recordHandle(bundle, id, System.nanoTime() - start);
+        event.commit(bundle, id, networker);
+    }
+
+}
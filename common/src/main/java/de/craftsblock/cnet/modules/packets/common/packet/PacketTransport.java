@@ -0,0 +1,247 @@
+package de.craftsblock.cnet.modules.packets.common.packet;
+
+import de.craftsblock.cnet.modules.packets.common.capture.PacketCapture;
+import de.craftsblock.cnet.modules.packets.common.metrics.ConnectionMetrics;
+import de.craftsblock.cnet.modules.packets.common.metrics.LatencyStage;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.metrics.jfr.PacketSentEvent;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketInterceptorPipeline;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.Handshake;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.NegotiatedSettings;
+import de.craftsblock.cnet.modules.packets.common.protocol.relay.PacketHeader;
+import de.craftsblock.cnet.modules.packets.common.protocol.relay.PacketRelay;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The send and receive path shared by all {@link Networker networkers}.
+ * <p>
+ * Networkers only have to move complete frames over their transport and pass
+ * every packet to {@link #send(Networker, Packet, FrameWriter)} and every received
+ * frame to {@link #receive(Networker, byte[])}. Frames which are forwarded as is
+ * go through {@link #sendRaw(Networker, byte[], FrameWriter)}. This keeps the interceptors,
+ * the {@link PacketCapture}, the {@link PacketRelay}, the negotiated max frame
+ * size and the instrumentation identical for every transport.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketDispatcher
+ * @since 1.2.0
+ */
+public final class PacketTransport {
+
+    /**
+     * The close code used if a received frame exceeds the negotiated max frame size.
+     */
+    public static final int MESSAGE_TOO_BIG = 1009;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PacketTransport() {
+    }
+
+    /**
+     * Sends a {@link Packet} through a networker.
+     * <p>
+     * The packet is first passed through the outbound chain of the
+     * {@link PacketInterceptorPipeline}, rejected if its bundle is known to the
+     * peer in a different version, encoded using the {@link PacketEncoder},
+     * passed to the {@link PacketCapture} if enabled and then handed to the writer.
+     * Encoding and writing happen while holding the lock of the networker, so that
+     * the outbound string table sees the packets in the order they are written.
+     * The time from the call until the frame was written, including the time
+     * spent waiting for the lock, is recorded as {@link LatencyStage#SEND} latency.
+     *
+     * @param networker The networker sending the packet.
+     * @param packet    The packet to send.
+     * @param writer    The writer transmitting the encoded frame.
+     * @throws IllegalStateException If the handshake negotiated a different version of the bundle of the packet.
+     */
+    public static void send(@NotNull Networker networker, @NotNull Packet packet, @NotNull FrameWriter writer) {
+        Environment environment = networker.getEnvironment();
+        PacketMetrics metrics = environment.getPacketMetrics();
+        boolean record = metrics.isEnabled();
+        long start = record ? System.nanoTime() : 0;
+
+        PacketSentEvent event = new PacketSentEvent();
+        event.begin();
+
+        ConnectionMetrics connections = metrics.getConnections();
+        connections.sendStarted();
+
+        Packet intercepted;
+        int size;
+        try {
+            synchronized (networker) {
+                intercepted = environment.getPacketInterceptorPipeline().outbound(networker, packet);
+                if (intercepted == null) return;
+
+                NegotiatedSettings negotiated = networker.getConnectionState().getNegotiatedSettings();
+                if (negotiated != null && !negotiated.mismatchedBundles().isEmpty()) {
+                    String bundle = bundleOf(networker, intercepted);
+                    if (bundle != null && negotiated.isMismatched(bundle))
+                        throw new IllegalStateException("Can not send packet %s of bundle %s, the peer knows the bundle in a different version!".formatted(
+                                intercepted.getClass().getName(), bundle
+                        ));
+                }
+
+                byte[] frame = environment.getPacketEncoder().encode(intercepted, networker).getSource();
+                PacketCapture capture = environment.getPacketCapture();
+                if (capture != null) capture.capture(networker, PacketDirection.OUTBOUND, frame);
+
+                writer.write(frame);
+                size = frame.length;
+            }
+        } finally {
+            connections.sendCompleted();
+        }
+
+        if (record) metrics.recordSend(networker, intercepted, System.nanoTime() - start);
+        event.commit(networker, intercepted, size);
+    }
+
+    /**
+     * Sends an already encoded frame through a networker as is.
+     * <p>
+     * Used for frames which are forwarded without being decoded and encoded again,
+     * like relayed frames and the shared frames of forwarded events. The frame
+     * skips the interceptors and the encoder, but is counted by the {@link ConnectionMetrics}
+     * and passed to the {@link PacketCapture} like any other outbound frame once
+     * the writer accepted it. Writing and capturing happen while holding the lock
+     * of the networker, so that the frame keeps its order relative to sent packets.
+     *
+     * @param networker The networker sending the frame.
+     * @param frame     The encoded frame, which must not be modified afterward.
+     * @param writer    The writer transmitting the frame.
+     */
+    public static void sendRaw(@NotNull Networker networker, byte @NotNull [] frame, @NotNull FrameWriter writer) {
+        Environment environment = networker.getEnvironment();
+        ConnectionMetrics connections = environment.getPacketMetrics().getConnections();
+        connections.sendStarted();
+
+        try {
+            synchronized (networker) {
+                writer.write(frame);
+
+                PacketCapture capture = environment.getPacketCapture();
+                if (capture != null) capture.capture(networker, PacketDirection.OUTBOUND, frame);
+            }
+        } finally {
+            connections.sendCompleted();
+        }
+    }
+
+    /**
+     * Handles a complete frame received by a networker.
+     * <p>
+     * Frames exceeding the negotiated max frame size disconnect the networker with
+     * {@link #MESSAGE_TOO_BIG}. All other frames are passed to the {@link PacketCapture}
+     * if enabled, frames of foreign bundles are relayed through {@link PacketRelay}
+     * and all others are decoded into packets, passed through the inbound chain of the
+     * {@link PacketInterceptorPipeline} and dispatched through the {@link PacketDispatcher}.
+     * Packets are only decoded lazily if inbound interceptors are registered.
+     * <p>
+     * Frames of bundles which the handshake found in different versions on both
+     * peers are never decoded, they are passed on as {@link WrappedPacket wrapped packets}
+     * like the frames of unknown bundles. As a peer does not send such packets
+     * after completing the handshake, receiving one while the inbound string table
+     * is enabled closes the connection with {@link Handshake#PROTOCOL_ERROR}.
+     *
+     * @param networker The networker which received the frame.
+     * @param frame     The complete frame, which must not be modified afterward.
+     */
+    public static void receive(@NotNull Networker networker, byte @NotNull [] frame) {
+        NegotiatedSettings negotiated = networker.getConnectionState().getNegotiatedSettings();
+        if (negotiated != null && frame.length > negotiated.maxFrameSize()) {
+            networker.disconnect(MESSAGE_TOO_BIG, "Frame exceeded the negotiated max size of %s bytes!".formatted(
+                    negotiated.maxFrameSize()
+            ));
+            return;
+        }
+
+        Environment environment = networker.getEnvironment();
+        PacketCapture capture = environment.getPacketCapture();
+        if (capture != null) capture.capture(networker, PacketDirection.INBOUND, frame);
+
+        if (PacketRelay.tryRelay(networker, frame)) return;
+
+        PacketDecoder decoder = environment.getPacketDecoder();
+        PacketInterceptorPipeline pipeline = environment.getPacketInterceptorPipeline();
+        ByteBuffer buffer = new ByteBuffer(frame);
+        boolean intercepted = pipeline.hasInterceptors(PacketDirection.INBOUND);
+
+        Packet packet;
+        if (negotiated != null && isMismatched(negotiated, frame)) {
+            if (networker.getConnectionState().getInboundStringTable() != null) {
+                networker.disconnect(Handshake.PROTOCOL_ERROR, "Received a packet of a bundle with a different version!");
+                return;
+            }
+
+            packet = new WrappedPacket(buffer);
+            if (intercepted) packet = pipeline.inbound(networker, packet);
+        } else if (intercepted) {
+            packet = decoder.decodeLazy(buffer, networker);
+            if (packet != null) packet = pipeline.inbound(networker, packet);
+        } else packet = decoder.decode(buffer, networker);
+
+        if (packet != null) PacketDispatcher.dispatch(networker, packet);
+    }
+
+    /**
+     * Checks whether a frame belongs to a bundle known to both peers in different versions.
+     *
+     * @param negotiated The negotiated settings of the connection.
+     * @param frame      The received frame.
+     * @return {@code true} if the versions of the bundle differ, {@code false} otherwise.
+     */
+    private static boolean isMismatched(NegotiatedSettings negotiated, byte[] frame) {
+        if (negotiated.mismatchedBundles().isEmpty()) return false;
+
+        PacketHeader header = PacketHeader.peek(frame);
+        return header != null && negotiated.isMismatched(header.bundle());
+    }
+
+    /**
+     * Resolves the identifier of the bundle a packet is sent as.
+     *
+     * @param networker The networker sending the packet.
+     * @param packet    The packet.
+     * @return The identifier of the bundle, or {@code null} if the packet belongs to no bundle.
+     */
+    private static @Nullable String bundleOf(Networker networker, Packet packet) {
+        if (packet instanceof WrappedPacket wrapped) return wrapped.bundle();
+        if (packet instanceof LazyPacket lazy) return lazy.bundle().identifier();
+
+        PacketBundleSnapshot snapshot = networker.getConnectionState().getPinnedSnapshot();
+        if (snapshot == null) snapshot = networker.getEnvironment().getPacketBundleRegistry().getSnapshot();
+
+        FrozenPacketBundle bundle = snapshot.getBundle(packet.getClass());
+        return bundle != null ? bundle.identifier() : null;
+    }
+
+    /**
+     * Transmits an encoded frame over the transport of a networker.
+     */
+    @FunctionalInterface
+    public interface FrameWriter {
+
+        /**
+         * Writes a complete frame.
+         *
+         * @param frame The encoded frame, which must not be modified afterward.
+         */
+        void write(byte @NotNull [] frame);
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package de.craftsblock.cnet.modules.packets.common.packet.bits;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Static helpers shared by {@link BitWriter} and {@link BitReader}.
+ * <p>
+ * Contains the zig-zag transformation used for signed variable length
+ * numbers, the calculation of the bit width required for a fixed amount
+ * of values and a per class cache for enum constants, so that packed
+ * enums do not clone the constant array on every read.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BitWriter
+ * @see BitReader
+ * @since 1.2.0
+ */
+public final class BitPacking {
+
+    private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Object[] computeValue(@NotNull Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            if (constants == null)
+                throw new IllegalArgumentException("%s is not an enum!".formatted(type.getName()));
+
+            return constants;
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BitPacking() {
+    }
+
+    /**
+     * Maps a signed long to an unsigned long, so that numbers with a small
+     * absolute value result in a small encoded value.
+     *
+     * @param value The signed value.
+     * @return The zig-zag encoded value.
+     */
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverts {@link #zigZagEncode(long)}.
+     *
+     * @param value The zig-zag encoded value.
+     * @return The signed value.
+     */
+    public static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Calculates the number of bits needed to store the values {@code 0} up to
+     * {@code count - 1}.
+     *
+     * @param count The amount of distinct values.
+     * @return The required bit width, at least {@code 1}.
+     */
+    public static @Range(from = 1, to = 32) int bitsFor(@Range(from = 1, to = Integer.MAX_VALUE) int count) {
+        if (count < 1)
+            throw new IllegalArgumentException("The count must be positive! (Got: %s)".formatted(count));
+
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+    }
+
+    /**
+     * Returns the cached enum constants of the given enum type.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param type The enum type.
+     * @param <E>  The enum type.
+     * @return The shared array of enum constants.
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E>> E[] constants(@NotNull Class<E> type) {
+        return (E[]) ENUM_CONSTANTS.get(type);
+    }
+
+    /**
+     * Validates that a bit width is inside the range {@code 1..64}.
+     *
+     * @param bits The bit width to validate.
+     * @throws IllegalArgumentException If the bit width is out of range.
+     */
+    static void checkBits(int bits) {
+        if (bits < 1 || bits > 64)
+            throw new IllegalArgumentException("The amount of bits must be between 1 and 64! (Got: %s)".formatted(bits));
+    }
+
+    /**
+     * Creates a mask with the lowest {@code bits} set.
+     *
+     * @param bits The amount of bits, between {@code 1} and {@code 64}.
+     * @return The mask.
+     */
+    static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+}
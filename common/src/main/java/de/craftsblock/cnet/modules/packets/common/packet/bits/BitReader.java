@@ -0,0 +1,231 @@
+package de.craftsblock.cnet.modules.packets.common.packet.bits;
+
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Reads values with bit granularity from a {@link ByteBuffer}.
+ * <p>
+ * This is the counterpart of {@link BitWriter}. Values have to be read in
+ * the exact order and with the exact parameters they were written with.
+ * Bytes are only taken from the underlying buffer once they are needed, so
+ * after calling {@link #align()} the buffer can be used for byte level reads
+ * again.
+ * <pre>{@code
+ * public static MovePacket read(ByteBuffer buffer) {
+ *     BitReader reader = new BitReader(buffer);
+ *     MovePacket packet = new MovePacket(
+ *             reader.readQuantized(POSITION),
+ *             reader.readQuantized(POSITION),
+ *             reader.readQuantized(POSITION),
+ *             reader.readBoolean(),
+ *             reader.readEnum(State.class)
+ *     );
+ *     reader.align();
+ *     return packet;
+ * }
+ * }</pre>
+ * Instances are not thread safe.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BitWriter
+ * @see QuantizedRange
+ * @since 1.2.0
+ */
+public final class BitReader {
+
+    private final @NotNull ByteBuffer buffer;
+
+    private long scratch;
+    private int scratchBits;
+
+    /**
+     * Constructs a new {@link BitReader} reading from the given buffer.
+     *
+     * @param buffer The buffer to read the packed bytes from.
+     */
+    public BitReader(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads {@code bits} bits as an unsigned value.
+     *
+     * @param bits The amount of bits to read, between {@code 1} and {@code 64}.
+     * @return The read value.
+     * @throws IllegalArgumentException If the amount of bits is out of range.
+     */
+    public long readBits(@Range(from = 1, to = 64) int bits) {
+        BitPacking.checkBits(bits);
+
+        if (bits > 32) {
+            long low = this.readBits0(32);
+            return low | (this.readBits0(bits - 32) << 32);
+        }
+
+        return this.readBits0(bits);
+    }
+
+    /**
+     * Loads bytes into the scratch register until enough bits are present
+     * and takes the requested bits from it.
+     *
+     * @param bits The amount of bits to read, at most {@code 32}.
+     * @return The read value.
+     */
+    private long readBits0(int bits) {
+        while (scratchBits < bits) {
+            scratch |= (buffer.readByte() & 0xFFL) << scratchBits;
+            scratchBits += 8;
+        }
+
+        long value = scratch & BitPacking.mask(bits);
+        scratch >>>= bits;
+        scratchBits -= bits;
+        return value;
+    }
+
+    /**
+     * Reads a boolean stored as a single bit.
+     *
+     * @return The read boolean.
+     */
+    public boolean readBoolean() {
+        return this.readBits0(1) != 0;
+    }
+
+    /**
+     * Reads an enum constant written by {@link BitWriter#writeEnum(Enum)}.
+     *
+     * @param type The enum type.
+     * @param <E>  The enum type.
+     * @return The read enum constant.
+     * @throws IllegalStateException If the read ordinal is not part of the enum.
+     */
+    public <E extends Enum<E>> E readEnum(@NotNull Class<E> type) {
+        E[] constants = BitPacking.constants(type);
+        int ordinal = (int) this.readBits0(BitPacking.bitsFor(constants.length));
+
+        if (ordinal >= constants.length)
+            throw new IllegalStateException("Read invalid ordinal %s for enum %s!".formatted(ordinal, type.getName()));
+
+        return constants[ordinal];
+    }
+
+    /**
+     * Reads an unsigned number written by {@link BitWriter#writeUnsignedVarLong(long)}.
+     *
+     * @return The read value.
+     * @throws IllegalStateException If the number is longer than 10 groups.
+     */
+    public long readUnsignedVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            long group = this.readBits0(8);
+            value |= (group & 0x7F) << shift;
+
+            if ((group & 0x80) == 0)
+                return value;
+        }
+
+        throw new IllegalStateException("Variable length number is too long!");
+    }
+
+    /**
+     * Reads a zig-zag encoded number written by {@link BitWriter#writeVarLong(long)}.
+     *
+     * @return The read value.
+     */
+    public long readVarLong() {
+        return BitPacking.zigZagDecode(this.readUnsignedVarLong());
+    }
+
+    /**
+     * Reads a zig-zag encoded number written by {@link BitWriter#writeVarInt(int)}.
+     *
+     * @return The read value.
+     */
+    public int readVarInt() {
+        return (int) this.readVarLong();
+    }
+
+    /**
+     * Reads a float written with its full 32 bit precision.
+     *
+     * @return The read float.
+     */
+    public float readFloat() {
+        return Float.intBitsToFloat((int) this.readBits0(32));
+    }
+
+    /**
+     * Reads a double written with its full 64 bit precision.
+     *
+     * @return The read double.
+     */
+    public double readDouble() {
+        return Double.longBitsToDouble(this.readBits(64));
+    }
+
+    /**
+     * Reads a fixed-point number written with the given range.
+     *
+     * @param range The range describing the encoding.
+     * @return The reconstructed value.
+     */
+    public double readQuantized(@NotNull QuantizedRange range) {
+        return range.dequantize(this.readBits(range.bits()));
+    }
+
+    /**
+     * Reads a rotation quaternion written by
+     * {@link BitWriter#writeQuaternion(double, double, double, double, int)}.
+     *
+     * @param bitsPerComponent The amount of bits used for each of the three transmitted components.
+     * @return The read, normalized quaternion.
+     */
+    public Quaternion readQuaternion(@Range(from = 2, to = 20) int bitsPerComponent) {
+        BitWriter.checkQuaternionBits(bitsPerComponent);
+
+        int largest = (int) this.readBits0(2);
+        double a = this.readQuaternionComponent(bitsPerComponent);
+        double b = this.readQuaternionComponent(bitsPerComponent);
+        double c = this.readQuaternionComponent(bitsPerComponent);
+        double d = Math.sqrt(Math.max(0, 1 - a * a - b * b - c * c));
+
+        return switch (largest) {
+            case 0 -> new Quaternion(d, a, b, c);
+            case 1 -> new Quaternion(a, d, b, c);
+            case 2 -> new Quaternion(a, b, d, c);
+            default -> new Quaternion(a, b, c, d);
+        };
+    }
+
+    /**
+     * Reads and dequantizes one of the three smallest quaternion components.
+     *
+     * @param bits The amount of bits used.
+     * @return The component.
+     */
+    private double readQuaternionComponent(int bits) {
+        long steps = (1L << bits) - 1;
+        double normalized = (double) this.readBits0(bits) / steps;
+        return normalized * 2 * BitWriter.QUATERNION_COMPONENT_RANGE - BitWriter.QUATERNION_COMPONENT_RANGE;
+    }
+
+    /**
+     * Discards the padding bits of the current partial byte, so that the
+     * next read starts at a byte boundary.
+     *
+     * @return This reader for method chaining.
+     */
+    public BitReader align() {
+        scratch = 0;
+        scratchBits = 0;
+        return this;
+    }
+
+}
@@ -0,0 +1,313 @@
+package de.craftsblock.cnet.modules.packets.common.packet.bits;
+
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Writes values with bit granularity into a {@link ByteBuffer}.
+ * <p>
+ * Bits are packed least significant bit first and only complete bytes are
+ * written to the underlying buffer. The last partial byte is written by
+ * {@link #flush()} (or {@link #close()}), which pads it with zero bits. A
+ * {@link BitReader} reading the same sequence of values has to call
+ * {@link BitReader#align()} at the same position to skip this padding.
+ * <p>
+ * Besides raw bit fields the writer offers packed booleans and enums,
+ * zig-zag encoded variable length numbers, fixed-point quantized floating
+ * point values and "smallest three" compressed rotation quaternions.
+ * <pre>{@code
+ * @Override
+ * public void write(@NotNull ByteBuffer buffer) {
+ *     try (BitWriter writer = new BitWriter(buffer)) {
+ *         writer.writeQuantized(x, POSITION)
+ *                 .writeQuantized(y, POSITION)
+ *                 .writeQuantized(z, POSITION)
+ *                 .writeBoolean(onGround)
+ *                 .writeEnum(state);
+ *     }
+ * }
+ * }</pre>
+ * Instances are not thread safe and are meant to be used for a single
+ * {@link de.craftsblock.cnet.modules.packets.common.packet.BufferWritable#write(ByteBuffer) write} call.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BitReader
+ * @see QuantizedRange
+ * @since 1.2.0
+ */
+public final class BitWriter implements AutoCloseable {
+
+    /**
+     * The largest absolute value of the three smallest components of a normalized quaternion.
+     */
+    static final double QUATERNION_COMPONENT_RANGE = 1 / Math.sqrt(2);
+
+    private final @NotNull ByteBuffer buffer;
+
+    private long scratch;
+    private int scratchBits;
+
+    /**
+     * Constructs a new {@link BitWriter} writing into the given buffer.
+     *
+     * @param buffer The buffer to write the packed bytes into.
+     */
+    public BitWriter(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Writes the lowest {@code bits} bits of the given value.
+     *
+     * @param value The value to write.
+     * @param bits  The amount of bits to write, between {@code 1} and {@code 64}.
+     * @return This writer for method chaining.
+     * @throws IllegalArgumentException If the amount of bits is out of range.
+     */
+    public BitWriter writeBits(long value, @Range(from = 1, to = 64) int bits) {
+        BitPacking.checkBits(bits);
+
+        if (bits > 32) {
+            this.writeBits0(value, 32);
+            this.writeBits0(value >>> 32, bits - 32);
+            return this;
+        }
+
+        this.writeBits0(value, bits);
+        return this;
+    }
+
+    /**
+     * Appends the bits to the scratch register and drains all complete bytes.
+     *
+     * @param value The value to write.
+     * @param bits  The amount of bits to write, at most {@code 32}.
+     */
+    private void writeBits0(long value, int bits) {
+        scratch |= (value & BitPacking.mask(bits)) << scratchBits;
+        scratchBits += bits;
+
+        while (scratchBits >= 8) {
+            buffer.writeByte((byte) scratch);
+            scratch >>>= 8;
+            scratchBits -= 8;
+        }
+    }
+
+    /**
+     * Writes a boolean as a single bit.
+     *
+     * @param value The boolean to write.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeBoolean(boolean value) {
+        this.writeBits0(value ? 1 : 0, 1);
+        return this;
+    }
+
+    /**
+     * Writes an enum constant using the least amount of bits required to
+     * represent all constants of its type.
+     *
+     * @param value The enum constant to write.
+     * @param <E>   The enum type.
+     * @return This writer for method chaining.
+     */
+    public <E extends Enum<E>> BitWriter writeEnum(@NotNull E value) {
+        int count = BitPacking.constants(value.getDeclaringClass()).length;
+        this.writeBits0(value.ordinal(), BitPacking.bitsFor(count));
+        return this;
+    }
+
+    /**
+     * Writes an unsigned number in 7 bit groups, each followed by a continuation bit.
+     *
+     * @param value The value to write, interpreted as unsigned.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeUnsignedVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            this.writeBits0((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+
+        this.writeBits0(value, 8);
+        return this;
+    }
+
+    /**
+     * Writes a signed number as a zig-zag encoded variable length number,
+     * so that small negative values stay small on the wire.
+     *
+     * @param value The value to write.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeVarLong(long value) {
+        return this.writeUnsignedVarLong(BitPacking.zigZagEncode(value));
+    }
+
+    /**
+     * Writes a signed int as a zig-zag encoded variable length number.
+     *
+     * @param value The value to write.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeVarInt(int value) {
+        return this.writeVarLong(value);
+    }
+
+    /**
+     * Writes a float with its full 32 bit precision.
+     *
+     * @param value The float to write.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeFloat(float value) {
+        this.writeBits0(Float.floatToRawIntBits(value), 32);
+        return this;
+    }
+
+    /**
+     * Writes a double with its full 64 bit precision.
+     *
+     * @param value The double to write.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeDouble(double value) {
+        return this.writeBits(Double.doubleToRawLongBits(value), 64);
+    }
+
+    /**
+     * Writes a value as fixed-point number inside the given range.
+     *
+     * @param value The value to write, clamped to the range.
+     * @param range The range describing the encoding.
+     * @return This writer for method chaining.
+     */
+    public BitWriter writeQuantized(double value, @NotNull QuantizedRange range) {
+        return this.writeBits(range.quantize(value), range.bits());
+    }
+
+    /**
+     * Writes a rotation quaternion using the "smallest three" compression.
+     * <p>
+     * The quaternion is normalized, the index of its largest component is
+     * written with 2 bits and the remaining three components are quantized
+     * with {@code bitsPerComponent} bits each. As {@code q} and {@code -q}
+     * describe the same rotation, the sign of the largest component is not
+     * transmitted. With 9 bits per component a rotation fits into 29 bits
+     * instead of 256 bits for four doubles.
+     *
+     * @param x                The x component.
+     * @param y                The y component.
+     * @param z                The z component.
+     * @param w                The w component.
+     * @param bitsPerComponent The amount of bits used for each of the three transmitted components.
+     * @return This writer for method chaining.
+     * @throws IllegalArgumentException If the amount of bits is not between {@code 2} and {@code 20}.
+     */
+    public BitWriter writeQuaternion(double x, double y, double z, double w,
+                                     @Range(from = 2, to = 20) int bitsPerComponent) {
+        checkQuaternionBits(bitsPerComponent);
+
+        double length = Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length == 0 || Double.isNaN(length)) {
+            x = y = z = 0;
+            w = length = 1;
+        }
+
+        double ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z), aw = Math.abs(w);
+        int largest = 0;
+        double largestValue = ax;
+        if (ay > largestValue) {
+            largest = 1;
+            largestValue = ay;
+        }
+        if (az > largestValue) {
+            largest = 2;
+            largestValue = az;
+        }
+        if (aw > largestValue) largest = 3;
+
+        double largestSigned = switch (largest) {
+            case 0 -> x;
+            case 1 -> y;
+            case 2 -> z;
+            default -> w;
+        };
+
+        double scale = (largestSigned < 0 ? -1 : 1) / length;
+        this.writeBits0(largest, 2);
+        if (largest != 0) this.writeQuaternionComponent(x * scale, bitsPerComponent);
+        if (largest != 1) this.writeQuaternionComponent(y * scale, bitsPerComponent);
+        if (largest != 2) this.writeQuaternionComponent(z * scale, bitsPerComponent);
+        if (largest != 3) this.writeQuaternionComponent(w * scale, bitsPerComponent);
+        return this;
+    }
+
+    /**
+     * Writes a rotation quaternion using the "smallest three" compression.
+     *
+     * @param quaternion       The quaternion to write.
+     * @param bitsPerComponent The amount of bits used for each of the three transmitted components.
+     * @return This writer for method chaining.
+     * @see #writeQuaternion(double, double, double, double, int)
+     */
+    public BitWriter writeQuaternion(@NotNull Quaternion quaternion, @Range(from = 2, to = 20) int bitsPerComponent) {
+        return this.writeQuaternion(quaternion.x(), quaternion.y(), quaternion.z(), quaternion.w(), bitsPerComponent);
+    }
+
+    /**
+     * Quantizes and writes one of the three smallest quaternion components.
+     *
+     * @param value The normalized component.
+     * @param bits  The amount of bits to use.
+     */
+    private void writeQuaternionComponent(double value, int bits) {
+        long steps = (1L << bits) - 1;
+        double normalized = (value + QUATERNION_COMPONENT_RANGE) / (2 * QUATERNION_COMPONENT_RANGE);
+        long quantized = Math.round(Math.min(1, Math.max(0, normalized)) * steps);
+        this.writeBits0(quantized, bits);
+    }
+
+    /**
+     * Writes the pending partial byte, padded with zero bits, into the buffer.
+     * <p>
+     * Calling this method while no bits are pending has no effect.
+     *
+     * @return This writer for method chaining.
+     */
+    public BitWriter flush() {
+        if (scratchBits > 0) buffer.writeByte((byte) scratch);
+
+        scratch = 0;
+        scratchBits = 0;
+        return this;
+    }
+
+    /**
+     * Flushes the pending partial byte.
+     *
+     * @see #flush()
+     */
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    /**
+     * Validates the amount of bits used per quaternion component.
+     *
+     * @param bitsPerComponent The amount of bits to validate.
+     */
+    static void checkQuaternionBits(int bitsPerComponent) {
+        if (bitsPerComponent < 2 || bitsPerComponent > 20)
+            throw new IllegalArgumentException("The bits per quaternion component must be between 2 and 20! (Got: %s)".formatted(
+                    bitsPerComponent
+            ));
+    }
+
+}
@@ -0,0 +1,134 @@
+package de.craftsblock.cnet.modules.packets.common.packet.bits;
+
+import org.jetbrains.annotations.Range;
+
+/**
+ * Describes a fixed-point encoding of a floating point value inside a closed range.
+ * <p>
+ * Values are clamped to {@code [min, max]} and mapped onto an unsigned integer
+ * with a resolution of at least {@code precision}. The resulting bit width is
+ * derived once on construction and can be inspected through {@link #bits()}.
+ * For example a world coordinate in {@code [-30000, 30000]} with a precision of
+ * {@code 1/64} fits into 22 bits instead of the 64 bits of a double.
+ * <p>
+ * Instances are immutable and should be kept in constants, as both sides of a
+ * connection have to use the exact same range to read the written values.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BitWriter#writeQuantized(double, QuantizedRange)
+ * @see BitReader#readQuantized(QuantizedRange)
+ * @since 1.2.0
+ */
+public final class QuantizedRange {
+
+    private final double min;
+    private final double max;
+    private final double precision;
+    private final long steps;
+    private final int bits;
+
+    /**
+     * Constructs a new {@link QuantizedRange} and derives the amount of steps
+     * and bits from the given bounds and precision.
+     *
+     * @param min       The lower bound of the range.
+     * @param max       The upper bound of the range.
+     * @param precision The maximum distance between two encodable values.
+     * @throws IllegalArgumentException If the range is empty, the precision is not positive
+     *                                  or more than 62 bits would be required.
+     */
+    public QuantizedRange(double min, double max, double precision) {
+        if (!(max > min) || !Double.isFinite(min) || !Double.isFinite(max))
+            throw new IllegalArgumentException("Invalid range [%s, %s]!".formatted(min, max));
+
+        if (!(precision > 0))
+            throw new IllegalArgumentException("The precision must be positive! (Got: %s)".formatted(precision));
+
+        double steps = Math.ceil((max - min) / precision);
+        if (steps >= 0x1p62)
+            throw new IllegalArgumentException("The range [%s, %s] with precision %s requires more than 62 bits!".formatted(
+                    min, max, precision
+            ));
+
+        this.min = min;
+        this.max = max;
+        this.precision = precision;
+        this.steps = Math.max(1, (long) steps);
+        this.bits = Math.max(1, 64 - Long.numberOfLeadingZeros(this.steps));
+    }
+
+    /**
+     * Maps a value onto its quantized representation. Values outside of the
+     * range are clamped, {@code NaN} is mapped to {@link #min()}.
+     *
+     * @param value The value to quantize.
+     * @return The quantized value in {@code [0, steps]}.
+     */
+    public long quantize(double value) {
+        if (!(value > min)) return 0;
+        if (value >= max) return steps;
+
+        return Math.round((value - min) / (max - min) * steps);
+    }
+
+    /**
+     * Maps a quantized value back into the range.
+     *
+     * @param quantized The quantized value.
+     * @return The reconstructed value.
+     */
+    public double dequantize(long quantized) {
+        if (quantized <= 0) return min;
+        if (quantized >= steps) return max;
+
+        return min + (max - min) * ((double) quantized / steps);
+    }
+
+    /**
+     * Returns the lower bound of the range.
+     *
+     * @return The lower bound.
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the upper bound of the range.
+     *
+     * @return The upper bound.
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Returns the requested precision of the range.
+     *
+     * @return The precision.
+     */
+    public double precision() {
+        return precision;
+    }
+
+    /**
+     * Returns the amount of steps between {@link #min()} and {@link #max()}.
+     *
+     * @return The amount of steps.
+     */
+    public long steps() {
+        return steps;
+    }
+
+    /**
+     * Returns the amount of bits needed to store one quantized value.
+     *
+     * @return The bit width.
+     */
+    public @Range(from = 1, to = 62) int bits() {
+        return bits;
+    }
+
+}
@@ -0,0 +1,30 @@
+package de.craftsblock.cnet.modules.packets.common.packet.bits;
+
+/**
+ * A simple immutable rotation quaternion as read by {@link BitReader#readQuaternion(int)}.
+ *
+ * @param x The x component.
+ * @param y The y component.
+ * @param z The z component.
+ * @param w The w component.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BitWriter#writeQuaternion(double, double, double, double, int)
+ * @since 1.2.0
+ */
+public record Quaternion(double x, double y, double z, double w) {
+
+    /**
+     * Returns a normalized copy of this quaternion. A zero quaternion is
+     * mapped to the identity rotation.
+     *
+     * @return The normalized quaternion.
+     */
+    public Quaternion normalize() {
+        double length = Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length == 0 || Double.isNaN(length)) return new Quaternion(0, 0, 0, 1);
+        return new Quaternion(x / length, y / length, z / length, w / length);
+    }
+
+}
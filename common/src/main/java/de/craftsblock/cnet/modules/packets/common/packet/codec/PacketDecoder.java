@@ -1,10 +1,20 @@
 package de.craftsblock.cnet.modules.packets.common.packet.codec;
 
 import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.metrics.jfr.PacketDecodedEvent;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
+import de.craftsblock.cnet.modules.packets.common.packet.LazyPacket;
 import de.craftsblock.cnet.modules.packets.common.packet.Packet;
 import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
 import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
 import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Decodes incoming packet data from a {@link ByteBuffer} into {@link Packet} instances.
@@ -18,6 +28,10 @@ import de.craftsblock.craftsnet.utils.ByteBuffer;
  * Packet size validation is performed against {@link PacketEncoder#MAX_PACKET_SIZE}
  * to prevent processing of oversized packets.
  * </p>
+ * <p>
+ * A decoder is bound to the {@link WebSocketPackets} instance whose bundles it
+ * resolves, decoders created without an instance use the default instance.
+ * </p>
  *
  * @author Philipp Maywald
  * @author CraftsBlock
@@ -26,6 +40,26 @@ import de.craftsblock.craftsnet.utils.ByteBuffer;
  */
 public final class PacketDecoder {
 
+    private final @Nullable WebSocketPackets webSocketPackets;
+
+    /**
+     * Constructs a new {@link PacketDecoder} resolving bundles through the
+     * default {@link WebSocketPackets} instance.
+     */
+    public PacketDecoder() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new {@link PacketDecoder} bound to a {@link WebSocketPackets} instance.
+     *
+     * @param webSocketPackets The instance to resolve bundles through, or {@code null} to use
+     *                         the default instance.
+     */
+    public PacketDecoder(@Nullable WebSocketPackets webSocketPackets) {
+        this.webSocketPackets = webSocketPackets;
+    }
+
     /**
      * Decodes a {@link Packet} from a {@link ByteBuffer}.
      * <p>
@@ -35,26 +69,171 @@ public final class PacketDecoder {
      * is created.
      *
      * @param buffer The buffer containing the packet data.
-     * @return The decoded {@link Packet}.
+     * @return The decoded {@link Packet}, or {@code null} if the packet ID is unknown to its bundle.
      * @throws IllegalStateException If the packet exceeds {@link PacketEncoder#MAX_PACKET_SIZE}.
      */
-    public Packet decode(ByteBuffer buffer) {
-        WebSocketPackets webSocketPackets = WebSocketPackets.getInstanceSafely();
+    public @Nullable Packet decode(ByteBuffer buffer) {
+        return this.decode(buffer, this.getSnapshot());
+    }
 
+    /**
+     * Decodes a {@link Packet} from a {@link ByteBuffer} against a specific {@link PacketBundleSnapshot}.
+     * <p>
+     * The snapshot is used for the whole decode, bundles replaced in the
+     * meantime do not affect the packet.
+     *
+     * @param buffer   The buffer containing the packet data.
+     * @param snapshot The snapshot to resolve the bundle from.
+     * @return The decoded {@link Packet}, or {@code null} if the packet ID is unknown to its bundle.
+     * @throws IllegalStateException If the packet exceeds {@link PacketEncoder#MAX_PACKET_SIZE}.
+     */
+    public @Nullable Packet decode(ByteBuffer buffer, @NotNull PacketBundleSnapshot snapshot) {
         String identifier = buffer.readUTF();
-        PacketBundle packetBundle = webSocketPackets.getPacketBundleRegistry().getBundle(identifier);
+        FrozenPacketBundle packetBundle = snapshot.getBundle(identifier);
         if (packetBundle == null)
-            return new WrappedPacket(buffer);
+            return new WrappedPacket(identifier, buffer.readVarInt(), buffer.readRemaining());
 
         int id = buffer.readVarInt();
+        this.checkSize(buffer, identifier, id);
+        if (!packetBundle.isAssigned(id)) return null;
+
+        PacketMetrics metrics = this.getMetrics();
+        boolean record = metrics != null && metrics.isEnabled();
+        long start = record ? System.nanoTime() : 0;
+
+        PacketDecodedEvent event = new PacketDecodedEvent();
+        event.begin();
+
+        byte[] payload = buffer.readRemaining();
+        Packet packet;
+        try {
+            packet = packetBundle.createPacket(id, new ByteBuffer(payload, true));
+        } catch (RuntimeException e) {
+            if (record) metrics.recordError(identifier, id, PacketDirection.INBOUND);
+            throw e;
+        }
+
+        if (record) metrics.recordDecode(identifier, id, payload.length, buffer.size(), System.nanoTime() - start);
+        event.commit(identifier, id, buffer.size(), null);
+        return packet;
+    }
+
+    /**
+     * Decodes a {@link Packet} received through a specific {@link Networker}.
+     * <p>
+     * The networker is bound to the {@link NetworkerContext} while the packet is
+     * read, which allows the deserializer to make use of per connection state
+     * like the inbound string table. If the connection is pinned to a
+     * {@link PacketBundleSnapshot}, the packet is decoded against that snapshot.
+     *
+     * @param buffer    The buffer containing the packet data.
+     * @param networker The networker the packet was received from, may be {@code null}.
+     * @return The decoded {@link Packet}, or {@code null} if the packet ID is unknown to its bundle.
+     * @throws IllegalStateException If the packet exceeds {@link PacketEncoder#MAX_PACKET_SIZE}.
+     * @see #decode(ByteBuffer)
+     */
+    public @Nullable Packet decode(ByteBuffer buffer, @Nullable Networker networker) {
+        PacketBundleSnapshot snapshot = networker != null ? networker.getConnectionState().getPinnedSnapshot() : null;
+        Networker previous = NetworkerContext.bind(networker);
+
+        try {
+            return this.decode(buffer, snapshot != null ? snapshot : this.getSnapshot());
+        } finally {
+            NetworkerContext.restore(previous);
+        }
+    }
 
+    /**
+     * Decodes only the header of a packet received through a specific {@link Networker}.
+     * <p>
+     * The returned {@link LazyPacket} exposes the bundle and ID of the packet,
+     * its body is deserialized on first access. Unknown bundles result in a
+     * {@link WrappedPacket} just like with {@link #decode(ByteBuffer, Networker)}.
+     * <p>
+     * If the connection uses an inbound string table, the body is deserialized
+     * right away, as the table has to see the packets in the order they were received.
+     * The recorded decode time and the {@link PacketDecodedEvent} of lazy packets
+     * therefore usually only cover the header.
+     *
+     * @param buffer    The buffer containing the packet data.
+     * @param networker The networker the packet was received from, may be {@code null}.
+     * @return The lazily decoded {@link Packet}, or {@code null} if the packet ID is unknown to its bundle.
+     * @throws IllegalStateException If the packet exceeds {@link PacketEncoder#MAX_PACKET_SIZE}.
+     */
+    public @Nullable Packet decodeLazy(ByteBuffer buffer, @Nullable Networker networker) {
+        PacketBundleSnapshot snapshot = networker != null ? networker.getConnectionState().getPinnedSnapshot() : null;
+        if (snapshot == null) snapshot = this.getSnapshot();
+
+        String identifier = buffer.readUTF();
+        FrozenPacketBundle packetBundle = snapshot.getBundle(identifier);
+        if (packetBundle == null)
+            return new WrappedPacket(identifier, buffer.readVarInt(), buffer.readRemaining());
+
+        int id = buffer.readVarInt();
+        this.checkSize(buffer, identifier, id);
+        if (!packetBundle.isAssigned(id)) return null;
+
+        PacketMetrics metrics = this.getMetrics();
+        boolean record = metrics != null && metrics.isEnabled();
+        long start = record ? System.nanoTime() : 0;
+
+        PacketDecodedEvent event = new PacketDecodedEvent();
+        event.begin();
+
+        byte[] payload = buffer.readRemaining();
+        LazyPacket packet = new LazyPacket(packetBundle, id, payload, networker);
+        if (networker != null && networker.getConnectionState().getInboundStringTable() != null)
+            try {
+                packet.get();
+            } catch (RuntimeException e) {
+                if (record) metrics.recordError(identifier, id, PacketDirection.INBOUND);
+                throw e;
+            }
+
+        if (record) metrics.recordDecode(identifier, id, payload.length, buffer.size(), System.nanoTime() - start);
+        event.commit(identifier, id, buffer.size(), networker);
+        return packet;
+    }
+
+    /**
+     * Ensures that a packet does not exceed {@link PacketEncoder#MAX_PACKET_SIZE}.
+     *
+     * @param buffer     The buffer containing the packet data.
+     * @param identifier The identifier of the bundle of the packet.
+     * @param id         The ID of the packet.
+     * @throws IllegalStateException If the packet exceeds {@link PacketEncoder#MAX_PACKET_SIZE}.
+     */
+    private void checkSize(ByteBuffer buffer, String identifier, int id) {
         if (buffer.size() > PacketEncoder.MAX_PACKET_SIZE)
             throw new IllegalStateException("Packet %s#%s exceeded max size! (Got: %s, Max: %s)".formatted(
                     identifier, id, buffer.size(), PacketEncoder.MAX_PACKET_SIZE
             ));
+    }
+
+    /**
+     * Returns the metrics of the bound or default {@link WebSocketPackets} instance.
+     *
+     * @return The metrics, or {@code null} if no instance is loaded.
+     */
+    private @Nullable PacketMetrics getMetrics() {
+        WebSocketPackets webSocketPackets = this.webSocketPackets != null
+                ? this.webSocketPackets
+                : WebSocketPackets.getInstance();
+
+        return webSocketPackets != null ? webSocketPackets.getPacketMetrics() : null;
+    }
+
+    /**
+     * Returns the current bundle snapshot of the bound or default {@link WebSocketPackets} instance.
+     *
+     * @return The current snapshot.
+     */
+    private @NotNull PacketBundleSnapshot getSnapshot() {
+        WebSocketPackets webSocketPackets = this.webSocketPackets != null
+                ? this.webSocketPackets
+                : WebSocketPackets.getInstanceSafely();
 
-        ByteBuffer packet = new ByteBuffer(buffer.readRemaining(), true);
-        return packetBundle.createPacket(id, packet);
+        return webSocketPackets.getPacketBundleRegistry().getSnapshot();
     }
 
 }
@@ -1,10 +1,21 @@
 package de.craftsblock.cnet.modules.packets.common.packet.codec;
 
 import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.metrics.PacketMetrics;
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
+import de.craftsblock.cnet.modules.packets.common.networker.strings.StringTable;
+import de.craftsblock.cnet.modules.packets.common.packet.LazyPacket;
 import de.craftsblock.cnet.modules.packets.common.packet.Packet;
 import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.interceptor.PacketDirection;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
 import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
 import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Encodes {@link Packet} instances into {@link ByteBuffer byte buffers} for transmission
@@ -39,8 +50,9 @@ public record PacketEncoder(WebSocketPackets webSocketPackets) {
     /**
      * Encodes a {@link Packet} into a {@link ByteBuffer} for WebSocket transmission.
      * <p>
-     * If the packet is a {@link WrappedPacket}, its pre-defined bundle and ID are used.
-     * Otherwise, the packet is matched to its {@link PacketBundle} to determine its ID
+     * If the packet is a {@link WrappedPacket}, its pre-defined bundle and ID are used. A {@link LazyPacket}
+     * keeps its received bundle and ID as long as its raw body is written, see {@link LazyPacket#isRawWritable(Networker)},
+     * otherwise it is deserialized and encoded like any other packet. Otherwise, the packet is matched to its {@link PacketBundle} to determine its ID
      * and bundle identifier. The buffer begins with the bundle name and packet ID,
      * followed by the serialized packet data.
      *
@@ -49,35 +61,122 @@ public record PacketEncoder(WebSocketPackets webSocketPackets) {
      * @throws IllegalStateException If the packet is unknown or exceeds {@link #MAX_PACKET_SIZE}.
      */
     public ByteBuffer encode(Packet packet) {
+        return this.encode(packet, webSocketPackets.getPacketBundleRegistry().getSnapshot());
+    }
+
+    /**
+     * Encodes a {@link Packet} against a specific {@link PacketBundleSnapshot}.
+     *
+     * @param packet   The packet to encode.
+     * @param snapshot The snapshot to resolve the bundle of the packet from.
+     * @return A {@link ByteBuffer} containing the encoded packet data.
+     * @throws IllegalStateException If the packet is unknown or exceeds {@link #MAX_PACKET_SIZE}.
+     * @see #encode(Packet)
+     */
+    public ByteBuffer encode(Packet packet, @NotNull PacketBundleSnapshot snapshot) {
         String bundle;
         int id;
 
         if (packet instanceof WrappedPacket wrapped) {
             bundle = wrapped.bundle();
             id = wrapped.id();
+        } else if (packet instanceof LazyPacket lazy && isRawWritable(lazy, snapshot)) {
+            bundle = lazy.bundle().identifier();
+            id = lazy.id();
         } else {
-            PacketBundle packetBundle = webSocketPackets.getPacketBundleRegistry().getBundle(packet);
-            if (packetBundle == null || !packetBundle.containsPacket(packet))
+            if (packet instanceof LazyPacket lazy) packet = lazy.get();
+
+            FrozenPacketBundle packetBundle = snapshot.getBundle(packet.getClass());
+            id = packetBundle != null ? packetBundle.getId(packet) : -1;
+            if (id < 0)
                 throw new IllegalStateException("Failed to encode a unknown packet %s".formatted(packet.getClass().getName()));
 
             bundle = packetBundle.identifier();
-            id = packetBundle.getId(packet);
         }
 
+        PacketMetrics metrics = webSocketPackets.getPacketMetrics();
+        boolean record = metrics.isEnabled();
+        long start = record ? System.nanoTime() : 0;
+
         ByteBuffer buffer = new ByteBuffer(4, false);
         buffer.writeUTF(bundle);
         buffer.writeVarInt(id);
 
         int metaSize = buffer.writerIndex();
-        packet.write(buffer);
+        try {
+            packet.write(buffer);
+        } catch (RuntimeException e) {
+            if (record) metrics.recordError(bundle, id, PacketDirection.OUTBOUND);
+            throw e;
+        }
 
         int packetSize = buffer.writerIndex() - metaSize;
-        if (packetSize > MAX_PACKET_SIZE)
+        if (packetSize > MAX_PACKET_SIZE) {
+            if (record) metrics.recordError(bundle, id, PacketDirection.OUTBOUND);
             throw new IllegalStateException("Packet %s exceeded max size! (Got: %s, Max: %s)".formatted(
                     packet.getClass().getSimpleName(), packetSize, MAX_PACKET_SIZE
             ));
+        }
 
+        if (record) metrics.recordEncode(bundle, id, packetSize, buffer.writerIndex(), System.nanoTime() - start);
         return buffer;
     }
 
+    /**
+     * Checks whether a {@link LazyPacket} can be encoded with its raw body and
+     * the header it was received with. This requires that the raw body can be
+     * written for the networker bound to the {@link NetworkerContext} and that
+     * the bundle resolves to the same bundle in the target snapshot, as the
+     * packet IDs may differ otherwise.
+     *
+     * @param lazy     The lazy packet.
+     * @param snapshot The snapshot the packet is encoded against.
+     * @return {@code true} if the received header and body can be reused, {@code false} otherwise.
+     */
+    private static boolean isRawWritable(LazyPacket lazy, PacketBundleSnapshot snapshot) {
+        FrozenPacketBundle target = snapshot.getBundle(lazy.bundle().identifier());
+        return target != null && target.bundle() == lazy.bundle().bundle() && lazy.isRawWritable(NetworkerContext.current());
+    }
+
+    /**
+     * Encodes a {@link Packet} for a specific {@link Networker}.
+     * <p>
+     * The networker is bound to the {@link NetworkerContext} while the packet is
+     * written, which allows the packet to make use of per connection state like
+     * the outbound string table. If the connection is pinned to a
+     * {@link PacketBundleSnapshot}, the packet is encoded against that snapshot.
+     * <p>
+     * Strings added to the outbound string table while writing the packet are
+     * only kept if the packet was encoded successfully, as a packet which failed
+     * to encode is never received by the other side.
+     *
+     * @param packet    The packet to encode.
+     * @param networker The networker the packet is encoded for, may be {@code null}.
+     * @return A {@link ByteBuffer} containing the encoded packet data.
+     * @throws IllegalStateException If the packet is unknown or exceeds {@link #MAX_PACKET_SIZE}.
+     * @see #encode(Packet)
+     */
+    public ByteBuffer encode(Packet packet, @Nullable Networker networker) {
+        ConnectionState state = networker != null ? networker.getConnectionState() : null;
+        PacketBundleSnapshot snapshot = state != null ? state.getPinnedSnapshot() : null;
+        StringTable table = state != null ? state.getOutboundStringTable() : null;
+
+        Networker previous = NetworkerContext.bind(networker);
+        int savepoint = table != null ? table.begin() : 0;
+        boolean encoded = false;
+
+        try {
+            ByteBuffer buffer = this.encode(packet, snapshot != null ? snapshot : webSocketPackets.getPacketBundleRegistry().getSnapshot());
+            encoded = true;
+            return buffer;
+        } finally {
+            if (table != null) {
+                if (encoded) table.commit(savepoint);
+                else table.rollback(savepoint);
+            }
+
+            NetworkerContext.restore(previous);
+        }
+    }
+
 }
@@ -0,0 +1,119 @@
+package de.craftsblock.cnet.modules.packets.common.packet.interceptor;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Describes a packet passing through a {@link PacketInterceptorPipeline}.
+ * <p>
+ * A context is created once per intercepted packet and shared by all
+ * interceptors of the chain, which allows interceptors to tag a packet for
+ * the interceptors running after them. Contexts are only created if at least
+ * one interceptor is registered for the direction of the packet.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public final class InterceptionContext {
+
+    private final @NotNull Networker networker;
+    private final @NotNull PacketDirection direction;
+    private final @NotNull String bundle;
+    private final int id;
+
+    private @Nullable Map<String, Object> tags;
+
+    /**
+     * Constructs a new {@link InterceptionContext}.
+     *
+     * @param networker The networker the packet is received from or sent to.
+     * @param direction The direction of the packet.
+     * @param bundle    The identifier of the bundle of the packet.
+     * @param id        The ID of the packet within its bundle.
+     */
+    InterceptionContext(@NotNull Networker networker, @NotNull PacketDirection direction, @NotNull String bundle, int id) {
+        this.networker = networker;
+        this.direction = direction;
+        this.bundle = bundle;
+        this.id = id;
+    }
+
+    /**
+     * Tags the packet with a value, replacing any previous value of the key.
+     *
+     * @param key   The key of the tag.
+     * @param value The value of the tag, or {@code null} to remove the tag.
+     */
+    public void tag(@NotNull String key, @Nullable Object value) {
+        if (value == null) {
+            if (tags != null) tags.remove(key);
+            return;
+        }
+
+        if (tags == null) tags = new HashMap<>(4);
+        tags.put(key, value);
+    }
+
+    /**
+     * Retrieves the value of a tag.
+     *
+     * @param key The key of the tag.
+     * @return The value of the tag, or {@code null} if the packet is not tagged with the key.
+     */
+    public @Nullable Object getTag(@NotNull String key) {
+        return tags != null ? tags.get(key) : null;
+    }
+
+    /**
+     * Checks whether the packet is tagged with a key.
+     *
+     * @param key The key of the tag.
+     * @return {@code true} if the packet is tagged with the key, {@code false} otherwise.
+     */
+    public boolean hasTag(@NotNull String key) {
+        return tags != null && tags.containsKey(key);
+    }
+
+    /**
+     * Gets the networker the packet is received from or sent to.
+     *
+     * @return The networker.
+     */
+    public @NotNull Networker networker() {
+        return networker;
+    }
+
+    /**
+     * Gets the direction of the packet.
+     *
+     * @return The direction.
+     */
+    public @NotNull PacketDirection direction() {
+        return direction;
+    }
+
+    /**
+     * Gets the identifier of the bundle of the packet.
+     *
+     * @return The bundle identifier.
+     */
+    public @NotNull String bundle() {
+        return bundle;
+    }
+
+    /**
+     * Gets the ID of the packet within its bundle.
+     *
+     * @return The packet ID.
+     */
+    public int id() {
+        return id;
+    }
+
+}
@@ -0,0 +1,24 @@
+package de.craftsblock.cnet.modules.packets.common.packet.interceptor;
+
+/**
+ * The direction a {@link de.craftsblock.cnet.modules.packets.common.packet.Packet Packet}
+ * travels in relative to the local node.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public enum PacketDirection {
+
+    /**
+     * Packets received from a peer, intercepted before they are handled.
+     */
+    INBOUND,
+
+    /**
+     * Packets sent to a peer, intercepted before they are encoded.
+     */
+    OUTBOUND
+
+}
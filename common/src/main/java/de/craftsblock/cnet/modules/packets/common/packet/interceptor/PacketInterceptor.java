@@ -0,0 +1,34 @@
+package de.craftsblock.cnet.modules.packets.common.packet.interceptor;
+
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Intercepts packets before they are handled or encoded.
+ * <p>
+ * An interceptor can pass a packet on unchanged, replace it by returning a
+ * different packet or drop it by returning {@code null}. Inbound packets are
+ * usually {@link de.craftsblock.cnet.modules.packets.common.packet.LazyPacket lazy},
+ * interceptors which only look at the bundle and ID of the
+ * {@link InterceptionContext} therefore never cause the packet to be deserialized.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketInterceptorPipeline
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface PacketInterceptor {
+
+    /**
+     * Intercepts a packet.
+     *
+     * @param context The context of the packet, shared by all interceptors of the chain.
+     * @param packet  The packet as returned by the previous interceptor.
+     * @return The packet to pass on, or {@code null} to drop the packet.
+     */
+    @Nullable Packet intercept(@NotNull InterceptionContext context, @NotNull Packet packet);
+
+}
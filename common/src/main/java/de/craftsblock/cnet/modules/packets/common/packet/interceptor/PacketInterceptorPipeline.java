@@ -0,0 +1,233 @@
+package de.craftsblock.cnet.modules.packets.common.packet.interceptor;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.LazyPacket;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.WrappedPacket;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Ordered chains of {@link PacketInterceptor interceptors} for inbound and outbound packets.
+ * <p>
+ * Inbound interceptors see every received packet before {@link Packet#handle(Networker)}
+ * is called, outbound interceptors see every packet passed to
+ * {@link Networker#send(Packet)} before it is encoded. Interceptors run in the
+ * order they were registered in and can be limited to a bundle or to a single
+ * packet ID of a bundle.
+ * <p>
+ * The chains are kept in immutable arrays which are replaced on every
+ * modification. If no interceptor is registered for a direction, intercepting
+ * a packet is a single array length check and the packet is passed on as is.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketInterceptor
+ * @since 1.2.0
+ */
+public final class PacketInterceptorPipeline {
+
+    /**
+     * Filter value matching any packet ID.
+     */
+    public static final int ANY_ID = -1;
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private volatile Entry[] inbound = EMPTY;
+    private volatile Entry[] outbound = EMPTY;
+
+    /**
+     * Registers an interceptor for all packets of a direction.
+     *
+     * @param direction   The direction to intercept.
+     * @param interceptor The interceptor to register.
+     */
+    public void register(@NotNull PacketDirection direction, @NotNull PacketInterceptor interceptor) {
+        this.register(direction, null, ANY_ID, interceptor);
+    }
+
+    /**
+     * Registers an interceptor for all packets of a bundle.
+     *
+     * @param direction   The direction to intercept.
+     * @param bundle      The identifier of the bundle to intercept.
+     * @param interceptor The interceptor to register.
+     */
+    public void register(@NotNull PacketDirection direction, @NotNull String bundle, @NotNull PacketInterceptor interceptor) {
+        this.register(direction, bundle, ANY_ID, interceptor);
+    }
+
+    /**
+     * Registers an interceptor for the packets of a direction, optionally limited to a
+     * bundle and a packet ID.
+     *
+     * @param direction   The direction to intercept.
+     * @param bundle      The identifier of the bundle to intercept, or {@code null} for all bundles.
+     * @param id          The packet ID to intercept, or {@link #ANY_ID} for all packets of the bundle.
+     * @param interceptor The interceptor to register.
+     * @throws IllegalArgumentException If a packet ID is given without a bundle.
+     */
+    public synchronized void register(@NotNull PacketDirection direction, @Nullable String bundle, int id,
+                                      @NotNull PacketInterceptor interceptor) {
+        if (bundle == null && id != ANY_ID)
+            throw new IllegalArgumentException("A packet id filter requires a bundle filter!");
+
+        Entry entry = new Entry(bundle, id < 0 ? ANY_ID : id, interceptor);
+        if (direction == PacketDirection.INBOUND) this.inbound = append(inbound, entry);
+        else this.outbound = append(outbound, entry);
+    }
+
+    /**
+     * Unregisters an interceptor from both directions.
+     *
+     * @param interceptor The interceptor to unregister.
+     * @return {@code true} if the interceptor was registered, {@code false} otherwise.
+     */
+    public synchronized boolean unregister(@NotNull PacketInterceptor interceptor) {
+        Entry[] inbound = remove(this.inbound, interceptor);
+        Entry[] outbound = remove(this.outbound, interceptor);
+        boolean changed = inbound != this.inbound || outbound != this.outbound;
+
+        this.inbound = inbound;
+        this.outbound = outbound;
+        return changed;
+    }
+
+    /**
+     * Checks whether any interceptor is registered for a direction.
+     *
+     * @param direction The direction to check.
+     * @return {@code true} if at least one interceptor is registered, {@code false} otherwise.
+     */
+    public boolean hasInterceptors(@NotNull PacketDirection direction) {
+        return (direction == PacketDirection.INBOUND ? inbound : outbound).length != 0;
+    }
+
+    /**
+     * Passes a received packet through the inbound chain.
+     *
+     * @param networker The networker the packet was received from.
+     * @param packet    The received packet.
+     * @return The packet to handle, or {@code null} if the packet was dropped.
+     */
+    public @Nullable Packet inbound(@NotNull Networker networker, @NotNull Packet packet) {
+        Entry[] entries = this.inbound;
+        if (entries.length == 0) return packet;
+        return intercept(entries, networker, PacketDirection.INBOUND, packet);
+    }
+
+    /**
+     * Passes a packet which is about to be sent through the outbound chain.
+     *
+     * @param networker The networker the packet is sent to.
+     * @param packet    The packet to send.
+     * @return The packet to encode, or {@code null} if the packet was dropped.
+     */
+    public @Nullable Packet outbound(@NotNull Networker networker, @NotNull Packet packet) {
+        Entry[] entries = this.outbound;
+        if (entries.length == 0) return packet;
+        return intercept(entries, networker, PacketDirection.OUTBOUND, packet);
+    }
+
+    /**
+     * Runs a packet through a chain of interceptors.
+     * <p>
+     * The bundle and ID used for filtering are resolved once from the original
+     * packet. Packets unknown to the snapshot of the networker are only seen
+     * by interceptors without a bundle filter.
+     *
+     * @param entries   The chain to run.
+     * @param networker The networker the packet belongs to.
+     * @param direction The direction of the packet.
+     * @param packet    The packet to intercept.
+     * @return The intercepted packet, or {@code null} if the packet was dropped.
+     */
+    private static @Nullable Packet intercept(Entry[] entries, Networker networker, PacketDirection direction, Packet packet) {
+        String bundle;
+        int id;
+
+        if (packet instanceof LazyPacket lazy) {
+            bundle = lazy.bundle().identifier();
+            id = lazy.id();
+        } else if (packet instanceof WrappedPacket wrapped) {
+            bundle = wrapped.bundle();
+            id = wrapped.id();
+        } else {
+            PacketBundleSnapshot snapshot = networker.getConnectionState().getPinnedSnapshot();
+            if (snapshot == null) snapshot = networker.getEnvironment().getPacketBundleRegistry().getSnapshot();
+
+            FrozenPacketBundle packetBundle = snapshot.getBundle(packet.getClass());
+            bundle = packetBundle != null ? packetBundle.identifier() : "";
+            id = packetBundle != null ? packetBundle.getId(packet) : ANY_ID;
+        }
+
+        InterceptionContext context = new InterceptionContext(networker, direction, bundle, id);
+        for (Entry entry : entries) {
+            if (!entry.matches(bundle, id)) continue;
+
+            packet = entry.interceptor().intercept(context, packet);
+            if (packet == null) return null;
+        }
+
+        return packet;
+    }
+
+    /**
+     * Creates a copy of a chain with an entry appended.
+     *
+     * @param entries The chain to copy.
+     * @param entry   The entry to append.
+     * @return The new chain.
+     */
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+        copy[entries.length] = entry;
+        return copy;
+    }
+
+    /**
+     * Creates a copy of a chain without the entries of an interceptor.
+     *
+     * @param entries     The chain to copy.
+     * @param interceptor The interceptor to remove.
+     * @return The new chain, or the given chain if it did not contain the interceptor.
+     */
+    private static Entry[] remove(Entry[] entries, PacketInterceptor interceptor) {
+        Entry[] copy = Arrays.stream(entries)
+                .filter(entry -> entry.interceptor() != interceptor)
+                .toArray(Entry[]::new);
+
+        if (copy.length == entries.length) return entries;
+        return copy.length == 0 ? EMPTY : copy;
+    }
+
+    /**
+     * A registered interceptor together with its filter.
+     *
+     * @param bundle      The bundle to intercept, or {@code null} for all bundles.
+     * @param id          The packet ID to intercept, or {@link #ANY_ID}.
+     * @param interceptor The interceptor.
+     */
+    private record Entry(@Nullable String bundle, int id, @NotNull PacketInterceptor interceptor) {
+
+        /**
+         * Checks whether this entry intercepts a packet.
+         *
+         * @param bundle The bundle of the packet.
+         * @param id     The ID of the packet.
+         * @return {@code true} if the packet is intercepted, {@code false} otherwise.
+         */
+        boolean matches(String bundle, int id) {
+            if (this.bundle == null) return true;
+            return this.bundle.equals(bundle) && (this.id == ANY_ID || this.id == id);
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.craftsblock.cnet.modules.packets.common.packet.listener;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the priority of a {@link PacketListener} which is registered without
+ * an explicit priority, for example through the auto register handler.
+ * <p>
+ * Listeners with a higher priority are invoked before listeners with a lower
+ * priority. Listeners without this annotation use
+ * {@link PacketListenerRegistry#DEFAULT_PRIORITY}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketListenerRegistry
+ * @since 1.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PacketListenerPriority {
+
+    /**
+     * The priority of the listener, higher priorities are invoked first.
+     *
+     * @return The priority.
+     */
+    int value();
+
+}
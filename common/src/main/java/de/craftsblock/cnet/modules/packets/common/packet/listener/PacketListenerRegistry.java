@@ -1,133 +1,259 @@
 package de.craftsblock.cnet.modules.packets.common.packet.listener;
 
 import de.craftsblock.cnet.modules.packets.common.registry.InheritIgnoredTypeRegistry;
-import de.craftsblock.craftsnet.utils.reflection.TypeUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Stack;
-import java.util.function.BiConsumer;
-import java.util.function.Consumer;
+import java.lang.reflect.Array;
+import java.util.Arrays;
 
 /**
  * A registry for managing {@link PacketListener} instances.
  * <p>
- * This registry extends {@link InheritIgnoredTypeRegistry} and ensures that
- * packet listeners are properly registered and unregistered throughout
- * the inheritance hierarchy. When a listener is registered for a subclass,
- * it will also propagate to all parent classes and interfaces up to
- * {@link PacketListener}, maintaining type-aware listener mappings.
+ * A listener registered for a class is also available through all parent
+ * classes and interfaces of that class up to {@link PacketListener}. Any
+ * amount of listeners may be registered for the same type, they are ordered
+ * by their priority (higher priorities first) and, for equal priorities, by
+ * the order of registration.
+ * <p>
+ * Registrations are kept in an immutable array which is replaced on every
+ * modification. The listeners of a type are compiled into an immutable array
+ * once on first access and cached per type, so that invoking all listeners of
+ * a type is a plain array loop without any locking or walking of the
+ * inheritance tree.
+ * <p>
+ * The registry still extends {@link InheritIgnoredTypeRegistry} for compatibility,
+ * but overrides every operation and does not use the storage of its supertype.
  *
  * @author Philipp Maywald
  * @author CraftsBlock
  * @version 1.0.0
  * @see PacketListener
- * @see InheritIgnoredTypeRegistry
+ * @see PacketListenerPriority
  * @since 1.0.0
  */
 public class PacketListenerRegistry extends InheritIgnoredTypeRegistry<PacketListener> {
 
+    /**
+     * The priority of listeners which do not declare a {@link PacketListenerPriority}.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
     private static final Class<PacketListener> TYPE_ROOT = PacketListener.class;
+    private static final PacketListener[] EMPTY = new PacketListener[0];
+
+    private volatile Registration[] registrations = new Registration[0];
+    private volatile ClassValue<PacketListener[]> compiled = this.createCompiled();
 
     /**
-     * Registers a {@link PacketListener} for a specific listener class.
+     * Registers a {@link PacketListener} for a specific listener class, using the
+     * priority declared through {@link PacketListenerPriority} or
+     * {@link #DEFAULT_PRIORITY} if none is declared.
      *
      * @param key   The class of the packet listener to register.
      * @param value The listener instance to associate with the class.
+     * @throws IllegalStateException If the listener is already registered for the class.
      */
     @Override
     public void register(Class<? extends PacketListener> key, PacketListener value) {
-        Stack<Class<?>> walked = new Stack<>();
+        PacketListenerPriority priority = value.getClass().getAnnotation(PacketListenerPriority.class);
+        this.register(key, value, priority != null ? priority.value() : DEFAULT_PRIORITY);
+    }
 
-        try {
-            this.register0(key, value, walked);
-        } finally {
-            walked.clear();
-        }
+    /**
+     * Registers a {@link PacketListener} with an explicit priority.
+     *
+     * @param value    The listener instance to register.
+     * @param priority The priority of the listener, higher priorities are invoked first.
+     * @throws IllegalStateException If the listener is already registered for its class.
+     */
+    public void register(@NotNull PacketListener value, int priority) {
+        this.register(value.getClass(), value, priority);
     }
 
     /**
-     * Helper method that performs recursive registration along the inheritance tree.
+     * Registers a {@link PacketListener} for a specific listener class with an explicit priority.
      *
-     * @param key    The listener class to register.
-     * @param value  The listener instance.
-     * @param walked The stack used to prevent cyclic registration loops.
+     * @param key      The class of the packet listener to register.
+     * @param value    The listener instance to associate with the class.
+     * @param priority The priority of the listener, higher priorities are invoked first.
+     * @throws IllegalArgumentException If the listener is not an instance of the class.
+     * @throws IllegalStateException    If the listener is already registered for the class.
      */
-    private void register0(Class<? extends PacketListener> key, PacketListener value, Stack<Class<?>> walked) {
-        if (walked.contains(key) || key == null
-                || Object.class.equals(key) || TYPE_ROOT.equals(key))
+    public synchronized void register(Class<? extends PacketListener> key, PacketListener value, int priority) {
+        if (key == null || TYPE_ROOT.equals(key))
             return;
 
-        walked.push(key);
+        if (!key.isInstance(value))
+            throw new IllegalArgumentException("The listener %s is no instance of %s!".formatted(
+                    value.getClass().getName(), key.getName()
+            ));
+
+        Registration[] current = this.registrations;
+        for (Registration registration : current)
+            if (registration.key() == key && registration.listener() == value)
+                throw new IllegalStateException("The listener %s is already registered for %s!".formatted(
+                        value.getClass().getName(), key.getName()
+                ));
+
+        int index = 0;
+        while (index < current.length && current[index].priority() >= priority)
+            index++;
+
+        Registration[] updated = new Registration[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        updated[index] = new Registration(key, value, priority);
+        System.arraycopy(current, index, updated, index + 1, current.length - index);
 
-        super.register(key, value);
-        this.performInInheritTree(key, value, (a, b) -> this.register0(a, b, walked));
+        this.publish(updated);
     }
 
     /**
-     * Unregisters the {@link PacketListener} associated with a specific listener class.
+     * Unregisters all {@link PacketListener listeners} registered for a specific listener class.
      *
      * @param key The class of the packet listener to unregister.
-     * @return The unregistered listener instance, or {@code null} if none was registered.
+     * @return The first unregistered listener instance, or {@code null} if none was registered.
      */
     @Override
-    public PacketListener unregister(Class<? extends PacketListener> key) {
-        Stack<Class<?>> walked = new Stack<>();
-
-        try {
-            return this.unregister0(key, walked);
-        } finally {
-            walked.clear();
-        }
+    public synchronized PacketListener unregister(Class<? extends PacketListener> key) {
+        PacketListener removed = null;
+        Registration[] current = this.registrations;
+        Registration[] updated = new Registration[current.length];
+
+        int size = 0;
+        for (Registration registration : current)
+            if (registration.key() != key) updated[size++] = registration;
+            else if (removed == null) removed = registration.listener();
+
+        if (removed != null) this.publish(Arrays.copyOf(updated, size));
+        return removed;
     }
 
     /**
-     * Helper method that performs recursive unregistration along the inheritance tree.
+     * Unregisters a specific {@link PacketListener} instance from all classes it is registered for.
+     * Other listeners of the same class are kept.
      *
-     * @param key    The listener class to unregister.
-     * @param walked The stack used to prevent cyclic unregistration loops.
-     * @return The unregistered listener instance, or {@code null} if none was registered.
+     * @param listener The listener instance to unregister.
+     * @return The unregistered listener, or {@code null} if it was not registered.
      */
-    private PacketListener unregister0(Class<? extends PacketListener> key, Stack<Class<?>> walked) {
-        if (walked.contains(key))
-            return null;
+    @Override
+    public synchronized PacketListener unregister(PacketListener listener) {
+        Registration[] current = this.registrations;
+        Registration[] updated = new Registration[current.length];
 
-        walked.push(key);
+        int size = 0;
+        for (Registration registration : current)
+            if (registration.listener() != listener) updated[size++] = registration;
 
-        this.performInInheritTree(key, a -> this.unregister0(a, walked));
-        return super.unregister(key);
+        if (size == current.length) return null;
+
+        this.publish(Arrays.copyOf(updated, size));
+        return listener;
     }
 
     /**
-     * Traverses the inheritance tree of a listener class and performs the given action
-     * on each parent class or interface that extends {@link PacketListener}.
+     * Retrieves the listener with the highest priority for the given type,
+     * or returns a fallback if none is registered.
      *
-     * @param key      The listener class whose inheritance tree is traversed.
-     * @param consumer The action to perform on each applicable parent class or interface.
+     * @param key      The listener type to look up.
+     * @param fallback The fallback value to return if no listener is registered.
+     * @param <R>      The expected subtype of {@link PacketListener}.
+     * @return The listener with the highest priority, or the fallback if none found.
      */
-    private void performInInheritTree(Class<? extends PacketListener> key,
-                                      Consumer<Class<? extends PacketListener>> consumer) {
-        performInInheritTree(key, null, (a, b) -> consumer.accept(a));
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends PacketListener> R getOrDefault(@NotNull Class<? extends R> key, @Nullable R fallback) {
+        PacketListener[] listeners = compiled.get(key);
+        if (listeners.length == 0) return fallback;
+        return (R) listeners[0];
     }
 
     /**
-     * Traverses the inheritance tree of a listener class and performs the given action
-     * on each parent class or interface that extends {@link PacketListener}, passing the
-     * associated listener instance if provided.
+     * Retrieves all listeners for the given type, ordered by their priority.
+     * <p>
+     * The returned array is shared between all callers and must not be modified.
      *
-     * @param key      The listener class whose inheritance tree is traversed.
-     * @param value    The listener instance associated with the class, can be {@code null}.
-     * @param consumer The action to perform on each applicable parent class or interface.
+     * @param type The listener type to look up.
+     * @param <L>  The type of the listeners.
+     * @return The listeners of the type, empty if none are registered.
      */
     @SuppressWarnings("unchecked")
-    private void performInInheritTree(Class<? extends PacketListener> key,
-                                      PacketListener value,
-                                      BiConsumer<Class<? extends PacketListener>, PacketListener> consumer) {
-        Class<?> superclass = key.getSuperclass();
-        if (TypeUtils.isAssignable(TYPE_ROOT, superclass))
-            consumer.accept((Class<? extends PacketListener>) superclass, value);
-
-        for (Class<?> face : key.getInterfaces())
-            if (TypeUtils.isAssignable(TYPE_ROOT, face))
-                consumer.accept((Class<? extends PacketListener>) face, value);
+    public <L extends PacketListener> L @NotNull [] getAll(@NotNull Class<L> type) {
+        return (L[]) compiled.get(type);
+    }
+
+    /**
+     * Checks whether at least one listener is available for the given type.
+     *
+     * @param type The type to check, may be {@code null}.
+     * @return {@code true} if a listener is available for the type, {@code false} otherwise.
+     */
+    @Override
+    public boolean isRegistered(@Nullable Class<? extends PacketListener> type) {
+        if (type == null) return false;
+        return compiled.get(type).length != 0;
+    }
+
+    /**
+     * Publishes a new set of registrations and discards all compiled listener arrays.
+     *
+     * @param updated The new registrations.
+     */
+    private void publish(Registration[] updated) {
+        this.registrations = updated;
+        this.compiled = this.createCompiled();
+    }
+
+    /**
+     * Creates a new cache which compiles the listeners of a type from the current registrations.
+     *
+     * @return The created cache.
+     */
+    private ClassValue<PacketListener[]> createCompiled() {
+        return new ClassValue<>() {
+            @Override
+            protected PacketListener[] computeValue(@NotNull Class<?> type) {
+                if (TYPE_ROOT.equals(type) || !TYPE_ROOT.isAssignableFrom(type))
+                    return EMPTY;
+
+                Registration[] registrations = PacketListenerRegistry.this.registrations;
+                PacketListener[] listeners = (PacketListener[]) Array.newInstance(type, registrations.length);
+
+                int size = 0;
+                for (Registration registration : registrations) {
+                    if (!type.isAssignableFrom(registration.key())) continue;
+                    if (contains(listeners, size, registration.listener())) continue;
+                    listeners[size++] = registration.listener();
+                }
+
+                return Arrays.copyOf(listeners, size);
+            }
+        };
+    }
+
+    /**
+     * Checks whether a listener instance is already part of the first {@code size} elements.
+     *
+     * @param listeners The listeners to search through.
+     * @param size      The amount of elements to search through.
+     * @param listener  The listener to look for.
+     * @return {@code true} if the listener is present, {@code false} otherwise.
+     */
+    private static boolean contains(PacketListener[] listeners, int size, PacketListener listener) {
+        for (int i = 0; i < size; i++)
+            if (listeners[i] == listener) return true;
+
+        return false;
+    }
+
+    /**
+     * A single registration of a listener.
+     *
+     * @param key      The class the listener was registered for.
+     * @param listener The listener instance.
+     * @param priority The priority of the listener.
+     */
+    private record Registration(Class<? extends PacketListener> key, PacketListener listener, int priority) {
     }
 
 }
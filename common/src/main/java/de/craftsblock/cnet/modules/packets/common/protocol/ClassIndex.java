@@ -0,0 +1,92 @@
+package de.craftsblock.cnet.modules.packets.common.protocol;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.Map;
+
+/**
+ * An immutable, identity based table mapping classes to non-negative integers.
+ * <p>
+ * The table uses open addressing with linear probing over a power of two sized
+ * key array and compares keys by reference, so lookups neither box the value
+ * nor call {@link Object#equals(Object)} or {@link Object#hashCode()}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see FrozenPacketBundle
+ * @see PacketBundleSnapshot
+ * @since 1.2.0
+ */
+final class ClassIndex {
+
+    private final Class<?>[] keys;
+    private final int[] values;
+    private final int mask;
+
+    /**
+     * Constructs a new {@link ClassIndex} from the given mappings.
+     *
+     * @param mappings The mappings of classes to their non-negative values.
+     */
+    ClassIndex(@NotNull Map<? extends Class<?>, Integer> mappings) {
+        int capacity = Integer.highestOneBit(Math.max(2, mappings.size() * 2 - 1)) << 1;
+
+        this.keys = new Class<?>[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+
+        mappings.forEach(this::put);
+    }
+
+    /**
+     * Inserts a mapping into the table, the first mapping of a class wins.
+     *
+     * @param key   The class.
+     * @param value The value of the class.
+     */
+    private void put(Class<?> key, int value) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot] == key) return;
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Looks up the value of a class.
+     *
+     * @param key The class to look up.
+     * @return The value of the class, or {@code -1} if the class is not present.
+     */
+    @Range(from = -1, to = Integer.MAX_VALUE)
+    int get(@Nullable Class<?> key) {
+        if (key == null) return -1;
+
+        int slot = hash(key) & mask;
+        Class<?> candidate;
+        while ((candidate = keys[slot]) != null) {
+            if (candidate == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Spreads the identity hash of a class over the lower bits.
+     *
+     * @param key The class.
+     * @return The spread hash.
+     */
+    private static int hash(Class<?> key) {
+        int hash = System.identityHashCode(key) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -0,0 +1,153 @@
+package de.craftsblock.cnet.modules.packets.common.protocol;
+
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.function.Function;
+
+/**
+ * A {@link PacketBundle} frozen into dense arrays for the encode and decode hot path.
+ * <p>
+ * The deserializers are stored in an array indexed by packet ID and the packet
+ * IDs in an identity based class table, so neither creating a packet nor
+ * resolving the ID of a packet boxes an integer or hashes a key through
+ * {@link Object#hashCode()}. Unknown IDs and classes are rejected through
+ * bounds checks, without any exception being thrown.
+ * <p>
+ * Instances are created through {@link PacketBundle#freeze()} and are immutable.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketBundle
+ * @see PacketBundleSnapshot
+ * @since 1.2.0
+ */
+public final class FrozenPacketBundle {
+
+    private final @NotNull PacketBundle bundle;
+    private final @NotNull String identifier;
+    private final int version;
+
+    private final Function<ByteBuffer, ? extends Packet>[] deserializers;
+    private final Class<? extends Packet>[] packetClasses;
+    private final ClassIndex packetIDs;
+
+    /**
+     * Constructs a new {@link FrozenPacketBundle} from a bundle.
+     *
+     * @param bundle The bundle to freeze.
+     */
+    @SuppressWarnings("unchecked")
+    FrozenPacketBundle(@NotNull PacketBundle bundle) {
+        this.bundle = bundle;
+        this.identifier = bundle.identifier();
+        this.version = bundle.version();
+        this.deserializers = bundle.deserializers().toArray(Function[]::new);
+        this.packetIDs = new ClassIndex(bundle.packetIDs());
+
+        this.packetClasses = new Class[deserializers.length];
+        bundle.packetIDs().forEach((packet, id) -> {
+            if (id >= 0 && id < packetClasses.length) packetClasses[id] = packet;
+        });
+    }
+
+    /**
+     * Creates a new {@link Packet} instance from the given packet ID and raw buffer data.
+     *
+     * @param id     The numeric ID of the packet to create.
+     * @param buffer The buffer containing the serialized packet data.
+     * @return A new {@link Packet} instance, or {@code null} if no deserializer exists for the given ID.
+     */
+    public @Nullable Packet createPacket(int id, @NotNull ByteBuffer buffer) {
+        if (id < 0 || id >= deserializers.length) return null;
+
+        Function<ByteBuffer, ? extends Packet> generator = deserializers[id];
+        if (generator == null) return null;
+
+        return generator.apply(buffer);
+    }
+
+    /**
+     * Checks whether a deserializer is assigned to the given packet ID.
+     *
+     * @param id The numeric ID to check.
+     * @return {@code true} if the ID is assigned, {@code false} otherwise.
+     */
+    public boolean isAssigned(int id) {
+        return id >= 0 && id < deserializers.length && deserializers[id] != null;
+    }
+
+    /**
+     * Retrieves the numeric ID associated with the given packet instance.
+     *
+     * @param packet The packet instance to look up.
+     * @return The associated packet ID, or {@code -1} if the packet type is not registered.
+     */
+    public @Range(from = -1, to = Integer.MAX_VALUE) int getId(@Nullable Packet packet) {
+        if (packet == null) return -1;
+        return packetIDs.get(packet.getClass());
+    }
+
+    /**
+     * Retrieves the numeric ID associated with the given packet class.
+     *
+     * @param packetClass The packet class to look up.
+     * @return The associated packet ID, or {@code -1} if the class is not registered.
+     */
+    public @Range(from = -1, to = Integer.MAX_VALUE) int getId(@Nullable Class<? extends Packet> packetClass) {
+        return packetIDs.get(packetClass);
+    }
+
+    /**
+     * Retrieves the packet class assigned to the given packet ID.
+     *
+     * @param id The numeric ID to look up.
+     * @return The assigned packet class, or {@code null} if the ID is not assigned.
+     */
+    public @Nullable Class<? extends Packet> getPacketClass(int id) {
+        if (id < 0 || id >= packetClasses.length) return null;
+        return packetClasses[id];
+    }
+
+    /**
+     * Checks whether the given packet class is registered in this bundle.
+     *
+     * @param packetClass The packet class to check.
+     * @return {@code true} if the class is registered, {@code false} otherwise.
+     */
+    public boolean containsPacket(@Nullable Class<? extends Packet> packetClass) {
+        return packetIDs.get(packetClass) >= 0;
+    }
+
+    /**
+     * Gets the identifier of the bundle.
+     *
+     * @return The identifier.
+     */
+    public @NotNull String identifier() {
+        return identifier;
+    }
+
+    /**
+     * Gets the version of the bundle.
+     *
+     * @return The version.
+     */
+    public @Range(from = 0, to = Integer.MAX_VALUE) int version() {
+        return version;
+    }
+
+    /**
+     * Gets the {@link PacketBundle} this bundle was frozen from.
+     *
+     * @return The source bundle.
+     */
+    public @NotNull PacketBundle bundle() {
+        return bundle;
+    }
+
+}
@@ -9,6 +9,7 @@ import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -24,7 +25,8 @@ import java.util.function.Function;
  * @param identifier    A unique identifier for the packet bundle.
  * @param version       The version number of the packet bundle.
  * @param packetIDs     A mapping of packet classes to their associated numeric IDs.
- * @param deserializers A list of deserializer functions used to create packets from raw data by ID.
+ * @param deserializers A list of deserializer functions used to create packets from raw data by ID,
+ *                      unassigned IDs are {@code null}.
  * @author Philipp Maywald
  * @author CraftsBlock
  * @version 1.0.0
@@ -43,8 +45,8 @@ public record PacketBundle(@NotNull String identifier,
      * @param identifier    The unique identifier of the bundle.
      * @param version       The version of the packet bundle.
      * @param packetIDs     A mapping of packet classes to their IDs.
-     * @param deserializers A list of deserializer functions ordered by packet ID.
-     * @throws IllegalArgumentException If the length of {@code packetIDs} and {@code deserializers} does not match.
+     * @param deserializers A list of deserializer functions ordered by packet ID, unassigned IDs are {@code null}.
+     * @throws IllegalArgumentException If the amount of {@code packetIDs} and assigned {@code deserializers} does not match.
      */
     public PacketBundle(@NotNull String identifier,
                         @Range(from = 0, to = Integer.MAX_VALUE) int version,
@@ -53,9 +55,10 @@ public record PacketBundle(@NotNull String identifier,
         this.identifier = identifier.toLowerCase().trim();
         this.version = version;
 
-        if (packetIDs.size() != deserializers.size())
+        long assigned = deserializers.stream().filter(Objects::nonNull).count();
+        if (packetIDs.size() != assigned)
             throw new IllegalArgumentException("The length of packets and deserializers must match! (Packets: %s; Deserializers: %s)".formatted(
-                    packetIDs.size(), deserializers.size()
+                    packetIDs.size(), assigned
             ));
 
         this.packetIDs = packetIDs;
@@ -71,6 +74,8 @@ public record PacketBundle(@NotNull String identifier,
      */
     public Packet createPacket(@Range(from = 0, to = Integer.MAX_VALUE) int id,
                                @NotNull ByteBuffer buffer) {
+        if (id < 0 || id >= deserializers.size()) return null;
+
         Function<ByteBuffer, ? extends Packet> generator = deserializers.get(id);
         if (generator == null) return null;
 
@@ -121,6 +126,15 @@ public record PacketBundle(@NotNull String identifier,
         return packetIDs.containsKey(packetClass);
     }
 
+    /**
+     * Freezes this bundle into dense arrays for the encode and decode hot path.
+     *
+     * @return The {@link FrozenPacketBundle}.
+     */
+    public @NotNull FrozenPacketBundle freeze() {
+        return new FrozenPacketBundle(this);
+    }
+
     /**
      * Creates a new {@link PacketBundleBuilder} for the given identifier and version.
      * This provides a fluent API for constructing a {@code PacketBundle}.
@@ -16,8 +16,9 @@ import java.util.function.Function;
  * <p>
  * This builder allows packet classes to be registered with associated deserializer
  * functions. Each packet is automatically assigned a unique numeric ID in the
- * order of registration. Once built, the {@link PacketBundle} provides a
- * versioned, immutable collection of these packet mappings and their generators.
+ * order of registration, unless an explicit ID is passed through
+ * {@link #addPacket(int, Class, Function)}. Once built, the {@link PacketBundle}
+ * provides a versioned, immutable collection of these packet mappings and their generators.
  *
  * @author Philipp Maywald
  * @author CraftsBlock
@@ -27,6 +28,11 @@ import java.util.function.Function;
  */
 public class PacketBundleBuilder {
 
+    /**
+     * The highest packet ID which can be assigned explicitly.
+     */
+    public static final int MAX_PACKET_ID = 0xFFFF;
+
     private final @NotNull String identifier;
     private final @Range(from = 0, to = Integer.MAX_VALUE) int version;
 
@@ -72,6 +78,44 @@ public class PacketBundleBuilder {
         return this;
     }
 
+    /**
+     * Registers a new packet class with its deserializer function under an explicit ID.
+     * <p>
+     * Explicit IDs stay stable when packets are added or removed, which is required
+     * if peers running different builds have to communicate with each other. IDs
+     * which are skipped stay unassigned, packets added without an explicit ID
+     * afterward are assigned the ID following the highest ID in use.
+     *
+     * @param id          The ID of the packet, between {@code 0} and {@link #MAX_PACKET_ID}.
+     * @param packetClass The packet class to register.
+     * @param generator   The deserializer function that reconstructs the packet from a {@link ByteBuffer}.
+     * @param <P>         The type of packet being registered.
+     * @return This builder instance for method chaining.
+     * @throws IllegalArgumentException If the ID is out of range.
+     * @throws IllegalStateException    If the packet class or the ID has already been registered.
+     */
+    public synchronized <P extends Packet> PacketBundleBuilder addPacket(@Range(from = 0, to = MAX_PACKET_ID) int id,
+                                                                         @NotNull Class<P> packetClass,
+                                                                         @NotNull Function<ByteBuffer, P> generator) {
+        if (id < 0 || id > MAX_PACKET_ID)
+            throw new IllegalArgumentException("The packet id must be between 0 and %s! (Got: %s)".formatted(MAX_PACKET_ID, id));
+
+        if (packetIDs.containsKey(packetClass))
+            throw new IllegalStateException("The packet %s was already registered to id %s!".formatted(
+                    packetClass.getName(), packetIDs.get(packetClass)
+            ));
+
+        if (id < deserializers.size() && deserializers.get(id) != null)
+            throw new IllegalStateException("The id %s is already used by another packet!".formatted(id));
+
+        while (deserializers.size() <= id)
+            deserializers.add(null);
+
+        packetIDs.put(packetClass, id);
+        deserializers.set(id, generator);
+        return this;
+    }
+
     /**
      * Builds a new immutable {@link PacketBundle} from the registered packets and metadata.
      *
@@ -7,7 +7,7 @@ import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -18,8 +18,14 @@ import java.util.Map;
  * Identifiers are required to be unique and must match the regex {@code [a-z0-9-_]}.
  * <p>
  * Once registered, a {@link PacketBundle} is accessible via its identifier
- * or through its contained packet classes. The registry itself is thread-safe
- * through synchronization on all public operations.
+ * or through its contained packet classes. Modifications are synchronized and
+ * publish a new immutable {@link PacketBundleSnapshot} of the registered bundles,
+ * from which all lookups are served without any locking. If a packet class
+ * is contained in several bundles, it resolves to the bundle registered first.
+ * <p>
+ * Every published snapshot carries an increasing epoch. Bundles can be
+ * replaced by a newer version at runtime through {@link #replace(PacketBundle)},
+ * decodes which already captured the previous snapshot finish against it.
  *
  * @author Philipp Maywald
  * @author CraftsBlock
@@ -29,7 +35,8 @@ import java.util.Map;
  */
 public final class PacketBundleRegistry {
 
-    private final HashMap<String, PacketBundle> bundles = new HashMap<>();
+    private final LinkedHashMap<String, PacketBundle> bundles = new LinkedHashMap<>();
+    private volatile PacketBundleSnapshot snapshot = PacketBundleSnapshot.EMPTY;
 
     /**
      * Registers a new {@link PacketBundle} in this registry.
@@ -49,6 +56,37 @@ public final class PacketBundleRegistry {
             throw new IllegalArgumentException("An packet bundle identifier must match [a-z0-9-_]!");
 
         bundles.put(identifier, bundle);
+        this.publish();
+    }
+
+    /**
+     * Atomically replaces a registered {@link PacketBundle} with a newer version.
+     * <p>
+     * The replacement becomes visible to all lookups at once by publishing a
+     * snapshot with a new epoch. Encodes and decodes which are in flight keep
+     * using the snapshot they captured, connections pinned to an older snapshot
+     * through {@link de.craftsblock.cnet.modules.packets.common.networker.ConnectionState#pinSnapshot(PacketBundleSnapshot)}
+     * are not affected at all.
+     *
+     * @param bundle The new version of the bundle.
+     * @return The replaced bundle.
+     * @throws IllegalStateException If no bundle with the identifier is registered or the
+     *                               version of the new bundle is not higher than the registered one.
+     */
+    public synchronized @NotNull PacketBundle replace(@NotNull PacketBundle bundle) {
+        String identifier = bundle.identifier();
+        PacketBundle current = bundles.get(identifier);
+        if (current == null)
+            throw new IllegalStateException("There is no bundle registered for %s!".formatted(identifier));
+
+        if (bundle.version() <= current.version())
+            throw new IllegalStateException("The bundle %s can not be replaced by version %s! (Registered: %s)".formatted(
+                    identifier, bundle.version(), current.version()
+            ));
+
+        bundles.put(identifier, bundle);
+        this.publish();
+        return current;
     }
 
     /**
@@ -90,7 +128,9 @@ public final class PacketBundleRegistry {
      * @return The unregistered bundle, or {@code null} if not found.
      */
     public synchronized PacketBundle unregister(@NotNull String identifier) {
-        return bundles.remove(identifier);
+        PacketBundle removed = bundles.remove(identifier);
+        if (removed != null) this.publish();
+        return removed;
     }
 
     /**
@@ -100,7 +140,7 @@ public final class PacketBundleRegistry {
      * @return {@code true} if the bundle is registered, {@code false} otherwise.
      */
     @Contract("null -> false")
-    public synchronized boolean isRegistered(PacketBundle bundle) {
+    public boolean isRegistered(PacketBundle bundle) {
         if (bundle == null) return false;
         return this.isRegistered(bundle.identifier());
     }
@@ -112,9 +152,9 @@ public final class PacketBundleRegistry {
      * @return {@code true} if a bundle is registered under the identifier, {@code false} otherwise.
      */
     @Contract("null -> false")
-    public synchronized boolean isRegistered(String identifier) {
+    public boolean isRegistered(String identifier) {
         if (identifier == null) return false;
-        return bundles.containsKey(identifier);
+        return snapshot.getBundle(identifier) != null;
     }
 
     /**
@@ -124,9 +164,11 @@ public final class PacketBundleRegistry {
      * @return The matching bundle, or {@code null} if not found.
      */
     @Contract("null -> null")
-    public synchronized PacketBundle getBundle(String identifier) {
+    public PacketBundle getBundle(String identifier) {
         if (identifier == null) return null;
-        return this.bundles.get(identifier.toLowerCase().trim());
+
+        FrozenPacketBundle bundle = snapshot.getBundle(identifier.toLowerCase().trim());
+        return bundle != null ? bundle.bundle() : null;
     }
 
     /**
@@ -136,7 +178,7 @@ public final class PacketBundleRegistry {
      * @return The bundle containing the packet type, or {@code null} if not found.
      */
     @Contract("null -> null")
-    public synchronized PacketBundle getBundle(Packet packet) {
+    public PacketBundle getBundle(Packet packet) {
         if (packet == null) return null;
         return this.getBundle(packet.getClass());
     }
@@ -148,12 +190,37 @@ public final class PacketBundleRegistry {
      * @return The bundle containing the packet class, or {@code null} if not found.
      */
     @Contract("null -> null")
-    public synchronized PacketBundle getBundle(Class<? extends Packet> packet) {
-        if (packet == null) return null;
-        return bundles.values().stream()
-                .filter(bundle -> bundle.getId(packet) >= 0)
-                .findFirst()
-                .orElse(null);
+    public PacketBundle getBundle(Class<? extends Packet> packet) {
+        FrozenPacketBundle bundle = snapshot.getBundle(packet);
+        return bundle != null ? bundle.bundle() : null;
+    }
+
+    /**
+     * Returns the current immutable snapshot of all registered bundles.
+     * <p>
+     * The snapshot is replaced on every modification of this registry, callers
+     * which perform several lookups should capture it once.
+     *
+     * @return The current {@link PacketBundleSnapshot}.
+     */
+    public @NotNull PacketBundleSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the epoch of the current snapshot, which increases with every modification.
+     *
+     * @return The current epoch.
+     */
+    public long getEpoch() {
+        return snapshot.getEpoch();
+    }
+
+    /**
+     * Publishes a new snapshot of the registered bundles with the next epoch.
+     */
+    private void publish() {
+        this.snapshot = new PacketBundleSnapshot(snapshot.getEpoch() + 1, bundles);
     }
 
     /**
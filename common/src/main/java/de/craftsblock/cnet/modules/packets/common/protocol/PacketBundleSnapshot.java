@@ -0,0 +1,120 @@
+package de.craftsblock.cnet.modules.packets.common.protocol;
+
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of all {@link FrozenPacketBundle bundles} registered
+ * in a {@link PacketBundleRegistry} at a certain point in time.
+ * <p>
+ * The registry publishes a new snapshot on every modification, so readers
+ * never have to synchronize. Bundles are resolved by identifier through a
+ * plain map lookup and by packet class through an identity based class table.
+ * A packet class contained in several bundles resolves to the first of them in
+ * the iteration order of the bundles the snapshot was created from, which is
+ * the registration order for snapshots of a {@link PacketBundleRegistry}.
+ * <p>
+ * Each snapshot carries the epoch it was published in. Epochs increase with
+ * every modification of the registry, which allows connections to detect or
+ * pin the protocol state they negotiated.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketBundleRegistry#getSnapshot()
+ * @since 1.2.0
+ */
+public final class PacketBundleSnapshot {
+
+    /**
+     * A snapshot without any bundles.
+     */
+    static final PacketBundleSnapshot EMPTY = new PacketBundleSnapshot(0, Map.of());
+
+    private final long epoch;
+    private final @Unmodifiable Map<String, FrozenPacketBundle> bundles;
+    private final FrozenPacketBundle[] byIndex;
+    private final ClassIndex packetBundles;
+
+    /**
+     * Constructs a new {@link PacketBundleSnapshot} freezing the given bundles.
+     *
+     * @param epoch   The epoch of the snapshot.
+     * @param bundles The bundles by their identifier, in the order packet classes are resolved in.
+     */
+    PacketBundleSnapshot(long epoch, @NotNull Map<String, PacketBundle> bundles) {
+        this.epoch = epoch;
+        Map<String, FrozenPacketBundle> frozen = new LinkedHashMap<>();
+        Map<Class<? extends Packet>, Integer> packets = new HashMap<>();
+
+        this.byIndex = new FrozenPacketBundle[bundles.size()];
+
+        int index = 0;
+        for (PacketBundle bundle : bundles.values()) {
+            FrozenPacketBundle frozenBundle = bundle.freeze();
+            frozen.put(frozenBundle.identifier(), frozenBundle);
+            byIndex[index] = frozenBundle;
+
+            for (Class<? extends Packet> packet : bundle.packetIDs().keySet())
+                packets.putIfAbsent(packet, index);
+
+            index++;
+        }
+
+        this.bundles = Collections.unmodifiableMap(frozen);
+        this.packetBundles = new ClassIndex(packets);
+    }
+
+    /**
+     * Retrieves a bundle by its identifier.
+     *
+     * @param identifier The normalized identifier of the bundle, or {@code null}.
+     * @return The matching bundle, or {@code null} if not found.
+     */
+    @Contract("null -> null")
+    public @Nullable FrozenPacketBundle getBundle(@Nullable String identifier) {
+        if (identifier == null) return null;
+        return bundles.get(identifier);
+    }
+
+    /**
+     * Retrieves the bundle containing a packet class.
+     *
+     * @param packet The packet class, or {@code null}.
+     * @return The bundle containing the packet class, or {@code null} if not found.
+     */
+    @Contract("null -> null")
+    public @Nullable FrozenPacketBundle getBundle(@Nullable Class<? extends Packet> packet) {
+        int index = packetBundles.get(packet);
+        if (index < 0) return null;
+        return byIndex[index];
+    }
+
+    /**
+     * Gets the epoch this snapshot was published in.
+     *
+     * @return The epoch.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns all bundles of this snapshot in the order packet classes are resolved in.
+     *
+     * @return An unmodifiable collection of the bundles.
+     */
+    public @NotNull @Unmodifiable Collection<FrozenPacketBundle> getBundles() {
+        return bundles.values();
+    }
+
+}
@@ -0,0 +1,93 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Optional protocol features which are negotiated once per connection
+ * through the {@link HandshakePacket}.
+ * <p>
+ * A capability is only active on a connection if both peers offer it.
+ * Capabilities are transferred as bit mask, where each capability occupies
+ * the bit of its ordinal. New capabilities must therefore only be appended.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see HandshakeSettings
+ * @see NegotiatedSettings
+ * @since 1.2.0
+ */
+public enum Capability {
+
+    /**
+     * Compression of packet payloads.
+     */
+    COMPRESSION,
+
+    /**
+     * Batching of several packets into a single frame.
+     */
+    BATCHING,
+
+    /**
+     * Numeric bundle identifiers instead of bundle names in the packet header.
+     */
+    NUMERIC_IDS,
+
+    /**
+     * Per connection string tables, see
+     * {@link de.craftsblock.cnet.modules.packets.common.networker.strings.StringTable StringTable}.
+     */
+    STRING_TABLES;
+
+    /**
+     * Returns the bit of this capability within a capability mask.
+     *
+     * @return The bit mask of this capability.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Checks whether this capability is part of a capability mask.
+     *
+     * @param mask The capability mask.
+     * @return {@code true} if the capability is set, {@code false} otherwise.
+     */
+    public boolean isSet(int mask) {
+        return (mask & mask()) != 0;
+    }
+
+    /**
+     * Converts a collection of capabilities into a capability mask.
+     *
+     * @param capabilities The capabilities.
+     * @return The capability mask.
+     */
+    public static int toMask(@NotNull Collection<Capability> capabilities) {
+        int mask = 0;
+        for (Capability capability : capabilities)
+            mask |= capability.mask();
+
+        return mask;
+    }
+
+    /**
+     * Converts a capability mask into a set of capabilities. Unknown bits are ignored.
+     *
+     * @param mask The capability mask.
+     * @return The capabilities contained in the mask.
+     */
+    public static @NotNull EnumSet<Capability> fromMask(int mask) {
+        EnumSet<Capability> capabilities = EnumSet.noneOf(Capability.class);
+        for (Capability capability : values())
+            if (capability.isSet(mask)) capabilities.add(capability);
+
+        return capabilities;
+    }
+
+}
@@ -0,0 +1,199 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.protocol.FrozenPacketBundle;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Performs the connection handshake.
+ * <p>
+ * Both peers send a {@link HandshakePacket} as the very first packet of a
+ * connection through {@link #initiate(Networker)}. Once the handshake of the
+ * peer arrives, {@link #complete(Networker, HandshakePacket)} negotiates the
+ * {@link NegotiatedSettings}, which both peers compute equally.
+ * <p>
+ * A peer may already have sent further packets before the handshake of the
+ * other peer arrived, which were encoded without the negotiated settings.
+ * Settings which change the encoding, like string tables, are therefore applied
+ * per direction: a peer applies them to the packets it sends right after sending
+ * a {@link HandshakeAckPacket}, and to the packets it receives once the
+ * acknowledgement of the other peer arrives through {@link #acknowledge(Networker)}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see HandshakePacket
+ * @see HandshakeSettings
+ * @since 1.2.0
+ */
+public final class Handshake {
+
+    /**
+     * The close code used if the handshake fails.
+     */
+    public static final int PROTOCOL_ERROR = 1002;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Handshake() {
+    }
+
+    /**
+     * Sends the handshake of this peer through the networker, if handshakes are enabled
+     * for the {@link WebSocketPackets} instance of its environment.
+     * <p>
+     * Must be called before any other packet is sent through the networker.
+     *
+     * @param networker The networker of the new connection.
+     * @return {@code true} if a handshake was sent, {@code false} if handshakes are disabled.
+     */
+    public static boolean initiate(@NotNull Networker networker) {
+        WebSocketPackets webSocketPackets = networker.getEnvironment().getWebSocketPackets();
+        HandshakeSettings settings = webSocketPackets.getHandshakeSettings();
+        if (settings == null) return false;
+
+        networker.send(create(webSocketPackets.getPacketBundleRegistry().getSnapshot(), settings));
+        return true;
+    }
+
+    /**
+     * Creates the handshake announcing the bundles of a snapshot and the given settings.
+     *
+     * @param snapshot The snapshot whose bundles should be announced.
+     * @param settings The settings to offer.
+     * @return The created {@link HandshakePacket}.
+     */
+    public static @NotNull HandshakePacket create(@NotNull PacketBundleSnapshot snapshot, @NotNull HandshakeSettings settings) {
+        Map<String, Integer> versions = new HashMap<>();
+        for (FrozenPacketBundle bundle : snapshot.getBundles())
+            versions.put(bundle.identifier(), bundle.version());
+
+        return new HandshakePacket(
+                HandshakePacket.PROTOCOL_VERSION, Map.copyOf(versions), settings.capabilityMask(),
+                settings.maxFrameSize(), settings.stringTableCapacity()
+        );
+    }
+
+    /**
+     * Completes the handshake after the handshake of the peer was received.
+     * <p>
+     * Stores the negotiated settings, sends the {@link HandshakeAckPacket} and
+     * enables the outbound string table if negotiated. Sending the acknowledgement
+     * and enabling the table happen while holding the lock of the networker, which
+     * {@link de.craftsblock.cnet.modules.packets.common.packet.PacketTransport#send(Networker, de.craftsblock.cnet.modules.packets.common.packet.Packet, de.craftsblock.cnet.modules.packets.common.packet.PacketTransport.FrameWriter) PacketTransport}
+     * holds while encoding and writing, so no other packet is sent in between.
+     * <p>
+     * The connection is closed with {@link #PROTOCOL_ERROR} if the protocol
+     * versions differ or if the peer sends more than one handshake. Handshakes
+     * are ignored if this peer has handshakes disabled, as the peer never
+     * receives a handshake to negotiate with in that case.
+     *
+     * @param networker The networker which received the handshake.
+     * @param remote    The handshake of the peer.
+     */
+    public static void complete(@NotNull Networker networker, @NotNull HandshakePacket remote) {
+        WebSocketPackets webSocketPackets = networker.getEnvironment().getWebSocketPackets();
+        HandshakeSettings settings = webSocketPackets.getHandshakeSettings();
+        if (settings == null) return;
+
+        ConnectionState state = networker.getConnectionState();
+        if (state.getNegotiatedSettings() != null) {
+            networker.disconnect(PROTOCOL_ERROR, "Received a second handshake!");
+            return;
+        }
+
+        if (remote.protocolVersion() != HandshakePacket.PROTOCOL_VERSION) {
+            networker.disconnect(PROTOCOL_ERROR, "Unsupported handshake protocol version %s! (Expected: %s)".formatted(
+                    remote.protocolVersion(), HandshakePacket.PROTOCOL_VERSION
+            ));
+            return;
+        }
+
+        PacketBundleSnapshot snapshot = state.getPinnedSnapshot();
+        if (snapshot == null) snapshot = webSocketPackets.getPacketBundleRegistry().getSnapshot();
+
+        NegotiatedSettings negotiated = negotiate(snapshot, settings, remote);
+        state.setNegotiatedSettings(negotiated);
+
+        if (settings.pinSnapshot())
+            state.pinSnapshot(snapshot);
+
+        synchronized (networker) {
+            networker.send(new HandshakeAckPacket());
+
+            if (negotiated.has(Capability.STRING_TABLES))
+                state.enableOutboundStringTable(negotiated.stringTableCapacity());
+        }
+    }
+
+    /**
+     * Applies the negotiated settings to the packets received by the networker,
+     * after the {@link HandshakeAckPacket} of the peer was received.
+     * <p>
+     * The connection is closed with {@link #PROTOCOL_ERROR} if the acknowledgement
+     * arrives before the handshake of the peer or more than once while string
+     * tables are negotiated. Acknowledgements are ignored if this peer has
+     * handshakes disabled.
+     *
+     * @param networker The networker which received the acknowledgement.
+     */
+    public static void acknowledge(@NotNull Networker networker) {
+        if (networker.getEnvironment().getWebSocketPackets().getHandshakeSettings() == null) return;
+
+        ConnectionState state = networker.getConnectionState();
+        NegotiatedSettings negotiated = state.getNegotiatedSettings();
+        if (negotiated == null) {
+            networker.disconnect(PROTOCOL_ERROR, "Received a handshake acknowledgement before the handshake!");
+            return;
+        }
+
+        if (!negotiated.has(Capability.STRING_TABLES)) return;
+
+        if (state.getInboundStringTable() != null) {
+            networker.disconnect(PROTOCOL_ERROR, "Received a second handshake acknowledgement!");
+            return;
+        }
+
+        state.enableInboundStringTable(negotiated.stringTableCapacity());
+    }
+
+    /**
+     * Negotiates the settings of a connection from the local and the remote offer.
+     *
+     * @param snapshot The local bundle snapshot.
+     * @param settings The local settings.
+     * @param remote   The handshake of the peer.
+     * @return The negotiated settings.
+     */
+    public static @NotNull NegotiatedSettings negotiate(@NotNull PacketBundleSnapshot snapshot,
+                                                        @NotNull HandshakeSettings settings,
+                                                        @NotNull HandshakePacket remote) {
+        Map<String, Integer> versions = new HashMap<>();
+        Set<String> mismatched = new HashSet<>();
+
+        for (FrozenPacketBundle bundle : snapshot.getBundles()) {
+            Integer remoteVersion = remote.bundleVersions().get(bundle.identifier());
+            if (remoteVersion == null) continue;
+
+            if (remoteVersion == bundle.version()) versions.put(bundle.identifier(), remoteVersion);
+            else mismatched.add(bundle.identifier());
+        }
+
+        return new NegotiatedSettings(
+                settings.capabilityMask() & remote.capabilities(),
+                Math.min(settings.maxFrameSize(), remote.maxFrameSize()),
+                Math.min(settings.stringTableCapacity(), remote.stringTableCapacity()),
+                Map.copyOf(versions), Set.copyOf(mismatched), snapshot.getEpoch()
+        );
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sent by a peer once it received the handshake of the other peer and applied
+ * the negotiated settings to the packets it sends.
+ * <p>
+ * Every packet sent after the acknowledgement is encoded with the negotiated
+ * settings, every packet sent before it without them. The receiver therefore
+ * applies the negotiated settings to the packets it receives exactly when the
+ * acknowledgement arrives, see {@link Handshake#acknowledge(Networker)}.
+ * The packet is part of the built-in {@link HandshakePacket#BUNDLE_IDENTIFIER handshake bundle}
+ * and has no content.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see Handshake
+ * @since 1.2.0
+ */
+public record HandshakeAckPacket() implements Packet {
+
+    /**
+     * Constructs a new {@link HandshakeAckPacket} by reading it from a {@link ByteBuffer}.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public HandshakeAckPacket(@NotNull ByteBuffer buffer) {
+        this();
+    }
+
+    /**
+     * Writes nothing, as the packet has no content.
+     *
+     * @param buffer The buffer to write the object's data into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+    }
+
+    /**
+     * Applies the negotiated settings to the packets received by the networker.
+     *
+     * @param networker The networker instance responsible for processing this packet.
+     * @see Handshake#acknowledge(Networker)
+     */
+    @Override
+    public void handle(Networker networker) {
+        Handshake.acknowledge(networker);
+    }
+
+}
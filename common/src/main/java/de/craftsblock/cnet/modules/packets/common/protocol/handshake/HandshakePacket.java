@@ -0,0 +1,117 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The first packet sent by both peers of a connection, announcing the
+ * protocol version, the known bundles with their versions and the offered
+ * {@link HandshakeSettings settings}.
+ * <p>
+ * The packet is part of the built-in {@link #BUNDLE_IDENTIFIER handshake bundle},
+ * which is registered in every
+ * {@link de.craftsblock.cnet.modules.packets.common.WebSocketPackets WebSocketPackets}
+ * instance. Strings are always written inline, as string tables are only
+ * enabled once the handshake was acknowledged through a {@link HandshakeAckPacket}.
+ *
+ * @param protocolVersion     The version of the handshake protocol.
+ * @param bundleVersions      The bundles known to the sender with their versions.
+ * @param capabilities        The mask of the capabilities offered by the sender.
+ * @param maxFrameSize        The maximum size of a frame the sender accepts in bytes.
+ * @param stringTableCapacity The string table capacity offered by the sender.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see Handshake
+ * @since 1.2.0
+ */
+public record HandshakePacket(int protocolVersion, @Unmodifiable @NotNull Map<String, Integer> bundleVersions,
+                              int capabilities, int maxFrameSize, int stringTableCapacity) implements Packet {
+
+    /**
+     * The identifier of the built-in handshake bundle.
+     */
+    public static final String BUNDLE_IDENTIFIER = "wsp-handshake";
+
+    /**
+     * The current version of the handshake protocol.
+     */
+    public static final int PROTOCOL_VERSION = 1;
+
+    /**
+     * Constructs a new {@link HandshakePacket} by reading it from a {@link ByteBuffer}.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public HandshakePacket(@NotNull ByteBuffer buffer) {
+        this(buffer.readVarInt(), readBundleVersions(buffer), buffer.readVarInt(), buffer.readVarInt(), buffer.readVarInt());
+    }
+
+    /**
+     * Writes the packet into the buffer.
+     *
+     * @param buffer The buffer to write the object's data into.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.writeVarInt(protocolVersion);
+
+        buffer.writeVarInt(bundleVersions.size());
+        bundleVersions.forEach((identifier, version) -> {
+            buffer.writeUTF(identifier);
+            buffer.writeVarInt(version);
+        });
+
+        buffer.writeVarInt(capabilities);
+        buffer.writeVarInt(maxFrameSize);
+        buffer.writeVarInt(stringTableCapacity);
+    }
+
+    /**
+     * Completes the handshake of the receiving networker.
+     *
+     * @param networker The networker instance responsible for processing this packet.
+     * @see Handshake#complete(Networker, HandshakePacket)
+     */
+    @Override
+    public void handle(Networker networker) {
+        Handshake.complete(networker, this);
+    }
+
+    /**
+     * Reads the announced bundle versions from the buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The bundle versions by identifier.
+     */
+    private static Map<String, Integer> readBundleVersions(ByteBuffer buffer) {
+        int size = buffer.readVarInt();
+        if (size < 0) throw new IllegalStateException("Negative bundle count " + size);
+
+        Map<String, Integer> versions = new HashMap<>(Math.min(size, 64) * 2);
+        for (int i = 0; i < size; i++)
+            versions.put(buffer.readUTF(), buffer.readVarInt());
+
+        return Map.copyOf(versions);
+    }
+
+    /**
+     * Creates the built-in handshake bundle.
+     *
+     * @return The handshake bundle.
+     */
+    public static @NotNull PacketBundle createBundle() {
+        return PacketBundle.create(BUNDLE_IDENTIFIER, PROTOCOL_VERSION)
+                .addPacket(HandshakePacket.class, HandshakePacket::new)
+                .addPacket(HandshakeAckPacket.class, HandshakeAckPacket::new)
+                .build();
+    }
+
+}
@@ -0,0 +1,95 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import de.craftsblock.cnet.modules.packets.common.networker.strings.StringTable;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The settings a peer offers during the handshake.
+ * <p>
+ * Handshakes are only exchanged if settings are configured through
+ * {@link de.craftsblock.cnet.modules.packets.common.WebSocketPackets#setHandshakeSettings(HandshakeSettings)},
+ * as peers without handshake support can not handle the handshake packet.
+ * Of the {@link Capability capabilities}, only {@link Capability#STRING_TABLES}
+ * is applied by this library itself, all others are negotiated for the use by
+ * extensions which check {@link NegotiatedSettings#has(Capability)}.
+ *
+ * @param capabilities        The capabilities offered to the peer.
+ * @param maxFrameSize        The maximum size of a frame this peer accepts in bytes.
+ * @param stringTableCapacity The capacity of the string tables if {@link Capability#STRING_TABLES} is negotiated.
+ * @param pinSnapshot         Whether connections should be pinned to the bundle snapshot
+ *                            which was current while the handshake completed.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see HandshakePacket
+ * @since 1.2.0
+ */
+public record HandshakeSettings(@NotNull Set<Capability> capabilities,
+                                @Range(from = 1, to = Integer.MAX_VALUE) int maxFrameSize,
+                                @Range(from = 1, to = StringTable.MAX_CAPACITY) int stringTableCapacity,
+                                boolean pinSnapshot) {
+
+    /**
+     * The default capacity of the string tables.
+     */
+    public static final int DEFAULT_STRING_TABLE_CAPACITY = 256;
+
+    /**
+     * Constructs new {@link HandshakeSettings} and validates the values.
+     *
+     * @param capabilities        The capabilities offered to the peer.
+     * @param maxFrameSize        The maximum size of a frame this peer accepts in bytes.
+     * @param stringTableCapacity The capacity of the string tables.
+     * @param pinSnapshot         Whether connections should be pinned to the bundle snapshot.
+     * @throws IllegalArgumentException If the frame size or the string table capacity is out of range.
+     */
+    public HandshakeSettings {
+        if (maxFrameSize < 1)
+            throw new IllegalArgumentException("The max frame size must be positive! (Got: %s)".formatted(maxFrameSize));
+
+        if (stringTableCapacity < 1 || stringTableCapacity > StringTable.MAX_CAPACITY)
+            throw new IllegalArgumentException("The string table capacity must be between 1 and %s! (Got: %s)".formatted(
+                    StringTable.MAX_CAPACITY, stringTableCapacity
+            ));
+
+        capabilities = Collections.unmodifiableSet(capabilities.isEmpty()
+                ? EnumSet.noneOf(Capability.class)
+                : EnumSet.copyOf(capabilities));
+    }
+
+    /**
+     * Creates the default settings, offering no capabilities and frames up to
+     * {@link PacketEncoder#MAX_PACKET_SIZE}, without pinning snapshots.
+     * <p>
+     * {@link Capability#STRING_TABLES} is not offered by default, as it requires
+     * both peers to encode and decode every packet through their networker. This
+     * is not the case for packets sent through the CraftsNet encoder of the addon,
+     * which does not know the connection it encodes for.
+     *
+     * @return The default settings.
+     */
+    public static @NotNull HandshakeSettings defaults() {
+        return new HandshakeSettings(
+                EnumSet.noneOf(Capability.class),
+                PacketEncoder.MAX_PACKET_SIZE,
+                DEFAULT_STRING_TABLE_CAPACITY,
+                false
+        );
+    }
+
+    /**
+     * Returns the offered capabilities as bit mask.
+     *
+     * @return The capability mask.
+     */
+    public int capabilityMask() {
+        return Capability.toMask(capabilities);
+    }
+
+}
@@ -0,0 +1,65 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.handshake;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The settings both peers of a connection agreed on during the handshake.
+ * <p>
+ * Stored in the {@link de.craftsblock.cnet.modules.packets.common.networker.ConnectionState ConnectionState}
+ * once the handshake of the peer was received, so that features can be
+ * enabled once per connection instead of being checked per packet.
+ *
+ * @param capabilities        The mask of the capabilities offered by both peers.
+ * @param maxFrameSize        The smaller of both maximum frame sizes.
+ * @param stringTableCapacity The smaller of both string table capacities.
+ * @param bundleVersions      The bundles known to both peers in the same version.
+ * @param mismatchedBundles   The bundles known to both peers in different versions.
+ * @param epoch               The epoch of the bundle snapshot the handshake was completed against.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see HandshakePacket
+ * @since 1.2.0
+ */
+public record NegotiatedSettings(int capabilities, int maxFrameSize, int stringTableCapacity,
+                                 @Unmodifiable @NotNull Map<String, Integer> bundleVersions,
+                                 @Unmodifiable @NotNull Set<String> mismatchedBundles,
+                                 long epoch) {
+
+    /**
+     * Checks whether a capability was negotiated.
+     *
+     * @param capability The capability to check.
+     * @return {@code true} if both peers offered the capability, {@code false} otherwise.
+     */
+    public boolean has(@NotNull Capability capability) {
+        return capability.isSet(capabilities);
+    }
+
+    /**
+     * Checks whether a bundle can be used on this connection, meaning that both
+     * peers know the bundle in the same version.
+     *
+     * @param identifier The identifier of the bundle.
+     * @return {@code true} if the bundle is usable, {@code false} otherwise.
+     */
+    public boolean isUsable(@NotNull String identifier) {
+        return bundleVersions.containsKey(identifier);
+    }
+
+    /**
+     * Checks whether both peers know a bundle in different versions. Packets
+     * of such bundles are neither sent nor decoded on this connection.
+     *
+     * @param identifier The identifier of the bundle.
+     * @return {@code true} if the versions of the bundle differ, {@code false} otherwise.
+     */
+    public boolean isMismatched(@NotNull String identifier) {
+        return !mismatchedBundles.isEmpty() && mismatchedBundles.contains(identifier);
+    }
+
+}
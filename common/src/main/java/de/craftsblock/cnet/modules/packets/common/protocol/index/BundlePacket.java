@@ -0,0 +1,62 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.index;
+
+import org.jetbrains.annotations.Range;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a packet to a bundle and a stable wire ID at compile time.
+ * <p>
+ * With the {@code processor} module on the annotation processor path, all
+ * annotated packets of a compilation are collected into a generated
+ * {@link PacketIndexProvider}, which is announced through
+ * {@code META-INF/services}. The bundles can then be loaded through
+ * {@link PacketIndex#load(ClassLoader, de.craftsblock.cnet.modules.packets.common.WebSocketPackets)}
+ * without any classpath scanning.
+ * <p>
+ * The deserializer of an annotated packet is resolved in the following order:
+ * <ol>
+ *     <li>The generated serializer, if the packet is a record annotated with
+ *     {@link de.craftsblock.cnet.modules.packets.common.serialization.PacketSerializable},</li>
+ *     <li>A public constructor taking a single {@link de.craftsblock.craftsnet.utils.ByteBuffer},</li>
+ *     <li>A public static method {@code read(ByteBuffer)} returning the packet.</li>
+ * </ol>
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketIndexProvider
+ * @since 1.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface BundlePacket {
+
+    /**
+     * The identifier of the bundle the packet belongs to.
+     *
+     * @return The bundle identifier, matching {@code [a-z0-9-_]+}.
+     */
+    String bundle();
+
+    /**
+     * The stable wire ID of the packet inside its bundle.
+     *
+     * @return The packet ID.
+     */
+    @Range(from = 0, to = 0xFFFF) int id();
+
+    /**
+     * The version of the bundle. All packets of a bundle have to declare
+     * the same version.
+     *
+     * @return The bundle version.
+     */
+    @Range(from = 0, to = Integer.MAX_VALUE) int version() default 0;
+
+}
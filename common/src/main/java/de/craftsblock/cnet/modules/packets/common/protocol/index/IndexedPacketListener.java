@@ -0,0 +1,28 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.index;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds a {@link de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListener}
+ * to the generated {@link PacketIndexProvider}.
+ * <p>
+ * The annotated class must be public and provide a public no-args constructor.
+ * It is instantiated and registered once the index is loaded through
+ * {@link PacketIndex#load(ClassLoader, de.craftsblock.cnet.modules.packets.common.WebSocketPackets)}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see BundlePacket
+ * @since 1.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface IndexedPacketListener {
+
+}
@@ -0,0 +1,49 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.index;
+
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ServiceLoader;
+
+/**
+ * Loads the {@link PacketIndexProvider packet indexes} generated at compile time.
+ * <p>
+ * The providers are looked up through the {@code META-INF/services} entries
+ * written by the annotation processor, so neither the classpath is scanned
+ * nor are packets or listeners inspected through reflection.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketIndexProvider
+ * @since 1.2.0
+ */
+public final class PacketIndex {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PacketIndex() {
+    }
+
+    /**
+     * Registers the bundles and listeners of all indexes visible to the class loader.
+     *
+     * @param loader           The class loader to look up the indexes with.
+     * @param webSocketPackets The {@link WebSocketPackets} instance to register into.
+     * @return The amount of loaded indexes.
+     * @throws IllegalStateException If a bundle identifier is already in use.
+     */
+    public static int load(@NotNull ClassLoader loader, @NotNull WebSocketPackets webSocketPackets) {
+        int loaded = 0;
+
+        for (PacketIndexProvider provider : ServiceLoader.load(PacketIndexProvider.class, loader)) {
+            provider.registerBundles(webSocketPackets.getPacketBundleRegistry());
+            provider.registerListeners(webSocketPackets.getPacketListenerRegistry());
+            loaded++;
+        }
+
+        return loaded;
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.index;
+
+import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListenerRegistry;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Provides packet bundles and listeners collected at compile time.
+ * <p>
+ * Implementations are generated by the {@code processor} module from
+ * {@link BundlePacket} and {@link IndexedPacketListener} annotations and
+ * announced through {@code META-INF/services}, so that {@link PacketIndex}
+ * can find them through a {@link java.util.ServiceLoader}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketIndex
+ * @since 1.2.0
+ */
+public interface PacketIndexProvider {
+
+    /**
+     * Registers all bundles of this index which are not registered yet.
+     *
+     * @param registry The registry to register the bundles in.
+     */
+    void registerBundles(@NotNull PacketBundleRegistry registry);
+
+    /**
+     * Registers all listeners of this index which are not registered yet.
+     *
+     * @param registry The registry to register the listeners in.
+     */
+    void registerListeners(@NotNull PacketListenerRegistry registry);
+
+}
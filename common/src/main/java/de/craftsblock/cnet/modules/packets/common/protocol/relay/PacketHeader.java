@@ -0,0 +1,53 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.relay;
+
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The header of an encoded packet, consisting of the bundle identifier and
+ * the packet ID.
+ * <p>
+ * Headers are peeked from the raw frame without touching the payload, which
+ * allows frames to be routed before, or instead of, being decoded.
+ *
+ * @param bundle        The identifier of the bundle.
+ * @param id            The ID of the packet within its bundle.
+ * @param payloadOffset The offset of the payload within the frame.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketRelay
+ * @since 1.2.0
+ */
+public record PacketHeader(@NotNull String bundle, int id, int payloadOffset) {
+
+    /**
+     * Reads the header of an encoded packet.
+     *
+     * @param buffer The buffer positioned at the start of the packet.
+     * @return The read header.
+     */
+    public static @NotNull PacketHeader read(@NotNull ByteBuffer buffer) {
+        int start = buffer.readerIndex();
+        String bundle = buffer.readUTF();
+        int id = buffer.readVarInt();
+
+        return new PacketHeader(bundle, id, buffer.readerIndex() - start);
+    }
+
+    /**
+     * Peeks the header of an encoded frame.
+     *
+     * @param frame The raw frame.
+     * @return The header, or {@code null} if the frame does not contain a complete header.
+     */
+    public static @Nullable PacketHeader peek(byte @NotNull [] frame) {
+        try {
+            return read(new ByteBuffer(frame, true));
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.relay;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Forwards frames of bundles which are not owned by this node to another
+ * {@link Networker} without decoding them.
+ * <p>
+ * Only the header of a frame is peeked for routing. The frame is forwarded
+ * as the original bytes through {@link PacketTransport#sendRaw(Networker, byte[], PacketTransport.FrameWriter)},
+ * so its payload is neither copied nor encoded again, while it is still captured
+ * and counted as outbound frame of the target. Bundles registered in the
+ * snapshot of the receiving connection are never relayed.
+ * <p>
+ * The bodies of relayed frames are opaque to this node, so frames can only be
+ * relayed between connections which do not use string tables. A frame read
+ * from a connection with an inbound string table would leave the table behind
+ * the one of the sender, and a frame sent to a connection with an outbound
+ * string table would not contain the references its receiver expects. Decoding
+ * and encoding such frames again does not help either, as only the bundle which
+ * owns a packet knows which of its strings went through the table. Pinned
+ * snapshots on the other hand do not matter, as the header of a relayed frame
+ * names its bundle and the packet IDs are assigned by the bundle itself.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see RelayRouter
+ * @since 1.2.0
+ */
+public final class PacketRelay {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PacketRelay() {
+    }
+
+    /**
+     * Tries to relay a received frame through the {@link RelayRouter} of the
+     * environment of the receiving networker.
+     *
+     * @param source The networker which received the frame.
+     * @param frame  The complete raw frame.
+     * @return {@code true} if the frame was forwarded, {@code false} if it has to be processed locally.
+     * @throws IllegalStateException If the frame is routed from or to a connection using string tables.
+     */
+    public static boolean tryRelay(@NotNull Networker source, byte @NotNull [] frame) {
+        RelayRouter router = source.getEnvironment().getRelayRouter();
+        if (router == null) return false;
+
+        PacketHeader header = PacketHeader.peek(frame);
+        if (header == null) return false;
+
+        PacketBundleSnapshot snapshot = source.getConnectionState().getPinnedSnapshot();
+        if (snapshot == null) snapshot = source.getEnvironment().getPacketBundleRegistry().getSnapshot();
+        if (snapshot.getBundle(header.bundle()) != null) return false;
+
+        Networker target = router.route(source, header);
+        if (target == null) return false;
+
+        if (source.getConnectionState().getInboundStringTable() != null || target.getConnectionState().getOutboundStringTable() != null)
+            throw new IllegalStateException("Can not relay packet %s#%s between connections using string tables!".formatted(
+                    header.bundle(), header.id()
+            ));
+
+        PacketTransport.sendRaw(target, frame, target::sendRaw);
+        return true;
+    }
+
+}
@@ -0,0 +1,31 @@
+package de.craftsblock.cnet.modules.packets.common.protocol.relay;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides where frames of bundles which are not owned by this node are forwarded to.
+ * <p>
+ * Routers are consulted for every frame whose bundle is unknown to the
+ * receiving connection and must therefore be cheap, they must not block.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketRelay
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface RelayRouter {
+
+    /**
+     * Resolves the target of a frame.
+     *
+     * @param source The networker which received the frame.
+     * @param header The peeked header of the frame.
+     * @return The networker to forward the frame to, or {@code null} to process the frame locally.
+     */
+    @Nullable Networker route(@NotNull Networker source, @NotNull PacketHeader header);
+
+}
@@ -65,8 +65,8 @@ public class InheritIgnoredTypeRegistry<T> implements Registry<T> {
     @Override
     @SuppressWarnings("unchecked")
     public <R extends T> R getOrDefault(@NotNull Class<? extends R> key, @Nullable R fallback) {
-        if (storage.containsKey(key)) return (R) storage.get(key);
-        return fallback;
+        T value = storage.get(key);
+        return value != null ? (R) value : fallback;
     }
 
     /**
@@ -0,0 +1,51 @@
+package de.craftsblock.cnet.modules.packets.common.serialization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record whose serializer should be generated at compile time.
+ * <p>
+ * With the {@code processor} module on the annotation processor path, a
+ * final class named {@code <Record>Serializer} is generated next to the
+ * annotated record (for nested records the enclosing simple names are joined
+ * with {@code _}). The generated class contains the static methods
+ * {@code write(Record, ByteBuffer)} and {@code read(ByteBuffer)}, which write
+ * and read the components in declaration order without any reflection.
+ * <pre>{@code
+ * @PacketSerializable
+ * public record ChatPacket(String sender, String message, Optional<UUID> target) implements Packet {
+ *
+ *     @Override
+ *     public void write(@NotNull ByteBuffer buffer) {
+ *         ChatPacketSerializer.write(this, buffer);
+ *     }
+ *
+ * }
+ *
+ * bundle.addPacket(ChatPacket.class, ChatPacketSerializer::read);
+ * }</pre>
+ * Supported component types are:
+ * <ul>
+ *     <li>All primitives and their wrapper types,</li>
+ *     <li>{@link String} (written through the string tables),</li>
+ *     <li>{@link java.util.UUID}, enums and {@code byte[]},</li>
+ *     <li>Other records annotated with {@link PacketSerializable},</li>
+ *     <li>{@link java.util.List} and {@link java.util.Optional} of any supported type.</li>
+ * </ul>
+ * Components must not be {@code null}, use {@link java.util.Optional} for optional values.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface PacketSerializable {
+
+}
@@ -0,0 +1,365 @@
+package de.craftsblock.cnet.modules.packets.common.serialization;
+
+import de.craftsblock.cnet.modules.packets.common.packet.BufferWritable;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Serializes records at runtime without any code generation.
+ * <p>
+ * The components of a record are inspected exactly once, when the serializer
+ * is first requested through {@link #of(Class)}. Each component accessor is
+ * turned into a functional interface through the {@link LambdaMetafactory}
+ * (or, if the record is not accessible with full privileges, into a
+ * {@link MethodHandle}) and the canonical constructor is bound as a spreading
+ * {@link MethodHandle}. Writing and reading a record therefore never touches the
+ * reflection API and primitive components are written without being boxed.
+ * <p>
+ * The wire format is identical to the serializers generated for records
+ * annotated with {@link PacketSerializable}, including the supported
+ * component types. Any record is accepted as nested component, the annotation
+ * is not required at runtime.
+ * <pre>{@code
+ * public record ChatPacket(String sender, String message) implements Packet, RecordWritable {
+ * }
+ *
+ * bundle.addPacket(ChatPacket.class, RecordSerializer.of(ChatPacket.class));
+ * }</pre>
+ *
+ * @param <R> The type of the record.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see RecordWritable
+ * @see PacketSerializable
+ * @since 1.2.0
+ */
+public final class RecordSerializer<R extends Record> implements Function<ByteBuffer, R> {
+
+    private static final ClassValue<RecordSerializer<?>> SERIALIZERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected RecordSerializer<?> computeValue(@NotNull Class<?> type) {
+            if (!type.isRecord())
+                throw new IllegalArgumentException("%s is not a record!".formatted(type.getName()));
+
+            return new RecordSerializer(type);
+        }
+    };
+
+    private final @NotNull Class<R> type;
+    private final @NotNull Component[] components;
+    private final @NotNull MethodHandle constructor;
+
+    /**
+     * Constructs a new {@link RecordSerializer} by inspecting the components of the record.
+     *
+     * @param type The type of the record.
+     */
+    private RecordSerializer(@NotNull Class<R> type) {
+        this.type = type;
+
+        MethodHandles.Lookup lookup = lookup(type);
+        RecordComponent[] recordComponents = type.getRecordComponents();
+
+        this.components = new Component[recordComponents.length];
+        Class<?>[] parameters = new Class<?>[recordComponents.length];
+
+        try {
+            for (int i = 0; i < recordComponents.length; i++) {
+                RecordComponent component = recordComponents[i];
+                parameters[i] = component.getType();
+                components[i] = component(lookup, component);
+            }
+
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameters))
+                    .asSpreader(Object[].class, parameters.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not access the record %s!".formatted(type.getName()), e);
+        }
+    }
+
+    /**
+     * Returns the serializer of a record, creating and caching it on first use.
+     *
+     * @param type The type of the record.
+     * @param <R>  The type of the record.
+     * @return The serializer of the record.
+     * @throws IllegalArgumentException If a component of the record has an unsupported type.
+     * @throws IllegalStateException    If the record can not be accessed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> @NotNull RecordSerializer<R> of(@NotNull Class<R> type) {
+        return (RecordSerializer<R>) SERIALIZERS.get(type);
+    }
+
+    /**
+     * Writes a record into the buffer using the serializer of its runtime type.
+     *
+     * @param record The record to write.
+     * @param buffer The buffer to write into.
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeRecord(@NotNull Record record, @NotNull ByteBuffer buffer) {
+        ((RecordSerializer<Record>) SERIALIZERS.get(record.getClass())).write(record, buffer);
+    }
+
+    /**
+     * Writes the components of a record into the buffer.
+     *
+     * @param record The record to write.
+     * @param buffer The buffer to write into.
+     */
+    public void write(@NotNull R record, @NotNull ByteBuffer buffer) {
+        for (Component component : components)
+            component.writer().write(record, buffer);
+    }
+
+    /**
+     * Reads a record from the buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read record.
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull R read(@NotNull ByteBuffer buffer) {
+        Object[] arguments = new Object[components.length];
+        for (int i = 0; i < arguments.length; i++)
+            arguments[i] = components[i].reader().read(buffer);
+
+        try {
+            return (R) (Object) constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not construct the record %s!".formatted(type.getName()), e);
+        }
+    }
+
+    /**
+     * Reads a record from the buffer. Allows the serializer to be passed directly
+     * as deserializer to {@link de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleBuilder#addPacket(Class, Function)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read record.
+     */
+    @Override
+    public @NotNull R apply(@NotNull ByteBuffer buffer) {
+        return read(buffer);
+    }
+
+    /**
+     * Wraps a record into a {@link BufferWritable} which writes it through this serializer.
+     *
+     * @param record The record to wrap.
+     * @return The {@link BufferWritable}.
+     */
+    public @NotNull BufferWritable writable(@NotNull R record) {
+        return buffer -> write(record, buffer);
+    }
+
+    /**
+     * Gets the type of the record this serializer handles.
+     *
+     * @return The type of the record.
+     */
+    public @NotNull Class<R> getType() {
+        return type;
+    }
+
+    /**
+     * Creates the lookup used to access the accessors and the canonical constructor of the record.
+     *
+     * @param type The type of the record.
+     * @return The lookup.
+     */
+    private static MethodHandles.Lookup lookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * Creates the writer and reader for a single record component.
+     *
+     * @param lookup    The lookup to access the accessor with.
+     * @param component The record component.
+     * @return The created {@link Component}.
+     * @throws ReflectiveOperationException If the accessor can not be accessed.
+     */
+    private static Component component(MethodHandles.Lookup lookup, RecordComponent component) throws ReflectiveOperationException {
+        Class<?> type = component.getType();
+        MethodHandle getter = lookup.unreflect(component.getAccessor());
+
+        if (type == boolean.class) {
+            Predicate<Object> accessor = accessor(lookup, getter, Predicate.class, "test", boolean.class);
+            return new Component((record, buffer) -> buffer.writeBoolean(accessor.test(record)), ValueCodec.PrimitiveCodec.BOOLEAN);
+        }
+
+        if (type == byte.class || type == short.class || type == char.class || type == int.class) {
+            ToIntFunction<Object> accessor = accessor(lookup, getter, ToIntFunction.class, "applyAsInt", int.class);
+
+            if (type == byte.class)
+                return new Component((record, buffer) -> buffer.writeByte((byte) accessor.applyAsInt(record)), ValueCodec.PrimitiveCodec.BYTE);
+            if (type == short.class || type == char.class)
+                return new Component((record, buffer) -> buffer.writeShort((short) accessor.applyAsInt(record)),
+                        type == short.class ? ValueCodec.PrimitiveCodec.SHORT : ValueCodec.PrimitiveCodec.CHAR);
+
+            return new Component((record, buffer) -> buffer.writeInt(accessor.applyAsInt(record)), ValueCodec.PrimitiveCodec.INT);
+        }
+
+        if (type == long.class) {
+            ToLongFunction<Object> accessor = accessor(lookup, getter, ToLongFunction.class, "applyAsLong", long.class);
+            return new Component((record, buffer) -> buffer.writeLong(accessor.applyAsLong(record)), ValueCodec.PrimitiveCodec.LONG);
+        }
+
+        if (type == float.class || type == double.class) {
+            ToDoubleFunction<Object> accessor = accessor(lookup, getter, ToDoubleFunction.class, "applyAsDouble", double.class);
+
+            if (type == float.class)
+                return new Component((record, buffer) -> buffer.writeFloat((float) accessor.applyAsDouble(record)), ValueCodec.PrimitiveCodec.FLOAT);
+            return new Component((record, buffer) -> buffer.writeDouble(accessor.applyAsDouble(record)), ValueCodec.PrimitiveCodec.DOUBLE);
+        }
+
+        ValueCodec codec = ValueCodec.of(component.getGenericType());
+        Function<Object, Object> accessor = accessor(lookup, getter, Function.class, "apply", Object.class);
+        String name = component.getName();
+
+        return new Component((record, buffer) -> {
+            Object value = accessor.apply(record);
+            if (value == null)
+                throw new IllegalStateException("The component %s of %s must not be null!".formatted(
+                        name, record.getClass().getName()
+                ));
+
+            codec.write(value, buffer);
+        }, codec);
+    }
+
+    /**
+     * Turns a record accessor into an instance of a functional interface.
+     * <p>
+     * The {@link LambdaMetafactory} is used whenever the lookup has full privilege
+     * access to the record, so that the accessor can be inlined like a regular
+     * method call. Otherwise the accessor is invoked through its {@link MethodHandle}.
+     *
+     * @param lookup     The lookup to access the accessor with.
+     * @param getter     The accessor of the component.
+     * @param functional The functional interface to implement.
+     * @param method     The name of the functional method.
+     * @param returnType The (erased) return type of the functional method.
+     * @param <T>        The type of the functional interface.
+     * @return The implementation of the functional interface.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T accessor(MethodHandles.Lookup lookup, MethodHandle getter, Class<?> functional,
+                                  String method, Class<?> returnType) {
+        if (lookup.hasFullPrivilegeAccess())
+            try {
+                MethodType instantiated = MethodType.methodType(
+                        returnType == Object.class ? getter.type().returnType() : returnType,
+                        getter.type().parameterType(0)
+                );
+
+                return (T) LambdaMetafactory.metafactory(
+                        lookup, method, MethodType.methodType(functional),
+                        MethodType.methodType(returnType, Object.class), getter, instantiated
+                ).getTarget().invoke();
+            } catch (Throwable ignored) {
+                // Fall back to invoking the method handle
+            }
+
+        MethodHandle handle = getter.asType(MethodType.methodType(returnType, Object.class));
+        if (returnType == boolean.class) return (T) (Predicate<Object>) record -> {
+            try {
+                return (boolean) handle.invokeExact(record);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+
+        if (returnType == int.class) return (T) (ToIntFunction<Object>) record -> {
+            try {
+                return (int) handle.invokeExact(record);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+
+        if (returnType == long.class) return (T) (ToLongFunction<Object>) record -> {
+            try {
+                return (long) handle.invokeExact(record);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+
+        if (returnType == double.class) return (T) (ToDoubleFunction<Object>) record -> {
+            try {
+                return (double) handle.invokeExact(record);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+
+        return (T) (Function<Object, Object>) record -> {
+            try {
+                return (Object) handle.invokeExact(record);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * Rethrows unchecked exceptions and wraps checked ones.
+     *
+     * @param throwable The throwable thrown by an accessor.
+     * @return Never returns, declared to allow {@code throw rethrow(e)}.
+     */
+    private static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException runtime) throw runtime;
+        if (throwable instanceof Error error) throw error;
+        throw new IllegalStateException("Could not access a record component!", throwable);
+    }
+
+    /**
+     * Writes a single component of a record.
+     */
+    @FunctionalInterface
+    private interface ComponentWriter {
+
+        /**
+         * Writes the component of the record into the buffer.
+         *
+         * @param record The record to read the component from.
+         * @param buffer The buffer to write into.
+         */
+        void write(Object record, ByteBuffer buffer);
+
+    }
+
+    /**
+     * The writer and reader of a single record component.
+     *
+     * @param writer The writer of the component.
+     * @param reader The codec used to read the component.
+     */
+    private record Component(ComponentWriter writer, ValueCodec reader) {
+    }
+
+}
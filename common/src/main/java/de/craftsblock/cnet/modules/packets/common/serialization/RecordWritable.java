@@ -0,0 +1,33 @@
+package de.craftsblock.cnet.modules.packets.common.serialization;
+
+import de.craftsblock.cnet.modules.packets.common.packet.BufferWritable;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link BufferWritable} for records which writes its components through the
+ * {@link RecordSerializer} of the implementing record.
+ * <p>
+ * Implementing this interface on a record packet removes the need to implement
+ * {@link #write(ByteBuffer)} manually. It must only be implemented by records.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see RecordSerializer
+ * @since 1.2.0
+ */
+public interface RecordWritable extends BufferWritable {
+
+    /**
+     * Writes the components of this record into the buffer.
+     *
+     * @param buffer The buffer to write the object's data into.
+     * @throws ClassCastException If the implementing class is not a record.
+     */
+    @Override
+    default void write(@NotNull ByteBuffer buffer) {
+        RecordSerializer.writeRecord((Record) this, buffer);
+    }
+
+}
@@ -0,0 +1,388 @@
+package de.craftsblock.cnet.modules.packets.common.serialization;
+
+import de.craftsblock.cnet.modules.packets.common.networker.strings.StringTables;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes and reads a single value of a reference type for the {@link RecordSerializer}.
+ * <p>
+ * The wire format of every codec matches the code generated for records
+ * annotated with {@link PacketSerializable}, so both serializers can be used
+ * interchangeably on either side of a connection.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see RecordSerializer
+ * @since 1.2.0
+ */
+interface ValueCodec {
+
+    /**
+     * Writes a value into the buffer.
+     *
+     * @param value  The value to write.
+     * @param buffer The buffer to write into.
+     */
+    void write(Object value, @NotNull ByteBuffer buffer);
+
+    /**
+     * Reads a value from the buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read value.
+     */
+    Object read(@NotNull ByteBuffer buffer);
+
+    /**
+     * Creates the codec for a (possibly parameterized) type.
+     *
+     * @param type The type to create the codec for.
+     * @return The codec.
+     * @throws IllegalArgumentException If the type is not supported.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ValueCodec of(Type type) {
+        if (type instanceof WildcardType wildcard)
+            return of(wildcard.getUpperBounds()[0]);
+
+        if (type instanceof ParameterizedType parameterized) {
+            Type raw = parameterized.getRawType();
+            Type argument = parameterized.getActualTypeArguments()[0];
+
+            if (raw == List.class) return new ListCodec(of(argument));
+            if (raw == Optional.class) return new OptionalCodec(of(argument));
+            throw unsupported(type);
+        }
+
+        if (type instanceof GenericArrayType || !(type instanceof Class<?> raw))
+            throw unsupported(type);
+
+        if (raw == Boolean.class) return PrimitiveCodec.BOOLEAN;
+        if (raw == Byte.class) return PrimitiveCodec.BYTE;
+        if (raw == Short.class) return PrimitiveCodec.SHORT;
+        if (raw == Character.class) return PrimitiveCodec.CHAR;
+        if (raw == Integer.class) return PrimitiveCodec.INT;
+        if (raw == Long.class) return PrimitiveCodec.LONG;
+        if (raw == Float.class) return PrimitiveCodec.FLOAT;
+        if (raw == Double.class) return PrimitiveCodec.DOUBLE;
+        if (raw == String.class) return StringCodec.INSTANCE;
+        if (raw == UUID.class) return UUIDCodec.INSTANCE;
+        if (raw == byte[].class) return ByteArrayCodec.INSTANCE;
+        if (raw.isEnum()) return new EnumCodec(raw);
+        if (raw.isRecord()) return new RecordCodec((Class<? extends Record>) raw);
+
+        if (raw == List.class || raw == Optional.class)
+            throw new IllegalArgumentException("Raw type %s is not supported!".formatted(raw.getName()));
+
+        throw unsupported(type);
+    }
+
+    /**
+     * Creates the exception for an unsupported type.
+     *
+     * @param type The unsupported type.
+     * @return The exception.
+     */
+    private static IllegalArgumentException unsupported(Type type) {
+        return new IllegalArgumentException("Unsupported type %s!".formatted(type.getTypeName()));
+    }
+
+    /**
+     * Codecs for the wrapper types of primitives.
+     */
+    enum PrimitiveCodec implements ValueCodec {
+
+        BOOLEAN {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeBoolean((Boolean) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readBoolean();
+            }
+        },
+        BYTE {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeByte((Byte) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readByte();
+            }
+        },
+        SHORT {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeShort((Short) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readShort();
+            }
+        },
+        CHAR {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeShort((short) (char) (Character) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return (char) buffer.readShort();
+            }
+        },
+        INT {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeInt((Integer) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readInt();
+            }
+        },
+        LONG {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeLong((Long) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readLong();
+            }
+        },
+        FLOAT {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeFloat((Float) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readFloat();
+            }
+        },
+        DOUBLE {
+            @Override
+            public void write(Object value, @NotNull ByteBuffer buffer) {
+                buffer.writeDouble((Double) value);
+            }
+
+            @Override
+            public Object read(@NotNull ByteBuffer buffer) {
+                return buffer.readDouble();
+            }
+        }
+
+    }
+
+    /**
+     * Codec for strings, written through the {@link StringTables}.
+     */
+    enum StringCodec implements ValueCodec {
+
+        INSTANCE;
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            StringTables.writeString(buffer, (String) value);
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            return StringTables.readString(buffer);
+        }
+
+    }
+
+    /**
+     * Codec for {@link UUID UUIDs}, written as two longs.
+     */
+    enum UUIDCodec implements ValueCodec {
+
+        INSTANCE;
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            UUID uuid = (UUID) value;
+            buffer.writeLong(uuid.getMostSignificantBits());
+            buffer.writeLong(uuid.getLeastSignificantBits());
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            return new UUID(buffer.readLong(), buffer.readLong());
+        }
+
+    }
+
+    /**
+     * Codec for byte arrays, written with a var int length prefix.
+     */
+    enum ByteArrayCodec implements ValueCodec {
+
+        INSTANCE;
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            byte[] bytes = (byte[]) value;
+            buffer.writeVarInt(bytes.length);
+            buffer.write(bytes);
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            return buffer.readNBytes(buffer.readVarInt());
+        }
+
+    }
+
+    /**
+     * Codec for enums, written as var int ordinal.
+     *
+     * @param type      The enum type.
+     * @param constants The cached enum constants.
+     */
+    record EnumCodec(Class<?> type, Object[] constants) implements ValueCodec {
+
+        /**
+         * Constructs a new {@link EnumCodec} and caches the constants of the enum.
+         *
+         * @param type The enum type.
+         */
+        EnumCodec(Class<?> type) {
+            this(type, type.getEnumConstants());
+        }
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            buffer.writeVarInt(((Enum<?>) value).ordinal());
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            int ordinal = buffer.readVarInt();
+            if (ordinal < 0 || ordinal >= constants.length)
+                throw new IllegalStateException("Invalid ordinal %s for %s".formatted(ordinal, type.getName()));
+
+            return constants[ordinal];
+        }
+
+    }
+
+    /**
+     * Codec for lists, written with a var int size prefix.
+     *
+     * @param element The codec of the elements.
+     */
+    record ListCodec(ValueCodec element) implements ValueCodec {
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            List<?> list = (List<?>) value;
+            int size = list.size();
+
+            buffer.writeVarInt(size);
+            for (int i = 0; i < size; i++)
+                element.write(list.get(i), buffer);
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            int size = buffer.readVarInt();
+            if (size < 0) throw new IllegalStateException("Negative list size " + size);
+
+            List<Object> list = new ArrayList<>(Math.min(size, 256));
+            for (int i = 0; i < size; i++)
+                list.add(element.read(buffer));
+
+            return list;
+        }
+
+    }
+
+    /**
+     * Codec for optionals, written as presence flag followed by the value.
+     *
+     * @param element The codec of the value.
+     */
+    record OptionalCodec(ValueCodec element) implements ValueCodec {
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            Optional<?> optional = (Optional<?>) value;
+            buffer.writeBoolean(optional.isPresent());
+            if (optional.isPresent()) element.write(optional.get(), buffer);
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            if (!buffer.readBoolean()) return Optional.empty();
+            return Optional.of(element.read(buffer));
+        }
+
+    }
+
+    /**
+     * Codec for nested records. The serializer of the nested record is resolved
+     * on first use, which allows records to reference themselves.
+     */
+    final class RecordCodec implements ValueCodec {
+
+        private final Class<? extends Record> type;
+        private volatile RecordSerializer<Record> serializer;
+
+        /**
+         * Constructs a new {@link RecordCodec}.
+         *
+         * @param type The nested record type.
+         */
+        RecordCodec(Class<? extends Record> type) {
+            this.type = type;
+        }
+
+        /**
+         * Returns the serializer of the nested record.
+         *
+         * @return The serializer.
+         */
+        @SuppressWarnings("unchecked")
+        private RecordSerializer<Record> serializer() {
+            RecordSerializer<Record> serializer = this.serializer;
+            if (serializer == null)
+                this.serializer = serializer = (RecordSerializer<Record>) RecordSerializer.of(type);
+
+            return serializer;
+        }
+
+        @Override
+        public void write(Object value, @NotNull ByteBuffer buffer) {
+            serializer().write((Record) value, buffer);
+        }
+
+        @Override
+        public Object read(@NotNull ByteBuffer buffer) {
+            return serializer().read(buffer);
+        }
+
+    }
+
+}
@@ -2,10 +2,12 @@ package de.craftsblock.cnet.modules.packets.addon;
 
 import de.craftsblock.cnet.modules.packets.addon.autoregister.PacketListenerAutoRegisterHandler;
 import de.craftsblock.cnet.modules.packets.addon.codec.CraftsNetPacketEncoder;
+import de.craftsblock.cnet.modules.packets.addon.metrics.PrometheusMetricsRoute;
 import de.craftsblock.cnet.modules.packets.addon.networking.CraftsNetEnvironment;
 import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
 import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
 import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
+import de.craftsblock.cnet.modules.packets.common.protocol.index.PacketIndex;
 import de.craftsblock.craftsnet.addon.Addon;
 import de.craftsblock.craftsnet.addon.meta.annotations.Meta;
 import org.jetbrains.annotations.NotNull;
@@ -23,6 +25,7 @@ import org.jetbrains.annotations.Nullable;
 public class WebSocketPacketsAddon extends Addon {
 
     private @Nullable Environment environment;
+    private @Nullable PrometheusMetricsRoute metricsRoute;
     private final @NotNull WebSocketPackets webSocketPackets;
 
     /**
@@ -35,35 +38,65 @@ public class WebSocketPacketsAddon extends Addon {
     /**
      * Called when the addon is loaded.
      * <p>
-     * Initializes the {@link WebSocketPackets} system, registers automatic
-     * packet listener handlers, and registers a custom {@link PacketEncoder}.
+     * Initializes the {@link WebSocketPackets} system, loads the packet indexes
+     * bundled with this addon, registers automatic packet listener handlers,
+     * and registers a custom {@link PacketEncoder}. If enabled through
+     * {@link PrometheusMetricsRoute#ENABLED_PROPERTY}, the metrics route is registered as well.
      * </p>
      */
     @Override
     public void onLoad() {
         this.webSocketPackets.onLoad();
         this.environment = new CraftsNetEnvironment(this);
+        this.loadPacketIndex(this);
 
         this.getAutoRegisterRegistry().register(
                 new PacketListenerAutoRegisterHandler(this.getCraftsNet(), this.webSocketPackets)
         );
         this.getWebSocketEncoderRegistry().register(new CraftsNetPacketEncoder(
-                new PacketEncoder(this.webSocketPackets)
+                this.webSocketPackets.getPacketEncoder()
         ));
+
+        if (PrometheusMetricsRoute.isEnabled()) {
+            this.metricsRoute = new PrometheusMetricsRoute(this.webSocketPackets);
+            this.getRouteRegistry().register(this.metricsRoute);
+        }
     }
 
     /**
      * Called when the addon is disabled.
      * <p>
-     * Shuts down the {@link WebSocketPackets} system to release resources.
+     * Unregisters the metrics route and shuts down the {@link WebSocketPackets}
+     * system to release resources.
      * </p>
      */
     @Override
     public void onDisable() {
+        if (this.metricsRoute != null) {
+            this.getRouteRegistry().unregister(this.metricsRoute);
+            this.metricsRoute = null;
+        }
+
         this.webSocketPackets.onDisable();
         this.environment = null;
     }
 
+    /**
+     * Loads the packet indexes generated at compile time which are visible to
+     * the class loader of the given addon.
+     * <p>
+     * Addons shipping packets annotated with
+     * {@link de.craftsblock.cnet.modules.packets.common.protocol.index.BundlePacket BundlePacket}
+     * should call this method while loading, so that their bundles and listeners
+     * are registered without classpath scanning.
+     *
+     * @param addon The addon whose class loader is used to look up the indexes.
+     * @return The amount of loaded indexes.
+     */
+    public int loadPacketIndex(@NotNull Addon addon) {
+        return PacketIndex.load(addon.getClass().getClassLoader(), this.webSocketPackets);
+    }
+
     /**
      * Returns the {@link Environment} provided by this addon.
      *
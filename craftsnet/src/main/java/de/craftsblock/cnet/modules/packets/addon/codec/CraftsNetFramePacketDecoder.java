@@ -0,0 +1,41 @@
+package de.craftsblock.cnet.modules.packets.addon.codec;
+
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.craftsnet.api.websocket.Frame;
+import de.craftsblock.craftsnet.api.websocket.codec.WebSocketSafeTypeDecoder;
+
+/**
+ * A {@link WebSocketSafeTypeDecoder} implementation which defers decoding to the
+ * networker of the client.
+ * <p>
+ * Frames are wrapped into a {@link ReceivedFramePacket}, which is decoded once the
+ * endpoint hands it to the networker of the client through
+ * {@link Packet#handle(de.craftsblock.cnet.modules.packets.common.networker.Networker)}.
+ * That runs the complete receive path of the {@link PacketTransport}, including the
+ * inbound string table, the pinned snapshot, the relay, the inbound interceptors,
+ * the capture and the metrics.
+ * <p>
+ * The endpoint receives a {@link ReceivedFramePacket} instead of the decoded packet,
+ * so this decoder has to be applied explicitly in place of the {@link CraftsNetPacketDecoder}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see CraftsNetPacketDecoder
+ * @since 1.2.0
+ */
+public final class CraftsNetFramePacketDecoder implements WebSocketSafeTypeDecoder<Packet> {
+
+    /**
+     * Wraps the data of the given WebSocket {@link Frame} into a {@link ReceivedFramePacket}.
+     *
+     * @param frame The WebSocket frame containing packet data.
+     * @return The not yet decoded packet, never {@code null}.
+     */
+    @Override
+    public Packet decode(Frame frame) {
+        return new ReceivedFramePacket(frame.getData());
+    }
+
+}
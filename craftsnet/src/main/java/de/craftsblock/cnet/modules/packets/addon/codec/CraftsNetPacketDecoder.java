@@ -1,5 +1,7 @@
 package de.craftsblock.cnet.modules.packets.addon.codec;
 
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.networker.NetworkerContext;
 import de.craftsblock.cnet.modules.packets.common.packet.Packet;
 import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketDecoder;
 import de.craftsblock.craftsnet.api.websocket.Frame;
@@ -11,9 +13,17 @@ import de.craftsblock.craftsnet.api.websocket.codec.WebSocketSafeTypeDecoder;
  * Uses an internal {@link PacketDecoder} to convert WebSocket {@link Frame}
  * data into {@link Packet} objects. This decoder allows packets to be
  * safely received and interpreted from the WebSocket network.
+ * <p>
+ * The decoder only sees the frame but not the connection it was received through.
+ * If a {@link Networker} is bound to the current thread through the {@link NetworkerContext},
+ * the frame is decoded with the state of that connection, like its inbound string
+ * table or pinned bundle snapshot. Otherwise it is decoded detached from any connection.
+ * Endpoints which need the complete receive path of every connection should use the
+ * {@link CraftsNetFramePacketDecoder} instead.
  *
  * @author CraftsBlock
  * @version 1.0.0
+ * @see CraftsNetFramePacketDecoder
  * @since 1.0.0
  */
 public final class CraftsNetPacketDecoder implements WebSocketSafeTypeDecoder<Packet> {
@@ -23,15 +33,20 @@ public final class CraftsNetPacketDecoder implements WebSocketSafeTypeDecoder<Pa
     /**
      * Decodes a {@link Packet} from the given WebSocket {@link Frame}.
      * <p>
-     * Delegates the decoding process to the internal {@link PacketDecoder},
-     * using the frame's buffer as input.
+     * Delegates the decoding process to the {@link PacketDecoder} of the networker
+     * bound to the current thread, or to the internal {@link PacketDecoder} if
+     * none is bound, using the frame's buffer as input.
      *
      * @param frame The WebSocket frame containing packet data.
      * @return The decoded {@link Packet}.
      */
     @Override
     public Packet decode(Frame frame) {
-        return PACKET_DECODER.decode(frame.getBuffer());
+        Networker networker = NetworkerContext.current();
+        if (networker == null || networker.getEnvironment() == null)
+            return PACKET_DECODER.decode(frame.getBuffer());
+
+        return networker.getEnvironment().getPacketDecoder().decode(frame.getBuffer(), networker);
     }
 
 }
@@ -0,0 +1,48 @@
+package de.craftsblock.cnet.modules.packets.addon.codec;
+
+import de.craftsblock.cnet.modules.packets.common.networker.Networker;
+import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.craftsnet.utils.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A complete frame received through CraftsNet which is not decoded yet.
+ * <p>
+ * Created by the {@link CraftsNetFramePacketDecoder}, as decoding depends on the
+ * state of the connection the frame was received through. Handling the packet
+ * passes the frame to the {@link PacketTransport} of the given networker, which
+ * relays, decodes, intercepts and dispatches it like frames of any other networker.
+ *
+ * @param frame The received frame, which must not be modified.
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see CraftsNetFramePacketDecoder
+ * @since 1.2.0
+ */
+public record ReceivedFramePacket(byte @NotNull [] frame) implements Packet {
+
+    /**
+     * Received frames can not be sent again.
+     *
+     * @param buffer The buffer to write to.
+     * @throws UnsupportedOperationException Always, send the decoded packet instead.
+     */
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("A received frame can not be sent, send the decoded packet instead!");
+    }
+
+    /**
+     * Passes the frame to the {@link PacketTransport}, which decodes it with the
+     * state of the networker and dispatches the decoded packet.
+     *
+     * @param networker The networker the frame was received through.
+     */
+    @Override
+    public void handle(Networker networker) {
+        PacketTransport.receive(networker, frame);
+    }
+
+}
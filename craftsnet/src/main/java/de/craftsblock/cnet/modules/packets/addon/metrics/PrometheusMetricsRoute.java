@@ -0,0 +1,78 @@
+package de.craftsblock.cnet.modules.packets.addon.metrics;
+
+import de.craftsblock.cnet.modules.packets.common.WebSocketPackets;
+import de.craftsblock.cnet.modules.packets.common.metrics.PrometheusExporter;
+import de.craftsblock.craftsnet.api.RequestHandler;
+import de.craftsblock.craftsnet.api.annotations.Route;
+import de.craftsblock.craftsnet.api.http.Exchange;
+import de.craftsblock.craftsnet.api.http.HttpMethod;
+import de.craftsblock.craftsnet.api.http.Response;
+import de.craftsblock.craftsnet.api.http.annotations.RequestMethod;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * HTTP route exposing the packet and connection metrics of a {@link WebSocketPackets}
+ * instance in the Prometheus text format under {@link #PATH}.
+ * <p>
+ * The route is only registered if the system property {@link #ENABLED_PROPERTY}
+ * is set to {@code true}. Scrapes are rendered by a {@link PrometheusExporter}
+ * which reads the counters in place, instead of walking the connections.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PrometheusExporter
+ * @since 1.2.0
+ */
+public class PrometheusMetricsRoute implements RequestHandler {
+
+    /**
+     * The system property enabling the route.
+     */
+    public static final String ENABLED_PROPERTY = "websocketpackets.metrics.prometheus";
+
+    /**
+     * The path of the route.
+     */
+    public static final String PATH = "/websocketpackets/metrics";
+
+    private final PrometheusExporter exporter;
+
+    /**
+     * Constructs a new {@link PrometheusMetricsRoute}.
+     *
+     * @param webSocketPackets The instance whose metrics are exposed.
+     */
+    public PrometheusMetricsRoute(@NotNull WebSocketPackets webSocketPackets) {
+        this.exporter = new PrometheusExporter(webSocketPackets.getPacketMetrics());
+    }
+
+    /**
+     * Responds with the current metrics.
+     * <p>
+     * The metrics are encoded as UTF-8 into the reused array of the exporter,
+     * which is passed to the response as is.
+     *
+     * @param exchange The exchange of the scrape.
+     * @throws IOException If the response could not be written.
+     */
+    @Route(PATH)
+    @RequestMethod(HttpMethod.GET)
+    public void handleScrape(Exchange exchange) throws IOException {
+        Response response = exchange.response();
+        response.setContentType(PrometheusExporter.CONTENT_TYPE);
+        exporter.scrape(response::print);
+    }
+
+    /**
+     * Checks whether the route should be registered.
+     *
+     * @return {@code true} if {@link #ENABLED_PROPERTY} is set to {@code true}, {@code false} otherwise.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+}
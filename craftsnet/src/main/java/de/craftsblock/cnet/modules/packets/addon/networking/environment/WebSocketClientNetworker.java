@@ -1,8 +1,11 @@
 package de.craftsblock.cnet.modules.packets.addon.networking.environment;
 
+import de.craftsblock.cnet.modules.packets.common.networker.ConnectionState;
 import de.craftsblock.cnet.modules.packets.common.networker.Networker;
 import de.craftsblock.cnet.modules.packets.common.networker.environment.Environment;
 import de.craftsblock.cnet.modules.packets.common.packet.Packet;
+import de.craftsblock.cnet.modules.packets.common.packet.PacketTransport;
+import de.craftsblock.cnet.modules.packets.common.packet.codec.PacketEncoder;
 import de.craftsblock.craftscore.utils.id.Snowflake;
 import de.craftsblock.craftsnet.api.websocket.WebSocketClient;
 import org.jetbrains.annotations.NotNull;
@@ -15,15 +18,17 @@ import org.jetbrains.annotations.Range;
  * and retrieve the unique identifier and associated {@link Environment}.
  * Each instance is uniquely identified by a {@link Snowflake}-generated ID.
  *
- * @param id          The unique identifier for this networker instance.
- * @param environment The environment associated with this networker, never {@code null}.
- * @param client      The WebSocketClient used for communication, never {@code null}.
+ * @param id              The unique identifier for this networker instance.
+ * @param environment     The environment associated with this networker, never {@code null}.
+ * @param client          The WebSocketClient used for communication, never {@code null}.
+ * @param connectionState The mutable state of this connection, never {@code null}.
  * @author Philipp Maywald
  * @author CraftsBlock
  * @version 1.0.0
  * @since 1.0.0
  */
-public record WebSocketClientNetworker(long id, Environment environment, WebSocketClient client) implements Networker {
+public record WebSocketClientNetworker(long id, Environment environment, WebSocketClient client,
+                                       ConnectionState connectionState) implements Networker {
 
     /**
      * Constructs a new {@link WebSocketClientNetworker} with an automatically generated unique ID.
@@ -39,14 +44,41 @@ public record WebSocketClientNetworker(long id, Environment environment, WebSock
             throw new IllegalStateException("Must be located inside a valid environment! (Got: null)");
     }
 
+    /**
+     * Constructs a new {@link WebSocketClientNetworker} with a fresh {@link ConnectionState}.
+     *
+     * @param id          The unique identifier for this networker instance.
+     * @param environment The environment associated with this networker, never {@code null}.
+     * @param client      The WebSocketClient used for communication, never {@code null}.
+     */
+    public WebSocketClientNetworker(long id, Environment environment, WebSocketClient client) {
+        this(id, environment, client, new ConnectionState());
+    }
+
     /**
      * Sends a {@link Packet} to the client through the underlying {@link WebSocketClient}.
+     * <p>
+     * The packet is sent through the {@link PacketTransport} and therefore encoded
+     * through the {@link PacketEncoder} of the environment, as the encoder registered
+     * in CraftsNet neither knows about the connection it encodes for nor about the
+     * {@link de.craftsblock.cnet.modules.packets.common.WebSocketPackets} instance
+     * the environment is bound to.
      *
      * @param packet The packet to send.
      */
     @Override
     public void send(@NotNull Packet packet) {
-        client().sendMessage(packet);
+        PacketTransport.send(this, packet, frame -> client().sendMessage(frame));
+    }
+
+    /**
+     * Sends an already encoded frame to the client.
+     *
+     * @param frame The encoded frame.
+     */
+    @Override
+    public synchronized void sendRaw(byte @NotNull [] frame) {
+        client().sendMessage(frame);
     }
 
     /**
@@ -88,4 +120,14 @@ public record WebSocketClientNetworker(long id, Environment environment, WebSock
         return environment();
     }
 
+    /**
+     * Returns the mutable {@link ConnectionState} of this networker.
+     *
+     * @return The connection state, never {@code null}.
+     */
+    @Override
+    public @NotNull ConnectionState getConnectionState() {
+        return connectionState();
+    }
+
 }
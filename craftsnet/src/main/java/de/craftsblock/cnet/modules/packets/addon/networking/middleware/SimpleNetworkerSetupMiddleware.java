@@ -2,6 +2,7 @@ package de.craftsblock.cnet.modules.packets.addon.networking.middleware;
 
 import de.craftsblock.cnet.modules.packets.addon.WebSocketPacketsAddon;
 import de.craftsblock.cnet.modules.packets.addon.networking.environment.WebSocketClientNetworker;
+import de.craftsblock.cnet.modules.packets.common.protocol.handshake.Handshake;
 import de.craftsblock.craftsnet.CraftsNet;
 import de.craftsblock.craftsnet.api.middlewares.MiddlewareCallbackInfo;
 import de.craftsblock.craftsnet.api.middlewares.WebsocketMiddleware;
@@ -36,8 +37,8 @@ public class SimpleNetworkerSetupMiddleware implements WebsocketMiddleware {
     /**
      * Called when a new WebSocket connection is established.
      * <p>
-     * Creates a {@link WebSocketClientNetworker} and stores it in the
-     * session of the connecting client.
+     * Creates a {@link WebSocketClientNetworker}, stores it in the
+     * session of the connecting client and sends the {@link Handshake} if enabled.
      *
      * @param callbackInfo The middleware callback context.
      * @param exchange     The WebSocket exchange containing connection details.
@@ -51,20 +52,31 @@ public class SimpleNetworkerSetupMiddleware implements WebsocketMiddleware {
             throw new IllegalStateException("The websocket packets addon is not loaded!");
 
         WebSocketClient client = exchange.client();
-        client.getSession().put("networker", new WebSocketClientNetworker(addon.getEnvironment(), client));
+        WebSocketClientNetworker networker = new WebSocketClientNetworker(addon.getEnvironment(), client);
+        client.getSession().put("networker", networker);
+        addon.getWebSocketPackets().getPacketMetrics().getConnections().networkerOpened();
+
+        Handshake.initiate(networker);
     }
 
     /**
      * Called when a WebSocket connection is closed.
      * <p>
-     * Removes the {@link WebSocketClientNetworker} from the client session.
+     * Removes the {@link WebSocketClientNetworker} from the client session,
+     * unsubscribes it from all forwarded events and records it as closed.
      *
      * @param callbackInfo The middleware callback context.
      * @param exchange     The WebSocket exchange containing connection details.
      */
     @Override
     public void handleDisconnect(MiddlewareCallbackInfo callbackInfo, SocketExchange exchange) {
+        WebSocketClientNetworker networker = getNetworker(exchange.client());
         exchange.client().getSession().remove("networker");
+
+        if (networker == null || networker.getEnvironment() == null) return;
+
+        networker.getEnvironment().getEventForwarder().unsubscribe(networker);
+        networker.getEnvironment().getPacketMetrics().getConnections().networkerClosed();
     }
 
     /**
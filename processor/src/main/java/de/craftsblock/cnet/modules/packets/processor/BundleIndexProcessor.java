@@ -0,0 +1,416 @@
+package de.craftsblock.cnet.modules.packets.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor collecting {@code @BundlePacket} and {@code @IndexedPacketListener}
+ * annotations into a generated {@code PacketIndexProvider}.
+ * <p>
+ * The generated provider registers every bundle with the explicitly declared
+ * packet IDs and instantiates every indexed listener. It is announced through
+ * {@code META-INF/services}, so that it can be loaded without scanning the
+ * classpath. The fully qualified name of the generated class can be configured
+ * through the processor option {@value #OPTION_INDEX_CLASS}, by default it is
+ * called {@code GeneratedPacketIndex} and placed in the longest package shared
+ * by all annotated elements.
+ * <p>
+ * The index is generated at the end of the round the annotated elements are
+ * found in, so that the generated source is still compiled in a regular round.
+ * Annotated elements which only appear in a later round, as they are generated
+ * by another processor, can therefore not be indexed and are reported as error.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+@SupportedOptions(BundleIndexProcessor.OPTION_INDEX_CLASS)
+@SupportedAnnotationTypes({BundleIndexProcessor.BUNDLE_PACKET, BundleIndexProcessor.INDEXED_LISTENER})
+public final class BundleIndexProcessor extends AbstractProcessor {
+
+    /**
+     * The processor option to configure the fully qualified name of the generated index.
+     */
+    static final String OPTION_INDEX_CLASS = "websocketpackets.index";
+
+    static final String BUNDLE_PACKET = "de.craftsblock.cnet.modules.packets.common.protocol.index.BundlePacket";
+    static final String INDEXED_LISTENER = "de.craftsblock.cnet.modules.packets.common.protocol.index.IndexedPacketListener";
+
+    private static final String PACKET = "de.craftsblock.cnet.modules.packets.common.packet.Packet";
+    private static final String PACKET_LISTENER = "de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListener";
+    private static final String BYTE_BUFFER = "de.craftsblock.craftsnet.utils.ByteBuffer";
+    private static final String PROVIDER = "de.craftsblock.cnet.modules.packets.common.protocol.index.PacketIndexProvider";
+    private static final String DEFAULT_CLASS_NAME = "GeneratedPacketIndex";
+
+    private final Map<String, Bundle> bundles = new TreeMap<>();
+    private final List<TypeElement> listeners = new ArrayList<>();
+    private final List<Element> originating = new ArrayList<>();
+
+    private boolean generated;
+
+    /**
+     * Returns the latest source version supported by the running compiler,
+     * as the generated code does not depend on any specific version.
+     *
+     * @return The latest supported source version.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Collects the annotated elements of a round and generates the index
+     * at the end of the first round containing any.
+     *
+     * @param annotations The annotation types requested to be processed.
+     * @param roundEnv    The environment of the current round.
+     * @return Always {@code false}, so that other processors can see the annotations as well.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        int collected = originating.size();
+
+        for (TypeElement annotation : annotations)
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof TypeElement type)) continue;
+
+                if (generated) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "The packet index was already generated, annotated elements in generated sources can not be indexed!", type);
+                    continue;
+                }
+
+                try {
+                    if (annotation.getQualifiedName().contentEquals(BUNDLE_PACKET)) this.collectPacket(type);
+                    else this.collectListener(type);
+
+                    originating.add(type);
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.getElement());
+                }
+            }
+
+        if (!generated && originating.size() > collected) {
+            generated = true;
+
+            try {
+                this.generate();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write packet index: " + e.getMessage());
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Validates and collects a packet annotated with {@code @BundlePacket}.
+     *
+     * @param type The annotated packet.
+     */
+    private void collectPacket(TypeElement type) {
+        requireInstantiable(type);
+        requireAssignable(type, PACKET);
+
+        AnnotationMirror mirror = annotation(type, BUNDLE_PACKET);
+        String identifier = ((String) value(mirror, "bundle")).toLowerCase().trim();
+        int id = (Integer) value(mirror, "id");
+        int version = (Integer) value(mirror, "version");
+
+        if (!identifier.matches("[a-z0-9-_]+"))
+            throw new GenerationException("An packet bundle identifier must match [a-z0-9-_]!", type);
+
+        if (id < 0 || id > 0xFFFF)
+            throw new GenerationException("The packet id must be between 0 and %s! (Got: %s)".formatted(0xFFFF, id), type);
+
+        if (version < 0)
+            throw new GenerationException("The bundle version must not be negative! (Got: %s)".formatted(version), type);
+
+        Bundle bundle = bundles.computeIfAbsent(identifier, key -> new Bundle(version));
+        if (bundle.version != version)
+            throw new GenerationException("Bundle %s is declared with the versions %s and %s!".formatted(
+                    identifier, bundle.version, version
+            ), type);
+
+        TypeElement former = bundle.packets.get(id);
+        if (former != null && !former.equals(type))
+            throw new GenerationException("The id %s of bundle %s is already used by %s!".formatted(
+                    id, identifier, former.getQualifiedName()
+            ), type);
+
+        bundle.packets.put(id, type);
+        bundle.deserializers.put(id, this.deserializer(type));
+    }
+
+    /**
+     * Validates and collects a listener annotated with {@code @IndexedPacketListener}.
+     *
+     * @param type The annotated listener.
+     */
+    private void collectListener(TypeElement type) {
+        requireInstantiable(type);
+        requireAssignable(type, PACKET_LISTENER);
+
+        boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(candidate -> candidate.getModifiers().contains(Modifier.PUBLIC) && candidate.getParameters().isEmpty());
+        if (!constructor)
+            throw new GenerationException("Indexed packet listeners need a public no-args constructor!", type);
+
+        if (!listeners.contains(type)) listeners.add(type);
+    }
+
+    /**
+     * Resolves the deserializer reference used for a packet.
+     *
+     * @param type The packet.
+     * @return The method reference creating the packet from a buffer.
+     */
+    private String deserializer(TypeElement type) {
+        if (type.getKind() == ElementKind.RECORD && SerializerGenerator.isAnnotated(type))
+            return SerializerGenerator.serializerName(type) + "::read";
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+            if (constructor.getModifiers().contains(Modifier.PUBLIC) && acceptsBuffer(constructor))
+                return type.getQualifiedName() + "::new";
+
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements()))
+            if (method.getSimpleName().contentEquals("read") && acceptsBuffer(method)
+                    && method.getModifiers().containsAll(Set.of(Modifier.PUBLIC, Modifier.STATIC))
+                    && processingEnv.getTypeUtils().isAssignable(method.getReturnType(), type.asType()))
+                return type.getQualifiedName() + "::read";
+
+        throw new GenerationException("No deserializer found! Annotate the record with @PacketSerializable, "
+                + "add a public constructor taking a ByteBuffer or a public static read(ByteBuffer) method.", type);
+    }
+
+    /**
+     * Writes the index class and its service entry.
+     *
+     * @throws IOException If a file could not be written.
+     */
+    private void generate() throws IOException {
+        String qualifiedName = this.indexClassName();
+        int separator = qualifiedName.lastIndexOf('.');
+        String packageName = separator < 0 ? "" : qualifiedName.substring(0, separator);
+        String simpleName = qualifiedName.substring(separator + 1);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("import de.craftsblock.cnet.modules.packets.common.packet.listener.PacketListenerRegistry;\n");
+        source.append("import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundle;\n");
+        source.append("import de.craftsblock.cnet.modules.packets.common.protocol.PacketBundleRegistry;\n");
+        source.append("import ").append(PROVIDER).append(";\n\n");
+        source.append("/**\n * Generated packet index containing ").append(bundles.size()).append(" bundle(s) and ")
+                .append(listeners.size()).append(" listener(s).\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(BundleIndexProcessor.class.getName()).append("\")\n");
+        source.append("@SuppressWarnings(\"all\")\n");
+        source.append("public final class ").append(simpleName).append(" implements PacketIndexProvider {\n\n");
+
+        SerializerGenerator.line(source, 1, "@Override");
+        SerializerGenerator.line(source, 1, "public void registerBundles(PacketBundleRegistry registry) {");
+        for (Map.Entry<String, Bundle> entry : bundles.entrySet()) {
+            Bundle bundle = entry.getValue();
+            SerializerGenerator.line(source, 2, "if (!registry.isRegistered(\"%s\"))".formatted(entry.getKey()));
+            SerializerGenerator.line(source, 3, "registry.register(PacketBundle.create(\"%s\", %s)".formatted(entry.getKey(), bundle.version));
+            for (Map.Entry<Integer, TypeElement> packet : bundle.packets.entrySet())
+                SerializerGenerator.line(source, 5, ".addPacket(%s, %s.class, %s)".formatted(
+                        packet.getKey(), packet.getValue().getQualifiedName(), bundle.deserializers.get(packet.getKey())
+                ));
+            SerializerGenerator.line(source, 5, ".build());");
+        }
+        SerializerGenerator.line(source, 1, "}");
+        source.append('\n');
+
+        SerializerGenerator.line(source, 1, "@Override");
+        SerializerGenerator.line(source, 1, "public void registerListeners(PacketListenerRegistry registry) {");
+        for (TypeElement listener : listeners) {
+            String name = listener.getQualifiedName().toString();
+            SerializerGenerator.line(source, 2, "if (!registry.isRegistered(%s.class))".formatted(name));
+            SerializerGenerator.line(source, 3, "registry.register(new %s());".formatted(name));
+        }
+        SerializerGenerator.line(source, 1, "}");
+        source.append('\n');
+        source.append("}\n");
+
+        Element[] elements = originating.toArray(Element[]::new);
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, elements);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+
+        FileObject service = processingEnv.getFiler().createResource(
+                StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PROVIDER, elements
+        );
+        try (Writer writer = service.openWriter()) {
+            writer.write(qualifiedName);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Returns the fully qualified name of the generated index class.
+     *
+     * @return The fully qualified class name.
+     */
+    private String indexClassName() {
+        String configured = processingEnv.getOptions().get(OPTION_INDEX_CLASS);
+        if (configured != null && !configured.isBlank()) return configured.trim();
+
+        String shared = null;
+        for (Element element : originating) {
+            String packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+            shared = shared == null ? packageName : sharedPackage(shared, packageName);
+        }
+
+        if (shared == null || shared.isEmpty()) return DEFAULT_CLASS_NAME;
+        return shared + "." + DEFAULT_CLASS_NAME;
+    }
+
+    /**
+     * Returns the longest package shared by two packages.
+     *
+     * @param first  The first package.
+     * @param second The second package.
+     * @return The shared package, or an empty string if none is shared.
+     */
+    private static String sharedPackage(String first, String second) {
+        String[] a = first.split("\\.");
+        String[] b = second.split("\\.");
+
+        StringBuilder shared = new StringBuilder();
+        for (int i = 0; i < Math.min(a.length, b.length) && a[i].equals(b[i]); i++) {
+            if (i > 0) shared.append('.');
+            shared.append(a[i]);
+        }
+
+        return shared.toString();
+    }
+
+    /**
+     * Checks whether an executable takes a single {@code ByteBuffer} parameter.
+     *
+     * @param executable The executable to check.
+     * @return {@code true} if the executable accepts a buffer, {@code false} otherwise.
+     */
+    private static boolean acceptsBuffer(ExecutableElement executable) {
+        List<? extends VariableElement> parameters = executable.getParameters();
+        if (parameters.size() != 1) return false;
+
+        TypeMirror type = parameters.get(0).asType();
+        return SerializerGenerator.typeName(type).equals(BYTE_BUFFER);
+    }
+
+    /**
+     * Ensures that the generated index can instantiate or reference a type.
+     *
+     * @param type The type to check.
+     */
+    private static void requireInstantiable(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getKind() == ElementKind.INTERFACE)
+            throw new GenerationException("Indexed types must not be abstract!", type);
+
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement())
+            if (!current.getModifiers().contains(Modifier.PUBLIC))
+                throw new GenerationException("Indexed types and their enclosing types must be public!", type);
+
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() == ElementKind.CLASS)
+            throw new GenerationException("Indexed inner classes must be static!", type);
+    }
+
+    /**
+     * Ensures that a type is assignable to the given type, if that type is visible.
+     *
+     * @param type     The type to check.
+     * @param required The fully qualified name of the required type.
+     */
+    private void requireAssignable(TypeElement type, String required) {
+        TypeElement requiredType = processingEnv.getElementUtils().getTypeElement(required);
+        if (requiredType == null) return;
+
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(requiredType.asType());
+        if (!processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), erasure))
+            throw new GenerationException("%s must implement %s!".formatted(type.getQualifiedName(), required), type);
+    }
+
+    /**
+     * Returns the mirror of an annotation on an element.
+     *
+     * @param element    The annotated element.
+     * @param annotation The fully qualified name of the annotation.
+     * @return The annotation mirror.
+     */
+    private static AnnotationMirror annotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+                return mirror;
+
+        throw new GenerationException("Missing annotation %s!".formatted(annotation), element);
+    }
+
+    /**
+     * Returns the value of an annotation attribute, falling back to its default.
+     *
+     * @param mirror The annotation mirror.
+     * @param name   The name of the attribute.
+     * @return The value of the attribute.
+     */
+    private Object value(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet())
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+
+        throw new IllegalStateException("Missing annotation attribute " + name);
+    }
+
+    /**
+     * The packets collected for a single bundle.
+     */
+    private static final class Bundle {
+
+        private final int version;
+        private final Map<Integer, TypeElement> packets = new TreeMap<>();
+        private final Map<Integer, String> deserializers = new TreeMap<>();
+
+        /**
+         * Constructs a new {@link Bundle}.
+         *
+         * @param version The version of the bundle.
+         */
+        private Bundle(int version) {
+            this.version = version;
+        }
+
+    }
+
+}
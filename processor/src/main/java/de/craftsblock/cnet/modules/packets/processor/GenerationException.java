@@ -0,0 +1,42 @@
+package de.craftsblock.cnet.modules.packets.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Signals that code for an element could not be generated.
+ * <p>
+ * The processors catch this exception and report it as a compile error
+ * on {@link #getElement()}.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class GenerationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Element element;
+
+    /**
+     * Constructs a new {@link GenerationException}.
+     *
+     * @param message The message describing the problem.
+     * @param element The element the problem belongs to.
+     */
+    GenerationException(String message, Element element) {
+        super(message);
+        this.element = element;
+    }
+
+    /**
+     * Returns the element the problem belongs to.
+     *
+     * @return The element.
+     */
+    Element getElement() {
+        return element;
+    }
+
+}
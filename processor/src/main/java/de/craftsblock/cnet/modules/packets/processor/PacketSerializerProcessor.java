@@ -0,0 +1,91 @@
+package de.craftsblock.cnet.modules.packets.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * Annotation processor generating serializers for records annotated with
+ * {@code @PacketSerializable}.
+ * <p>
+ * For each annotated record a final class with a static {@code write} and
+ * {@code read} method is generated, see {@link SerializerGenerator} for the
+ * generated code and the supported component types. Unsupported records or
+ * components are reported as compile errors on the offending element.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see SerializerGenerator
+ * @since 1.2.0
+ */
+@SupportedAnnotationTypes(SerializerGenerator.ANNOTATION)
+public final class PacketSerializerProcessor extends AbstractProcessor {
+
+    /**
+     * Returns the latest source version supported by the running compiler,
+     * as the generated code does not depend on any specific version.
+     *
+     * @return The latest supported source version.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generates the serializers for all records annotated in this round.
+     *
+     * @param annotations The annotation types requested to be processed.
+     * @param roundEnv    The environment of the current round.
+     * @return Always {@code false}, so that other processors can see the annotation as well.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations)
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof TypeElement record)) continue;
+
+                try {
+                    this.generate(record);
+                } catch (GenerationException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.getElement());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Could not write serializer: " + e.getMessage(), record);
+                }
+            }
+
+        return false;
+    }
+
+    /**
+     * Generates and writes the serializer of a single record.
+     *
+     * @param record The annotated record.
+     * @throws IOException If the source file could not be written.
+     */
+    private void generate(TypeElement record) throws IOException {
+        SerializerGenerator generator = new SerializerGenerator(
+                processingEnv.getElementUtils(),
+                processingEnv.getTypeUtils(),
+                record
+        );
+
+        String source = generator.generate();
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(SerializerGenerator.serializerName(record), record);
+
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+}
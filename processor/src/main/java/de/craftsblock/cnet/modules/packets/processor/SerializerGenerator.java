@@ -0,0 +1,546 @@
+package de.craftsblock.cnet.modules.packets.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the source code of the serializer for a single record annotated
+ * with {@code @PacketSerializable}.
+ * <p>
+ * The generated code writes and reads the record components in declaration
+ * order. It only uses static calls, plain loops and the canonical constructor
+ * of the record, so it does not depend on reflection and is easy to inline
+ * for the JIT compiler.
+ *
+ * @author Philipp Maywald
+ * @author CraftsBlock
+ * @version 1.0.0
+ * @see PacketSerializerProcessor
+ * @since 1.2.0
+ */
+final class SerializerGenerator {
+
+    /**
+     * The fully qualified name of the {@code @PacketSerializable} annotation.
+     */
+    static final String ANNOTATION = "de.craftsblock.cnet.modules.packets.common.serialization.PacketSerializable";
+
+    private static final String BYTE_BUFFER = "de.craftsblock.craftsnet.utils.ByteBuffer";
+    private static final String STRING_TABLES = "de.craftsblock.cnet.modules.packets.common.networker.strings.StringTables";
+
+    private final Elements elements;
+    private final Types types;
+    private final TypeElement record;
+
+    private final Map<String, String> enumConstants = new LinkedHashMap<>();
+    private int variables;
+
+    /**
+     * Constructs a new {@link SerializerGenerator} for a record.
+     *
+     * @param elements The element utilities of the processing environment.
+     * @param types    The type utilities of the processing environment.
+     * @param record   The record to generate the serializer for.
+     */
+    SerializerGenerator(Elements elements, Types types, TypeElement record) {
+        this.elements = elements;
+        this.types = types;
+        this.record = record;
+    }
+
+    /**
+     * Generates the source code of the serializer.
+     *
+     * @return The source code.
+     * @throws GenerationException If the record or one of its components is not supported.
+     */
+    String generate() {
+        validate(record);
+
+        String recordName = typeName(record.asType());
+        StringBuilder write = new StringBuilder();
+        StringBuilder read = new StringBuilder();
+
+        List<String> arguments = new ArrayList<>();
+        for (RecordComponentElement component : record.getRecordComponents()) {
+            String accessor = "value." + component.getSimpleName() + "()";
+            this.write(component.asType(), accessor, 2, write, component);
+
+            String expression = this.read(component.asType(), 2, read, component);
+            String variable = "c" + arguments.size();
+            line(read, 2, "%s %s = %s;".formatted(typeName(component.asType()), variable, expression));
+            arguments.add(variable);
+        }
+
+        PackageElement packageElement = elements.getPackageOf(record);
+        StringBuilder source = new StringBuilder();
+        if (!packageElement.isUnnamed())
+            source.append("package ").append(packageElement.getQualifiedName()).append(";\n\n");
+
+        source.append("import ").append(BYTE_BUFFER).append(";\n");
+        source.append("import ").append(STRING_TABLES).append(";\n\n");
+        source.append("/**\n * Generated serializer for {@link ").append(recordName).append("}.\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(PacketSerializerProcessor.class.getName()).append("\")\n");
+        source.append("@SuppressWarnings(\"all\")\n");
+        source.append("public final class ").append(simpleSerializerName(record)).append(" {\n\n");
+
+        for (Map.Entry<String, String> constants : enumConstants.entrySet())
+            line(source, 1, "private static final %s[] %s = %s.values();".formatted(
+                    constants.getKey(), constants.getValue(), constants.getKey()
+            ));
+        if (!enumConstants.isEmpty()) source.append('\n');
+
+        line(source, 1, "private %s() {".formatted(simpleSerializerName(record)));
+        line(source, 1, "}");
+        source.append('\n');
+
+        line(source, 1, "/**");
+        line(source, 1, " * Writes the components of the given record into the buffer.");
+        line(source, 1, " *");
+        line(source, 1, " * @param value  The record to write.");
+        line(source, 1, " * @param buffer The buffer to write into.");
+        line(source, 1, " */");
+        line(source, 1, "public static void write(%s value, ByteBuffer buffer) {".formatted(recordName));
+        source.append(write);
+        line(source, 1, "}");
+        source.append('\n');
+
+        line(source, 1, "/**");
+        line(source, 1, " * Reads a new record from the buffer.");
+        line(source, 1, " *");
+        line(source, 1, " * @param buffer The buffer to read from.");
+        line(source, 1, " * @return The read record.");
+        line(source, 1, " */");
+        line(source, 1, "public static %s read(ByteBuffer buffer) {".formatted(recordName));
+        source.append(read);
+        line(source, 2, "return new %s(%s);".formatted(recordName, String.join(", ", arguments)));
+        line(source, 1, "}");
+        source.append('\n');
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Generates the statements writing a value of the given type.
+     *
+     * @param type       The type of the value.
+     * @param expression The expression evaluating to the value.
+     * @param indent     The indentation level.
+     * @param out        The builder to append the statements to.
+     * @param origin     The element used for error reporting.
+     */
+    private void write(TypeMirror type, String expression, int indent, StringBuilder out, Element origin) {
+        switch (type.getKind()) {
+            case BOOLEAN -> line(out, indent, "buffer.writeBoolean(%s);".formatted(expression));
+            case BYTE -> line(out, indent, "buffer.writeByte(%s);".formatted(expression));
+            case SHORT -> line(out, indent, "buffer.writeShort(%s);".formatted(expression));
+            case CHAR -> line(out, indent, "buffer.writeShort((short) %s);".formatted(expression));
+            case INT -> line(out, indent, "buffer.writeInt(%s);".formatted(expression));
+            case LONG -> line(out, indent, "buffer.writeLong(%s);".formatted(expression));
+            case FLOAT -> line(out, indent, "buffer.writeFloat(%s);".formatted(expression));
+            case DOUBLE -> line(out, indent, "buffer.writeDouble(%s);".formatted(expression));
+            case ARRAY -> {
+                requireByteArray((ArrayType) type, origin);
+                String variable = this.variable("bytes");
+                line(out, indent, "byte[] %s = %s;".formatted(variable, expression));
+                line(out, indent, "buffer.writeVarInt(%s.length);".formatted(variable));
+                line(out, indent, "buffer.write(%s);".formatted(variable));
+            }
+            case DECLARED -> this.writeDeclared((DeclaredType) type, expression, indent, out, origin);
+            default -> throw unsupported(type, origin);
+        }
+    }
+
+    /**
+     * Generates the statements writing a value of a declared type.
+     *
+     * @param type       The type of the value.
+     * @param expression The expression evaluating to the value.
+     * @param indent     The indentation level.
+     * @param out        The builder to append the statements to.
+     * @param origin     The element used for error reporting.
+     */
+    private void writeDeclared(DeclaredType type, String expression, int indent, StringBuilder out, Element origin) {
+        TypeMirror unboxed = unboxed(type);
+        if (unboxed != null) {
+            this.write(unboxed, expression, indent, out, origin);
+            return;
+        }
+
+        TypeElement element = (TypeElement) type.asElement();
+        String name = element.getQualifiedName().toString();
+
+        switch (name) {
+            case "java.lang.String" -> line(out, indent, "StringTables.writeString(buffer, %s);".formatted(expression));
+            case "java.util.UUID" -> {
+                String variable = this.variable("uuid");
+                line(out, indent, "java.util.UUID %s = %s;".formatted(variable, expression));
+                line(out, indent, "buffer.writeLong(%s.getMostSignificantBits());".formatted(variable));
+                line(out, indent, "buffer.writeLong(%s.getLeastSignificantBits());".formatted(variable));
+            }
+            case "java.util.List" -> {
+                TypeMirror elementType = typeArgument(type, origin);
+                String variable = this.variable("list");
+                String size = this.variable("size");
+                String index = this.variable("index");
+
+                line(out, indent, "%s %s = %s;".formatted(typeName(type), variable, expression));
+                line(out, indent, "int %s = %s.size();".formatted(size, variable));
+                line(out, indent, "buffer.writeVarInt(%s);".formatted(size));
+                line(out, indent, "for (int %s = 0; %s < %s; %s++) {".formatted(index, index, size, index));
+                this.write(elementType, "%s.get(%s)".formatted(variable, index), indent + 1, out, origin);
+                line(out, indent, "}");
+            }
+            case "java.util.Optional" -> {
+                TypeMirror elementType = typeArgument(type, origin);
+                String variable = this.variable("optional");
+
+                line(out, indent, "%s %s = %s;".formatted(typeName(type), variable, expression));
+                line(out, indent, "buffer.writeBoolean(%s.isPresent());".formatted(variable));
+                line(out, indent, "if (%s.isPresent()) {".formatted(variable));
+                this.write(elementType, variable + ".get()", indent + 1, out, origin);
+                line(out, indent, "}");
+            }
+            default -> {
+                if (element.getKind() == ElementKind.ENUM) {
+                    line(out, indent, "buffer.writeVarInt(%s.ordinal());".formatted(expression));
+                    return;
+                }
+
+                requireSerializable(element, type, origin);
+                line(out, indent, "%s.write(%s, buffer);".formatted(serializerName(element), expression));
+            }
+        }
+    }
+
+    /**
+     * Generates the statements reading a value of the given type.
+     *
+     * @param type   The type of the value.
+     * @param indent The indentation level.
+     * @param out    The builder to append the statements to.
+     * @param origin The element used for error reporting.
+     * @return An expression evaluating to the read value.
+     */
+    private String read(TypeMirror type, int indent, StringBuilder out, Element origin) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "buffer.readBoolean()";
+            case BYTE -> "buffer.readByte()";
+            case SHORT -> "buffer.readShort()";
+            case CHAR -> "(char) buffer.readShort()";
+            case INT -> "buffer.readInt()";
+            case LONG -> "buffer.readLong()";
+            case FLOAT -> "buffer.readFloat()";
+            case DOUBLE -> "buffer.readDouble()";
+            case ARRAY -> {
+                requireByteArray((ArrayType) type, origin);
+                yield "buffer.readNBytes(buffer.readVarInt())";
+            }
+            case DECLARED -> this.readDeclared((DeclaredType) type, indent, out, origin);
+            default -> throw unsupported(type, origin);
+        };
+    }
+
+    /**
+     * Generates the statements reading a value of a declared type.
+     *
+     * @param type   The type of the value.
+     * @param indent The indentation level.
+     * @param out    The builder to append the statements to.
+     * @param origin The element used for error reporting.
+     * @return An expression evaluating to the read value.
+     */
+    private String readDeclared(DeclaredType type, int indent, StringBuilder out, Element origin) {
+        TypeMirror unboxed = unboxed(type);
+        if (unboxed != null)
+            return this.read(unboxed, indent, out, origin);
+
+        TypeElement element = (TypeElement) type.asElement();
+        String name = element.getQualifiedName().toString();
+
+        switch (name) {
+            case "java.lang.String" -> {
+                return "StringTables.readString(buffer)";
+            }
+            case "java.util.UUID" -> {
+                return "new java.util.UUID(buffer.readLong(), buffer.readLong())";
+            }
+            case "java.util.List" -> {
+                TypeMirror elementType = typeArgument(type, origin);
+                String variable = this.variable("list");
+                String size = this.variable("size");
+                String index = this.variable("index");
+
+                line(out, indent, "int %s = buffer.readVarInt();".formatted(size));
+                line(out, indent, "if (%s < 0) throw new IllegalStateException(\"Negative list size \" + %s);".formatted(size, size));
+                line(out, indent, "java.util.ArrayList<%s> %s = new java.util.ArrayList<>(Math.min(%s, 256));".formatted(
+                        typeName(elementType), variable, size
+                ));
+                line(out, indent, "for (int %s = 0; %s < %s; %s++) {".formatted(index, index, size, index));
+                String value = this.read(elementType, indent + 1, out, origin);
+                line(out, indent + 1, "%s.add(%s);".formatted(variable, value));
+                line(out, indent, "}");
+                return variable;
+            }
+            case "java.util.Optional" -> {
+                TypeMirror elementType = typeArgument(type, origin);
+                String variable = this.variable("optional");
+
+                line(out, indent, "%s %s = java.util.Optional.empty();".formatted(typeName(type), variable));
+                line(out, indent, "if (buffer.readBoolean()) {");
+                String value = this.read(elementType, indent + 1, out, origin);
+                line(out, indent + 1, "%s = java.util.Optional.of(%s);".formatted(variable, value));
+                line(out, indent, "}");
+                return variable;
+            }
+            default -> {
+                if (element.getKind() == ElementKind.ENUM) {
+                    String constants = enumConstants.computeIfAbsent(name,
+                            key -> "ENUM_" + enumConstants.size() + "_" + element.getSimpleName().toString().toUpperCase());
+                    String ordinal = this.variable("ordinal");
+
+                    line(out, indent, "int %s = buffer.readVarInt();".formatted(ordinal));
+                    line(out, indent, "if (%s < 0 || %s >= %s.length)".formatted(ordinal, ordinal, constants));
+                    line(out, indent + 1, "throw new IllegalStateException(\"Invalid ordinal \" + %s + \" for %s\");".formatted(
+                            ordinal, name
+                    ));
+                    return "%s[%s]".formatted(constants, ordinal);
+                }
+
+                requireSerializable(element, type, origin);
+                return "%s.read(buffer)".formatted(serializerName(element));
+            }
+        }
+    }
+
+    /**
+     * Returns a new unique local variable name.
+     *
+     * @param prefix The prefix of the variable.
+     * @return The variable name.
+     */
+    private String variable(String prefix) {
+        return prefix + (variables++);
+    }
+
+    /**
+     * Returns the primitive type of a boxed type.
+     *
+     * @param type The type to unbox.
+     * @return The primitive type, or {@code null} if the type is not a wrapper type.
+     */
+    private TypeMirror unboxed(TypeMirror type) {
+        try {
+            return types.unboxedType(type);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the single type argument of a {@link List} or {@link java.util.Optional}.
+     *
+     * @param type   The parameterized type.
+     * @param origin The element used for error reporting.
+     * @return The type argument, wildcards are replaced by their upper bound.
+     */
+    private static TypeMirror typeArgument(DeclaredType type, Element origin) {
+        List<? extends TypeMirror> arguments = type.getTypeArguments();
+        if (arguments.size() != 1)
+            throw new GenerationException("Raw type %s is not supported!".formatted(type), origin);
+
+        TypeMirror argument = arguments.get(0);
+        if (argument.getKind() != TypeKind.WILDCARD) return argument;
+
+        TypeMirror bound = ((WildcardType) argument).getExtendsBound();
+        if (bound == null)
+            throw new GenerationException("Unbounded wildcard in %s is not supported!".formatted(type), origin);
+
+        return bound;
+    }
+
+    /**
+     * Ensures that an array type is {@code byte[]}.
+     *
+     * @param type   The array type.
+     * @param origin The element used for error reporting.
+     */
+    private static void requireByteArray(ArrayType type, Element origin) {
+        if (type.getComponentType().getKind() != TypeKind.BYTE)
+            throw new GenerationException("Only byte arrays are supported! (Got: %s)".formatted(type), origin);
+    }
+
+    /**
+     * Ensures that a nested type is a record annotated with {@code @PacketSerializable}.
+     *
+     * @param element The element of the nested type.
+     * @param type    The nested type.
+     * @param origin  The element used for error reporting.
+     */
+    private static void requireSerializable(TypeElement element, TypeMirror type, Element origin) {
+        if (element.getKind() == ElementKind.RECORD && isAnnotated(element)) return;
+        throw unsupported(type, origin);
+    }
+
+    /**
+     * Creates the exception for an unsupported type.
+     *
+     * @param type   The unsupported type.
+     * @param origin The element used for error reporting.
+     * @return The exception.
+     */
+    private static GenerationException unsupported(TypeMirror type, Element origin) {
+        return new GenerationException("Unsupported type %s! Nested records must be annotated with @PacketSerializable.".formatted(type), origin);
+    }
+
+    /**
+     * Validates that a record can be used by a generated serializer.
+     *
+     * @param record The record to validate.
+     * @throws GenerationException If the record is not supported.
+     */
+    static void validate(TypeElement record) {
+        if (record.getKind() != ElementKind.RECORD)
+            throw new GenerationException("@PacketSerializable can only be applied to records!", record);
+
+        if (!record.getTypeParameters().isEmpty())
+            throw new GenerationException("Generic records are not supported!", record);
+
+        for (Element current = record; current instanceof TypeElement; current = current.getEnclosingElement())
+            if (current.getModifiers().contains(Modifier.PRIVATE))
+                throw new GenerationException("Private records can not be serialized by generated code!", record);
+
+        if (!(enclosingOf(record) instanceof PackageElement))
+            throw new GenerationException("Local records are not supported!", record);
+    }
+
+    /**
+     * Checks whether an element is annotated with {@code @PacketSerializable}.
+     *
+     * @param element The element to check.
+     * @return {@code true} if the element is annotated, {@code false} otherwise.
+     */
+    static boolean isAnnotated(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(ANNOTATION)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the fully qualified name of the serializer generated for a record.
+     *
+     * @param record The record.
+     * @return The fully qualified serializer name.
+     */
+    static String serializerName(TypeElement record) {
+        Element enclosing = enclosingOf(record);
+        String simpleName = simpleSerializerName(record);
+
+        if (enclosing instanceof PackageElement packageElement && !packageElement.isUnnamed())
+            return packageElement.getQualifiedName() + "." + simpleName;
+
+        return simpleName;
+    }
+
+    /**
+     * Returns the simple name of the serializer generated for a record. The simple
+     * names of all enclosing types are joined with {@code _}.
+     *
+     * @param record The record.
+     * @return The simple serializer name.
+     */
+    static String simpleSerializerName(TypeElement record) {
+        StringBuilder name = new StringBuilder(record.getSimpleName());
+        for (Element current = record.getEnclosingElement(); current instanceof TypeElement; current = current.getEnclosingElement())
+            name.insert(0, '_').insert(0, current.getSimpleName());
+
+        return name.append("Serializer").toString();
+    }
+
+    /**
+     * Returns the first enclosing element which is not a type.
+     *
+     * @param element The element to start at.
+     * @return The first enclosing non type element.
+     */
+    private static Element enclosingOf(Element element) {
+        Element current = element.getEnclosingElement();
+        while (current instanceof TypeElement)
+            current = current.getEnclosingElement();
+
+        return current;
+    }
+
+    /**
+     * Returns the source code representation of a type without type annotations.
+     *
+     * @param type The type.
+     * @return The source code representation.
+     */
+    static String typeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "boolean";
+            case BYTE -> "byte";
+            case SHORT -> "short";
+            case CHAR -> "char";
+            case INT -> "int";
+            case LONG -> "long";
+            case FLOAT -> "float";
+            case DOUBLE -> "double";
+            case ARRAY -> typeName(((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD -> {
+                TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                yield bound == null ? "?" : "? extends " + typeName(bound);
+            }
+            case DECLARED -> {
+                DeclaredType declared = (DeclaredType) type;
+                StringBuilder name = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                List<? extends TypeMirror> arguments = declared.getTypeArguments();
+
+                if (!arguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < arguments.size(); i++) {
+                        if (i > 0) name.append(", ");
+                        name.append(typeName(arguments.get(i)));
+                    }
+                    name.append('>');
+                }
+
+                yield name.toString();
+            }
+            default -> type.toString();
+        };
+    }
+
+    /**
+     * Appends an indented line of code.
+     *
+     * @param out    The builder to append to.
+     * @param indent The indentation level.
+     * @param code   The code of the line.
+     */
+    static void line(StringBuilder out, int indent, String code) {
+        out.append("    ".repeat(indent)).append(code).append('\n');
+    }
+
+}